@@ -0,0 +1,56 @@
+package com.example.prisonmanagement.benchmarks;
+
+import com.example.prisonmanagement.services.audit.AuditEntry;
+import com.example.prisonmanagement.services.audit.AuditLogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost added to an admin action by auditing it: AuditLogService.record() from several request
+ * threads at once, with the writer thread appending to real segment files in the background.
+ *
+ * The threads call record() back to back, far faster than admins act, so the ring soon fills:
+ * the median is the plain publish cost, the upper percentiles are callers waiting for the writer.
+ * Run with "-bm thrpt" for the sustained rate the writer can absorb.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AuditLogBenchmark {
+
+    private Path dir;
+    private AuditLogService auditLog;
+    private final AtomicLong ids = new AtomicLong();
+
+    @Setup
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("audit-bench");
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        auditLog = new AuditLogService(mapper, dir.toString(), 64 * 1024 * 1024, 8192, 1000);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        auditLog.shutdown();
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void recordStatusChange() {
+        auditLog.record(AuditEntry.EntityType.DETAINEE, ids.incrementAndGet() % 10_000, "STATUS_CHANGED",
+                "PENDING_VALIDATION", "VALIDATED", "Dossier complet");
+    }
+}
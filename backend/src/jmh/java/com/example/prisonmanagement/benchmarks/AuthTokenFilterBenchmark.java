@@ -0,0 +1,83 @@
+package com.example.prisonmanagement.benchmarks;
+
+import com.example.prisonmanagement.config.security.jwt.AuthTokenFilter;
+import com.example.prisonmanagement.config.security.jwt.JwtUtils;
+import com.example.prisonmanagement.models.UserStatus;
+import com.example.prisonmanagement.services.UserDetailsCache;
+import com.example.prisonmanagement.services.UserDetailsImpl;
+import com.example.prisonmanagement.services.UserDetailsServiceImpl;
+import com.example.prisonmanagement.services.presence.PresenceTracker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full AuthTokenFilter pass for an authenticated request: header parsing, token verification,
+ * principal lookup, security context and presence update. "cached" is the steady state;
+ * "uncached" disables the principal cache so every request goes to the user details service
+ * (stubbed here, so the database round-trip it replaces is not included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class AuthTokenFilterBenchmark {
+
+    private static final String SECRET = "bezKoderSecretKeySuperSecureAndLongEnoughForHS256Algorithm";
+
+    private AuthTokenFilter cachedFilter;
+    private AuthTokenFilter uncachedFilter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 86400000);
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "admin", "admin@prison.gov", "x",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), UserStatus.ACTIVE);
+        authorization = "Bearer " + jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return principal;
+            }
+        };
+        PresenceTracker presenceTracker = new PresenceTracker();
+        cachedFilter = new AuthTokenFilter(jwtUtils, new UserDetailsCache(userDetailsService, 60_000, 10_000),
+                presenceTracker);
+        uncachedFilter = new AuthTokenFilter(jwtUtils, new UserDetailsCache(userDetailsService, 0, 10_000),
+                presenceTracker);
+    }
+
+    @Benchmark
+    public Object cached() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    @Benchmark
+    public Object uncached() throws Exception {
+        return filter(uncachedFilter);
+    }
+
+    private Object filter(AuthTokenFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/detainees");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
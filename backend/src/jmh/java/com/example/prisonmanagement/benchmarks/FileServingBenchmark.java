@@ -0,0 +1,120 @@
+package com.example.prisonmanagement.benchmarks;
+
+import com.example.prisonmanagement.services.files.FileServingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of serving an upload: the previous static resource handler (what MvcConfig
+ * registered for /uploads/**) against FileServingService, for a full download, a revalidation
+ * and a 64 KB range. Runs in-process on servlet mocks, so it measures handler CPU cost; the
+ * sendfile path of FileServingService only applies behind a real Tomcat connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileServingBenchmark {
+
+    private static final String FILE = "3f9a8b7c6d5e4f3a2b1c0d9e8f7a6b5c4d3e2f1a0b9c8d7e6f5a4b3c2d1e0f9a.jpg";
+
+    @Param({"262144"})
+    public int size;
+
+    private Path dir;
+    private ResourceHttpRequestHandler legacy;
+    private FileServingService current;
+    private String etag;
+    private String lastModified;
+
+    @Setup
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("serving-bench");
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        Files.write(dir.resolve(FILE), content);
+
+        legacy = new ResourceHttpRequestHandler();
+        legacy.setLocations(List.of(new FileSystemResource(dir.toString() + "/")));
+        legacy.setServletContext(new MockServletContext());
+        legacy.afterPropertiesSet();
+
+        current = new FileServingService(dir.toString());
+
+        MockHttpServletResponse first = legacyGet(null, null);
+        lastModified = first.getHeader("Last-Modified");
+        etag = currentGet(null, null).getHeader("ETag");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dir.resolve(FILE));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse legacyFull() throws Exception {
+        return legacyGet(null, null);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse currentFull() throws Exception {
+        return currentGet(null, null);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse legacyRevalidate() throws Exception {
+        return legacyGet("If-Modified-Since", lastModified);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse currentRevalidate() throws Exception {
+        return currentGet("If-None-Match", etag);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse legacyRange() throws Exception {
+        return legacyGet("Range", "bytes=65536-131071");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse currentRange() throws Exception {
+        return currentGet("Range", "bytes=65536-131071");
+    }
+
+    private MockHttpServletResponse legacyGet(String header, String value) throws Exception {
+        MockHttpServletRequest request = request(header, value);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, FILE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        legacy.handleRequest(request, response);
+        return response;
+    }
+
+    private MockHttpServletResponse currentGet(String header, String value) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        current.serve(FILE, request(header, value), response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + FILE);
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.prisonmanagement.benchmarks;
+
+import com.example.prisonmanagement.config.security.jwt.JwtUtils;
+import com.example.prisonmanagement.models.UserStatus;
+import com.example.prisonmanagement.services.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification as done by AuthTokenFilter for every authenticated request.
+ * "legacy" reproduces the previous path: key and parser rebuilt on each call, signature verified
+ * twice (validateJwtToken then getUserNameFromJwtToken). "current" is JwtUtils.parseValidClaims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "bezKoderSecretKeySuperSecureAndLongEnoughForHS256Algorithm";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils(SECRET, 86400000);
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "admin", "admin@prison.gov", "x",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), UserStatus.ACTIVE);
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+    }
+
+    @Benchmark
+    public String legacy() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String current() {
+        return jwtUtils.parseValidClaims(token).getSubject();
+    }
+}
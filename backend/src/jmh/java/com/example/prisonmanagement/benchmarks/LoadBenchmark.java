@@ -0,0 +1,274 @@
+package com.example.prisonmanagement.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.LongFunction;
+
+/**
+ * Closed-loop HTTP load test against a running instance, used to compare the default
+ * platform-thread mode with the virtual-threads profile on the same database:
+ *
+ *   java -jar app.jar                                           (platform threads)
+ *   java -jar app.jar --spring.profiles.active=virtual-threads  (Java 21)
+ *
+ * Args: baseUrl concurrency seconds [username password], an ADMIN or PERSONNEL account. Each client thread loops over the
+ * detainee and incident endpoints back to back; after a 10s warm-up it reports throughput and
+ * p50/p99 latency per endpoint. An empty database is seeded first (1000 detainees, 3000
+ * incidents) so both modes run against the same data.
+ */
+public class LoadBenchmark {
+
+    private static final int WARMUP_SECONDS = 10;
+    private static final int SEED_DETAINEES = 1000;
+    private static final int SEED_INCIDENTS = 3000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private String token;
+
+    LoadBenchmark(String baseUrl, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.max(2, concurrency / 4), daemon()))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String username = args.length > 3 ? args[3] : "admin";
+        String password = args.length > 4 ? args[4] : "admin";
+
+        LoadBenchmark bench = new LoadBenchmark(baseUrl, concurrency);
+        bench.login(username, password);
+        long[] detaineeIds = bench.seed();
+
+        Map<String, LongFunction<HttpRequest>> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /api/detainees", i -> bench.get("/api/detainees?size=50"));
+        endpoints.put("GET /api/detainees/search", i -> bench.get("/api/detainees/search?q=Nom" + (i % 100)));
+        endpoints.put("GET /api/incidents", i -> bench.get("/api/incidents?size=50&page=" + (i % 20)));
+        endpoints.put("GET /api/incidents/detainee/{id}",
+                i -> bench.get("/api/incidents/detainee/" + detaineeIds[(int) (i % detaineeIds.length)]));
+        endpoints.put("POST /api/incidents", i -> bench.post("/api/incidents", incident(detaineeIds[(int) (i % detaineeIds.length)], i)));
+
+        System.out.printf("Warm-up %ds, %d clients%n", WARMUP_SECONDS, concurrency);
+        bench.run(endpoints, concurrency, WARMUP_SECONDS);
+        System.out.printf("Measuring %ds, %d clients against %s%n", seconds, concurrency, baseUrl);
+        Map<String, Recorder> results = bench.run(endpoints, concurrency, seconds);
+
+        System.out.printf("%-36s %10s %10s %10s %10s %8s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        long total = 0;
+        for (Map.Entry<String, Recorder> e : results.entrySet()) {
+            Recorder r = e.getValue();
+            long[] sorted = r.sorted();
+            total += sorted.length;
+            System.out.printf("%-36s %10.1f %10.2f %10.2f %10.2f %8d%n", e.getKey(), sorted.length / (double) seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0), r.errors);
+        }
+        System.out.printf("%-36s %10.1f%n", "total", total / (double) seconds);
+    }
+
+    private static ThreadFactory daemon() {
+        return task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private Map<String, Recorder> run(Map<String, LongFunction<HttpRequest>> endpoints, int concurrency, int seconds)
+            throws InterruptedException {
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        List<Map<String, Recorder>> perThread = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency, daemon());
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        for (int t = 0; t < concurrency; t++) {
+            Map<String, Recorder> recorders = new LinkedHashMap<>();
+            names.forEach(n -> recorders.put(n, new Recorder()));
+            perThread.add(recorders);
+            long offset = t;
+            clients.execute(() -> {
+                try {
+                    // Threads start on different endpoints so every endpoint is hit concurrently
+                    for (long i = offset; System.nanoTime() < deadline; i++) {
+                        String name = names.get((int) (i % names.size()));
+                        HttpRequest request = endpoints.get(name).apply(i);
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            ok = response.statusCode() < 400;
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        recorders.get(name).record(System.nanoTime() - start, ok);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+
+        Map<String, Recorder> merged = new LinkedHashMap<>();
+        names.forEach(n -> merged.put(n, new Recorder()));
+        for (Map<String, Recorder> recorders : perThread) {
+            recorders.forEach((name, r) -> merged.get(name).addAll(r));
+        }
+        return merged;
+    }
+
+    private void login(String username, String password) throws Exception {
+        String credentials = MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = send(post("/api/auth/signin", credentials));
+        if (response.statusCode() != 200) {
+            // Fresh database: signing up "admin" first creates the administrator account
+            String signup = MAPPER.writeValueAsString(Map.of("username", username, "password", password,
+                    "email", username + "@example.org"));
+            send(post("/api/auth/signup", signup));
+            response = send(post("/api/auth/signin", credentials));
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Sign-in failed: " + response.body());
+        }
+        token = MAPPER.readTree(response.body()).get("token").asText();
+    }
+
+    private long[] seed() throws Exception {
+        HttpResponse<String> first = send(get("/api/detainees?size=500"));
+        if (first.statusCode() != 200) {
+            throw new IllegalStateException("Cannot list detainees (HTTP " + first.statusCode() + "): the account needs ADMIN or PERSONNEL");
+        }
+        JsonNode page = MAPPER.readTree(first.body());
+        if (page.get("items").size() == 0) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int i = 0; i < SEED_DETAINEES; i++) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("lastName", "Nom" + i);
+                row.put("firstName", "Prenom" + i);
+                row.put("birthDate", LocalDate.of(1970 + i % 30, 1 + i % 12, 1 + i % 28).toString());
+                row.put("detentionType", i % 3 == 0 ? "Préventive" : "Condamnation");
+                row.put("arrivalDate", LocalDate.of(2020, 1, 1).plusDays(i).toString());
+                row.put("securityLevel", i % 5 == 0 ? "Élevé" : "Moyen");
+                rows.add(row);
+            }
+            String boundary = "----load" + System.nanoTime();
+            String body = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"seed.json\"\r\n"
+                    + "Content-Type: application/json\r\n\r\n" + MAPPER.writeValueAsString(rows) + "\r\n--" + boundary + "--\r\n";
+            send(authorized("/api/detainees/import")
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build());
+            page = MAPPER.readTree(send(get("/api/detainees?size=500")).body());
+            long[] ids = ids(page);
+            for (int i = 0; i < SEED_INCIDENTS; i++) {
+                send(post("/api/incidents", incident(ids[i % ids.length], i)));
+            }
+            System.out.printf("Seeded %d detainees and %d incidents%n", SEED_DETAINEES, SEED_INCIDENTS);
+        }
+        return ids(page);
+    }
+
+    private static long[] ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static String incident(long detaineeId, long i) {
+        try {
+            Map<String, Object> incident = new LinkedHashMap<>();
+            incident.put("type", i % 2 == 0 ? "Bagarre" : "Contrebande");
+            incident.put("date", LocalDateTime.of(2024, 1, 1, 8, 0).plusHours(i).toString());
+            incident.put("location", "Bloc " + (char) ('A' + i % 4));
+            incident.put("description", "Incident de charge " + i);
+            incident.put("gravity", i % 3 == 0 ? "Élevée" : "Moyenne");
+            incident.put("detainee", Map.of("id", detaineeId));
+            return MAPPER.writeValueAsString(incident);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return authorized(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return authorized(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    // Per-thread latency log (nanoseconds); merged after the run
+    private static final class Recorder {
+        private long[] samples = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.samples[i], true);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
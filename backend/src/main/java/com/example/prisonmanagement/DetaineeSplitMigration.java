@@ -0,0 +1,102 @@
+package com.example.prisonmanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * One-off move of the detail columns that used to live on "detenus" into their section tables.
+ * ddl-auto=update creates the new tables but never drops columns, so on a database created
+ * before the split the data is copied over and the old columns are removed. Does nothing once
+ * the columns are gone.
+ */
+@Component
+@Order(0)
+public class DetaineeSplitMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetaineeSplitMigration.class);
+
+    private static final Map<String, List<String>> SECTIONS = new LinkedHashMap<>();
+
+    static {
+        SECTIONS.put("detenus_identite", List.of("address", "family_contacts_json"));
+        SECTIONS.put("detenus_judiciaire", List.of("offenses", "sentence", "sentence_date", "court", "admin_comments"));
+        SECTIONS.put("detenus_medical", List.of("blood_type", "medical_status", "allergies", "treatments", "medical_history"));
+        SECTIONS.put("detenus_biometrie", List.of("distinctive_marks", "physical_peculiarities", "fingerprints_url",
+                "facial_recognition_url"));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DetaineeSplitMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        Set<String> legacy = legacyColumns();
+        if (legacy.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (legacy.contains("family_contacts_json")) {
+                // The new identity table was created with a jsonb column: take the legacy text as is,
+                // FamilyContactsJsonbMigration normalizes it, converts the column back and re-creates the index
+                jdbcTemplate.execute("DROP INDEX IF EXISTS idx_detenus_identite_contacts");
+                jdbcTemplate.execute("ALTER TABLE detenus_identite ALTER COLUMN family_contacts_json SET DATA TYPE TEXT");
+            }
+            SECTIONS.forEach((table, columns) -> {
+                List<String> present = columns.stream().filter(legacy::contains).collect(Collectors.toList());
+                if (present.isEmpty()) {
+                    return;
+                }
+                String names = String.join(", ", present);
+                String anySet = present.stream().map(c -> "d." + c + " IS NOT NULL").collect(Collectors.joining(" OR "));
+                int moved = jdbcTemplate.update("INSERT INTO " + table + " (detainee_id, " + names + ") "
+                        + "SELECT d.id, " + present.stream().map(c -> "d." + c).collect(Collectors.joining(", "))
+                        + " FROM detenus d WHERE (" + anySet + ") "
+                        + "AND NOT EXISTS (SELECT 1 FROM " + table + " s WHERE s.detainee_id = d.id)");
+                logger.info("Moved {} detainee rows into {}", moved, table);
+            });
+            legacy.forEach(column -> jdbcTemplate.execute("ALTER TABLE detenus DROP COLUMN " + column));
+        });
+        logger.info("Dropped legacy detainee columns {}", legacy);
+    }
+
+    private Set<String> legacyColumns() {
+        Set<String> wanted = SECTIONS.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+        return jdbcTemplate.execute((Connection con) -> {
+            Set<String> found = new HashSet<>();
+            DatabaseMetaData meta = con.getMetaData();
+            // Unquoted identifiers are stored lower-case by PostgreSQL and upper-case by H2
+            for (String table : List.of("detenus", "DETENUS")) {
+                try (ResultSet rs = meta.getColumns(null, null, table, null)) {
+                    while (rs.next()) {
+                        String column = rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT);
+                        if (wanted.contains(column)) {
+                            found.add(column);
+                        }
+                    }
+                }
+            }
+            return found;
+        });
+    }
+}
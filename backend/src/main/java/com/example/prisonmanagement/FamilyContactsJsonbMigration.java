@@ -0,0 +1,73 @@
+package com.example.prisonmanagement;
+
+import com.example.prisonmanagement.models.FamilyContact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Stores detenus_identite.family_contacts_json as jsonb and creates its GIN index (PostgreSQL only).
+ * ddl-auto=update cannot convert an existing TEXT column (PostgreSQL wants a USING clause; the
+ * failed attempt is logged once as a warning), so here the stored strings are normalized to
+ * [{name, relation, phone}] arrays first (text that is not such an array becomes the name of a
+ * single contact, nothing is dropped), then the column is converted. Runs after
+ * DetaineeSplitMigration; once converted, only creates the index if missing.
+ */
+@Component
+@Order(1)
+public class FamilyContactsJsonbMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FamilyContactsJsonbMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public FamilyContactsJsonbMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        String product = jdbcTemplate.execute((Connection con) -> con.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        List<String> type = jdbcTemplate.queryForList("SELECT data_type FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'detenus_identite' "
+                + "AND column_name = 'family_contacts_json'", String.class);
+        if (!type.isEmpty() && !"jsonb".equals(type.get(0))) {
+            convert();
+        }
+        // jsonb_path_ops: smaller than the default operator class and enough for @> containment
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_detenus_identite_contacts "
+                + "ON detenus_identite USING gin (family_contacts_json jsonb_path_ops)");
+    }
+
+    private void convert() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT detainee_id, family_contacts_json FROM detenus_identite WHERE family_contacts_json IS NOT NULL",
+                    (rs, i) -> new Object[]{normalize(rs.getString(2)), rs.getLong(1)});
+            jdbcTemplate.batchUpdate("UPDATE detenus_identite SET family_contacts_json = ? WHERE detainee_id = ?", rows);
+            jdbcTemplate.execute("ALTER TABLE detenus_identite ALTER COLUMN family_contacts_json "
+                    + "TYPE jsonb USING family_contacts_json::jsonb");
+            logger.info("Converted family contacts of {} detainees to jsonb", rows.size());
+        });
+    }
+
+    private static String normalize(String text) {
+        try {
+            return FamilyContact.toJson(FamilyContact.parseList(text));
+        } catch (IllegalArgumentException e) {
+            return FamilyContact.toJson(List.of(new FamilyContact(FamilyContact.trim(text), null, null)));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.prisonmanagement.config;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.Role;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regions of the Hibernate second-level cache. Every region is declared here with a size bound
+ * (hibernate.javax.cache.missing_cache_strategy=fail rejects any region not listed), and the
+ * cache manager is handed to Hibernate directly instead of through a provider config file.
+ */
+@Configuration
+public class CacheConfig {
+
+    // Hibernate's default region names for the query cache
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${prison.app.detaineeCacheSize:10000}") long detaineeCacheSize,
+                                              @Value("${prison.app.detaineeCacheTtlMinutes:60}") long detaineeCacheTtlMinutes) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        // The roles table is written once at startup by DataLoader
+        createCache(cacheManager, Role.class.getName(), 100, 0);
+        // Hibernate updates this region on every save; the TTL only bounds staleness after writes
+        // made outside Hibernate (JDBC batch imports, manual SQL)
+        createCache(cacheManager, Detainee.class.getName(), detaineeCacheSize,
+                TimeUnit.MINUTES.toNanos(detaineeCacheTtlMinutes));
+        createCache(cacheManager, QUERY_RESULTS_REGION, 1000, 0);
+        // One entry per table; must never be evicted before the query results that depend on it
+        createCache(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, long maximumSize, long expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (expireAfterWriteNanos > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWriteNanos));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -3,7 +3,10 @@ package com.example.prisonmanagement.config;
 import com.example.prisonmanagement.config.security.jwt.AuthEntryPointJwt;
 import com.example.prisonmanagement.config.security.jwt.AuthTokenFilter;
 import com.example.prisonmanagement.config.security.jwt.JwtUtils;
+import com.example.prisonmanagement.services.UserDetailsCache;
 import com.example.prisonmanagement.services.UserDetailsServiceImpl;
+import com.example.prisonmanagement.services.presence.PresenceTracker;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,16 +34,21 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final JwtUtils jwtUtils;
+    private final UserDetailsCache userDetailsCache;
+    private final PresenceTracker presenceTracker;
 
-    public SecurityConfig(UserDetailsServiceImpl userDetailsService, AuthEntryPointJwt unauthorizedHandler, JwtUtils jwtUtils) {
+    public SecurityConfig(UserDetailsServiceImpl userDetailsService, AuthEntryPointJwt unauthorizedHandler, JwtUtils jwtUtils,
+                          UserDetailsCache userDetailsCache, PresenceTracker presenceTracker) {
         this.userDetailsService = userDetailsService;
         this.unauthorizedHandler = unauthorizedHandler;
         this.jwtUtils = jwtUtils;
+        this.userDetailsCache = userDetailsCache;
+        this.presenceTracker = presenceTracker;
     }
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsCache, presenceTracker);
     }
 
     @Bean
@@ -68,6 +76,8 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (streamed exports) continue a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .anyRequest().authenticated());
 
@@ -83,7 +93,10 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", "X-Chunk-Sha256",
+                "Range", "If-Range", "If-None-Match"));
+        // Validators and range details of /uploads, readable by the frontend for resumed and conditional downloads
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Content-Range", "Accept-Ranges"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,23 @@
+package com.example.prisonmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Spring Boot ignores spring.threads.virtual.enabled below Java 21; make that visible instead of silently running on platform threads
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    public VirtualThreadsConfig() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            logger.warn("virtual-threads profile is active but the runtime is Java {}: requests run on platform threads", feature);
+        } else {
+            logger.info("Request handling, task executor and scheduler run on virtual threads");
+        }
+    }
+}
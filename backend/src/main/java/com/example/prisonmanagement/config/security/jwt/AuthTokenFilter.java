@@ -1,11 +1,13 @@
 package com.example.prisonmanagement.config.security.jwt;
 
-import com.example.prisonmanagement.services.UserDetailsServiceImpl;
+import com.example.prisonmanagement.services.UserDetailsCache;
+import com.example.prisonmanagement.services.UserDetailsImpl;
+import com.example.prisonmanagement.services.presence.PresenceTracker;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,13 +20,15 @@ import java.io.IOException;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final PresenceTracker presenceTracker;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsCache userDetailsCache, PresenceTracker presenceTracker) {
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.presenceTracker = presenceTracker;
     }
 
     @Override
@@ -32,17 +36,22 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            Claims claims = jwt != null ? jwtUtils.parseValidClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+                UserDetailsImpl userDetails = userDetailsCache.get(username);
+                // Suspended accounts keep a syntactically valid token but must not be authenticated
+                if (userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    presenceTracker.touch(userDetails.getId(), userDetails.getUsername());
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication", e);
@@ -58,6 +67,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             return headerAuth.substring(7);
         }
 
+        // Browsers' EventSource cannot set headers: the event stream alone also accepts the token as a parameter
+        if ("/api/events".equals(request.getServletPath()) && "GET".equals(request.getMethod())) {
+            String token = request.getParameter("access_token");
+            if (StringUtils.hasText(token)) {
+                return token;
+            }
+        }
+
         return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.services.audit.AuditEntry;
+import com.example.prisonmanagement.services.audit.AuditLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/audit")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditController {
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    // History of one record (or of every record of a type when entityId is omitted), oldest first
+    @GetMapping
+    public ResponseEntity<List<AuditEntry>> getAuditTrail(
+            @RequestParam AuditEntry.EntityType entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(auditLogService.query(entityType, entityId, toInstant(from), toInstant(to), limit));
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time == null ? null : time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
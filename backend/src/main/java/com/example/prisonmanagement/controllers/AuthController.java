@@ -11,7 +11,9 @@ import com.example.prisonmanagement.payload.response.JwtResponse;
 import com.example.prisonmanagement.payload.response.MessageResponse;
 import com.example.prisonmanagement.repositories.RoleRepository;
 import com.example.prisonmanagement.repositories.UserRepository;
+import com.example.prisonmanagement.services.LastLoginRecorder;
 import com.example.prisonmanagement.services.UserDetailsImpl;
+import com.example.prisonmanagement.services.stats.DashboardStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -46,6 +48,12 @@ public class AuthController {
         @Autowired
         JwtUtils jwtUtils;
 
+        @Autowired
+        DashboardStatsService dashboardStatsService;
+
+        @Autowired
+        LastLoginRecorder lastLoginRecorder;
+
         @PostMapping("/signin")
         public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
                 Authentication authentication = authenticationManager.authenticate(
@@ -63,12 +71,8 @@ public class AuthController {
                                         .body(new MessageResponse("Erreur : Votre compte est suspendu."));
                 }
 
-                User user = userRepository.findById(userDetails.getId()).orElseThrow(
-                                () -> new RuntimeException(
-                                                "Erreur : Utilisateur introuvable après authentification !"));
-
-                user.setLastLoginDate(LocalDateTime.now());
-                userRepository.save(user);
+                // Buffered and written in batches off the login path
+                lastLoginRecorder.record(userDetails.getId(), LocalDateTime.now());
 
                 Set<String> roles = userDetails.getAuthorities().stream()
                                 .map(item -> item.getAuthority())
@@ -113,12 +117,14 @@ public class AuthController {
                         roles.add(adminRole);
                         user.setRoles(roles); // Assign admin role
                         userRepository.save(user);
+                        dashboardStatsService.userCreated(user.getStatus());
                         return ResponseEntity.ok(new MessageResponse("Administrateur enregistré avec succès !"));
                 } else {
                         // New users register without roles, pending admin assignment
                         // User entity constructor sets status to ACTIVE by default
                         user.setRoles(roles); // Set empty roles
                         userRepository.save(user);
+                        dashboardStatsService.userCreated(user.getStatus());
                         return ResponseEntity.ok(new MessageResponse(
                                         "Utilisateur enregistré avec succès, en attente d'attribution de rôle par un administrateur."));
                 }
@@ -1,18 +1,57 @@
 package com.example.prisonmanagement.controllers;
 
 import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeBiometrics;
+import com.example.prisonmanagement.models.DetaineeIdentity;
+import com.example.prisonmanagement.models.DetaineeJudicial;
+import com.example.prisonmanagement.models.DetaineeMedical;
 import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.models.FamilyContact;
+import com.example.prisonmanagement.payload.request.DetaineeRequest;
+import com.example.prisonmanagement.payload.response.CursorPageResponse;
+import com.example.prisonmanagement.payload.response.DetaineeSearchHit;
+import com.example.prisonmanagement.payload.response.ImportReportResponse;
+import com.example.prisonmanagement.payload.response.MessageResponse;
+import com.example.prisonmanagement.payload.response.UpcomingReleaseResponse;
+import com.example.prisonmanagement.repositories.DetaineeBiometricsRepository;
+import com.example.prisonmanagement.repositories.DetaineeIdentityRepository;
+import com.example.prisonmanagement.repositories.DetaineeJudicialRepository;
+import com.example.prisonmanagement.repositories.DetaineeMedicalRepository;
 import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.projections.ContactMatch;
+import com.example.prisonmanagement.repositories.projections.DetaineeSummary;
+import com.example.prisonmanagement.services.DetaineeRecordService;
+import com.example.prisonmanagement.services.audit.AuditEntry;
+import com.example.prisonmanagement.services.audit.AuditLogService;
+import com.example.prisonmanagement.services.events.EventStreamService;
+import com.example.prisonmanagement.services.export.ExportFormat;
+import com.example.prisonmanagement.services.export.ExportService;
+import com.example.prisonmanagement.services.housing.HousingService;
+import com.example.prisonmanagement.services.imports.DetaineeImportService;
+import com.example.prisonmanagement.services.releases.ReleaseTimerService;
+import com.example.prisonmanagement.services.search.DetaineeSearchService;
+import com.example.prisonmanagement.services.stats.DashboardStatsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -21,21 +60,93 @@ public class DetaineeController {
 
     private static final Logger logger = LoggerFactory.getLogger(DetaineeController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_RELEASE_WINDOW_DAYS = 3650;
+
     @Autowired
     DetaineeRepository detaineeRepository;
 
+    @Autowired
+    DetaineeSearchService detaineeSearchService;
+
+    @Autowired
+    DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    EventStreamService eventStreamService;
+
+    @Autowired
+    AuditLogService auditLogService;
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    DetaineeImportService detaineeImportService;
+
+    @Autowired
+    DetaineeRecordService detaineeRecordService;
+
+    @Autowired
+    ReleaseTimerService releaseTimerService;
+
+    @Autowired
+    HousingService housingService;
+
+    @Autowired
+    DetaineeIdentityRepository detaineeIdentityRepository;
+
+    @Autowired
+    DetaineeJudicialRepository detaineeJudicialRepository;
+
+    @Autowired
+    DetaineeMedicalRepository detaineeMedicalRepository;
+
+    @Autowired
+    DetaineeBiometricsRepository detaineeBiometricsRepository;
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')") // Any authenticated user can add for now, refine later
-    public ResponseEntity<Detainee> createDetainee(@RequestBody Detainee detainee) {
-        // Ensure status is PENDING_VALIDATION on creation
-        detainee.setStatus(DetaineeStatus.PENDING_VALIDATION);
-        Detainee savedDetainee = detaineeRepository.save(detainee);
+    public ResponseEntity<?> createDetainee(@RequestBody DetaineeRequest request) {
+        // Status is always PENDING_VALIDATION on creation; detail sections are saved in the same transaction
+        Detainee savedDetainee;
+        try {
+            savedDetainee = detaineeRecordService.create(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+        detaineeSearchService.index(savedDetainee);
+        dashboardStatsService.detaineeCreated(savedDetainee);
+        eventStreamService.detaineeCreated(savedDetainee);
+        releaseTimerService.detaineeChanged(savedDetainee);
+        auditLogService.record(AuditEntry.EntityType.DETAINEE, savedDetainee.getId(), "CREATED",
+                null, savedDetainee.getStatus(), null);
         return ResponseEntity.ok(savedDetainee);
     }
 
+    // Bulk intake from other facilities: CSV (header = Detainee field names) or a JSON array
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<?> importDetainees(@RequestParam("file") MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase();
+        boolean csv = name.endsWith(".csv") || "text/csv".equals(file.getContentType());
+        try {
+            ImportReportResponse report = detaineeImportService.importFile(file.getInputStream(), csv);
+            return ResponseEntity.ok(report);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Erreur : Fichier d'import illisible. " + e.getMessage()));
+        }
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')") // Any authenticated user can view
-    public ResponseEntity<List<Detainee>> getAllDetainees() {
+    public ResponseEntity<?> getAllDetainees(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                             @RequestParam(required = false) DetaineeStatus status,
+                                             @RequestParam(required = false) String detentionType,
+                                             @RequestParam(required = false) String securityLevel) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         logger.info("Inside getAllDetainees - Authentication object: {}", authentication);
         if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal().equals("anonymousUser")) {
@@ -43,9 +154,129 @@ public class DetaineeController {
         } else {
             logger.info("User {} is properly authenticated with roles {}", authentication.getName(), authentication.getAuthorities());
         }
-        
-        List<Detainee> detainees = detaineeRepository.findAll();
-        return ResponseEntity.ok(detainees);
+
+        // Cursor format: "<arrivalDate>_<id>" of the last row of the previous page
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int sep = cursor.lastIndexOf('_');
+            try {
+                cursorDate = LocalDate.parse(cursor.substring(0, sep));
+                cursorId = Long.parseLong(cursor.substring(sep + 1));
+            } catch (DateTimeParseException | NumberFormatException | StringIndexOutOfBoundsException e) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Erreur : Curseur de pagination invalide."));
+            }
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        List<DetaineeSummary> rows = detaineeRepository.findSummaryPage(status, detentionType, securityLevel,
+                cursorDate, cursorId, PageRequest.ofSize(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<DetaineeSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            DetaineeSummary last = items.get(items.size() - 1);
+            nextCursor = last.getArrivalDate() + "_" + last.getId();
+        }
+        return ResponseEntity.ok(new CursorPageResponse<>(items, nextCursor, hasMore));
+    }
+
+    // Served from the in-memory trigram index, never from a LIKE scan on the database
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<List<DetaineeSearchHit>> searchDetainees(@RequestParam("q") String query,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(detaineeSearchService.search(query, limit));
+    }
+
+    // Bulk export streamed from a database cursor: the full list is never held in memory
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDetainees(@RequestParam(defaultValue = "ndjson") String format) {
+        // The declared body type must stay StreamingResponseBody for Spring MVC to stream it
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportDetainees(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"detenus." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Detainees whose expected end date falls within the next "within" days, overdue ones included;
+    // served from the release timers, never from a scan of detenus
+    @GetMapping("/releases")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<List<UpcomingReleaseResponse>> getUpcomingReleases(@RequestParam(defaultValue = "30") int within) {
+        return ResponseEntity.ok(releaseTimerService.upcoming(Math.max(0, Math.min(within, MAX_RELEASE_WINDOW_DAYS))));
+    }
+
+    // Detainees listing a contact with this phone (normalized) and/or this exact name, for visit
+    // control and investigations; answered by the GIN index on the jsonb contacts
+    @GetMapping("/by-contact")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<?> findByContact(@RequestParam(required = false) String phone,
+                                           @RequestParam(required = false) String name,
+                                           @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        FamilyContact probe = new FamilyContact(FamilyContact.trim(name), null, FamilyContact.normalizePhone(phone));
+        if (probe.getName() == null && probe.getPhone() == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Erreur : Indiquez un téléphone ou un nom de contact."));
+        }
+        List<ContactMatch> matches = detaineeIdentityRepository.findByContact(FamilyContact.toJson(List.of(probe)),
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(matches);
+    }
+
+    // Full record for the detail view; served from the second-level cache after the first load
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<Detainee> getDetainee(@PathVariable Long id) {
+        return detaineeRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Detail sections, each loaded on its own so list and card views never read the TEXT columns
+
+    @GetMapping("/{id}/identity")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<DetaineeIdentity> getIdentity(@PathVariable Long id) {
+        return section(id, detaineeIdentityRepository, DetaineeIdentity::new);
+    }
+
+    @GetMapping("/{id}/judicial")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<DetaineeJudicial> getJudicial(@PathVariable Long id) {
+        return section(id, detaineeJudicialRepository, DetaineeJudicial::new);
+    }
+
+    @GetMapping("/{id}/medical")
+    @PreAuthorize("hasRole('MEDECIN')") // medical secrecy: doctors only
+    public ResponseEntity<DetaineeMedical> getMedical(@PathVariable Long id) {
+        return section(id, detaineeMedicalRepository, DetaineeMedical::new);
+    }
+
+    @GetMapping("/{id}/biometrics")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<DetaineeBiometrics> getBiometrics(@PathVariable Long id) {
+        return section(id, detaineeBiometricsRepository, DetaineeBiometrics::new);
+    }
+
+    // An empty section is returned for a known detainee with nothing recorded in it yet
+    private <S> ResponseEntity<S> section(Long id, JpaRepository<S, Long> repository, Function<Long, S> empty) {
+        Optional<S> section = repository.findById(id);
+        if (section.isPresent()) {
+            return ResponseEntity.ok(section.get());
+        }
+        return detaineeRepository.existsById(id)
+                ? ResponseEntity.ok(empty.apply(id))
+                : ResponseEntity.notFound().build();
     }
 
     // Endpoint for Admin to validate/reject detainees
@@ -54,9 +285,34 @@ public class DetaineeController {
     public ResponseEntity<Detainee> updateDetaineeStatus(@PathVariable Long id, @RequestParam DetaineeStatus status, @RequestBody(required = false) String adminComments) {
         return detaineeRepository.findById(id)
                 .map(detainee -> {
-                    detainee.setStatus(status);
-                    detainee.setAdminComments(adminComments);
-                    return ResponseEntity.ok(detaineeRepository.save(detainee));
+                    DetaineeStatus previousStatus = detainee.getStatus();
+                    Detainee savedDetainee = detaineeRecordService.updateStatus(detainee, status, adminComments);
+                    detaineeSearchService.index(savedDetainee);
+                    dashboardStatsService.detaineeStatusChanged(previousStatus, status);
+                    eventStreamService.detaineeStatusChanged(savedDetainee);
+                    releaseTimerService.detaineeChanged(savedDetainee);
+                    auditLogService.record(AuditEntry.EntityType.DETAINEE, id, "STATUS_CHANGED",
+                            previousStatus, status, adminComments);
+                    return ResponseEntity.ok(savedDetainee);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Records the actual release (today unless a date is given): stops the release alerts and frees the bed
+    @PutMapping("/{id}/release")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Detainee> releaseDetainee(@PathVariable Long id,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return detaineeRepository.findById(id)
+                .map(detainee -> {
+                    LocalDate previousDate = detainee.getReleaseDate();
+                    detainee.setReleaseDate(date != null ? date : LocalDate.now());
+                    Detainee savedDetainee = detaineeRepository.save(detainee);
+                    releaseTimerService.detaineeChanged(savedDetainee);
+                    housingService.vacate(id);
+                    auditLogService.record(AuditEntry.EntityType.DETAINEE, id, "RELEASED",
+                            previousDate, savedDetainee.getReleaseDate(), null);
+                    return ResponseEntity.ok(savedDetainee);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
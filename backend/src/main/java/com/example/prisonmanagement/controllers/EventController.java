@@ -0,0 +1,44 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.services.events.EventStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    // Live stream of incident-created, detainee-created, detainee-status-changed and release-due events;
+    // an import too large to send row by row gives one detainees-imported event instead.
+    // "types" narrows the stream; each event is only sent to roles allowed to read the record.
+    // The body type must stay SseEmitter for Spring MVC to stream it, so errors carry no message.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<SseEmitter> subscribe(@RequestParam(required = false) List<String> types) {
+        Set<String> selected = types == null ? Set.of() : new HashSet<>(types);
+        if (!EventStreamService.TYPES.containsAll(selected)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return eventStreamService
+                .subscribe(SecurityContextHolder.getContext().getAuthentication().getAuthorities(), selected)
+                // Reverse proxies must not buffer the stream
+                .map(emitter -> ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30").build());
+    }
+}
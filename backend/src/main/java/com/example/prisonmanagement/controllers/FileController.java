@@ -1,14 +1,24 @@
 package com.example.prisonmanagement.controllers;
 
+import com.example.prisonmanagement.payload.request.UploadInitRequest;
 import com.example.prisonmanagement.payload.response.MessageResponse;
+import com.example.prisonmanagement.payload.response.UploadSessionResponse;
+import com.example.prisonmanagement.services.files.ChunkedUploadService;
 import com.example.prisonmanagement.services.files.FileStorageService;
+import com.example.prisonmanagement.services.files.ImageDerivativeService;
+import com.example.prisonmanagement.services.files.UploadSession;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.util.Objects;
+import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -18,23 +28,121 @@ public class FileController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
     @PostMapping("/upload")
     // @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')") ← COMMENTÉ/SUPPRIMÉ
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
         try {
             String fileName = fileStorageService.storeFile(file);
-            
-            // Construct file download URI
-            String fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path("/uploads/")
-                    .path(fileName.substring(fileName.lastIndexOf("/") + 1))
-                    .toUriString();
-
-            return ResponseEntity.ok(new MessageResponse(fileDownloadUri));
+            // Thumbnail/medium variants are built in the background (no-op for non-images)
+            imageDerivativeService.generateAsync(fileName);
+            return ResponseEntity.ok(new MessageResponse(downloadUri(fileName)));
         } catch (Exception ex) {
             return ResponseEntity.status(500)
                 .body(new MessageResponse("Erreur lors de l'upload du fichier: " + 
                     Objects.requireNonNull(file.getOriginalFilename()) + "! " + ex.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Resumable upload for large scans: start a session, PUT each chunk at its offset, then complete
+    @PostMapping("/uploads")
+    public ResponseEntity<?> initiateUpload(@RequestBody UploadInitRequest request) {
+        try {
+            UploadSession session = chunkedUploadService.initiate(currentUsername(),
+                    request.getFileName(), request.getTotalSize());
+            return ResponseEntity.status(HttpStatus.CREATED).body(UploadSessionResponse.from(session));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Erreur : " + e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(new MessageResponse("Erreur : impossible de préparer l'envoi."));
+        }
+    }
+
+    // Lists the offsets still missing, so an interrupted client knows where to resume
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> getUpload(@PathVariable String uploadId) {
+        Optional<UploadSession> session = chunkedUploadService.find(uploadId, currentUsername());
+        if (session.isEmpty()) {
+            return uploadNotFound();
+        }
+        return ResponseEntity.ok(UploadSessionResponse.from(session.get()));
+    }
+
+    // Raw chunk body (application/octet-stream) with its SHA-256 in X-Chunk-Sha256
+    @PutMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String uploadId,
+                                         @RequestParam long offset,
+                                         @RequestHeader(value = "X-Chunk-Sha256", required = false) String checksum,
+                                         HttpServletRequest request) {
+        Optional<UploadSession> session = chunkedUploadService.find(uploadId, currentUsername());
+        if (session.isEmpty()) {
+            return uploadNotFound();
+        }
+        try {
+            chunkedUploadService.writeChunk(session.get(), offset, request.getInputStream(), checksum);
+            return ResponseEntity.ok(UploadSessionResponse.from(session.get()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Erreur : " + e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Erreur : " + e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(new MessageResponse("Erreur : écriture du bloc interrompue, renvoyez-le."));
+        }
+    }
+
+    // Optional sha256 param: checksum of the whole file, verified before it is stored
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String uploadId,
+                                            @RequestParam(required = false) String sha256) {
+        Optional<UploadSession> session = chunkedUploadService.find(uploadId, currentUsername());
+        if (session.isEmpty()) {
+            return uploadNotFound();
+        }
+        try {
+            String fileName = chunkedUploadService.complete(session.get(), sha256);
+            imageDerivativeService.generateAsync(fileName);
+            return ResponseEntity.ok(new MessageResponse(downloadUri(fileName)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Erreur : " + e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Erreur : " + e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(new MessageResponse("Erreur : impossible d'enregistrer le fichier."));
+        }
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable String uploadId) {
+        Optional<UploadSession> session = chunkedUploadService.find(uploadId, currentUsername());
+        if (session.isEmpty()) {
+            return uploadNotFound();
+        }
+        try {
+            chunkedUploadService.abort(session.get());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Erreur : " + e.getMessage()));
+        }
+        return ResponseEntity.ok(new MessageResponse("Envoi annulé."));
+    }
+
+    // fileName is the blob path, e.g. /blobs/3f/3f9a...c1.jpg
+    private static String downloadUri(String fileName) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/uploads")
+                .path(fileName)
+                .toUriString();
+    }
+
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    private static ResponseEntity<MessageResponse> uploadNotFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Erreur : envoi introuvable ou expiré."));
+    }
+}
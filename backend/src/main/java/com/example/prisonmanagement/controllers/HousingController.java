@@ -0,0 +1,89 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.models.Cell;
+import com.example.prisonmanagement.payload.request.AssignmentRequest;
+import com.example.prisonmanagement.payload.request.BlockRequest;
+import com.example.prisonmanagement.payload.request.CellRequest;
+import com.example.prisonmanagement.payload.response.AssignmentResponse;
+import com.example.prisonmanagement.payload.response.MessageResponse;
+import com.example.prisonmanagement.payload.response.OccupancyResponse;
+import com.example.prisonmanagement.services.housing.HousingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/housing")
+public class HousingController {
+
+    @Autowired
+    private HousingService housingService;
+
+    // Served from the in-memory bitsets; cells=true adds the per-cell breakdown
+    @GetMapping("/occupancy")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<OccupancyResponse> getOccupancy(@RequestParam(defaultValue = "false") boolean cells) {
+        return ResponseEntity.ok(housingService.occupancy(cells));
+    }
+
+    @PostMapping("/blocks")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createBlock(@RequestBody BlockRequest request) {
+        try {
+            return ResponseEntity.ok(housingService.createBlock(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/blocks/{blockId}/cells")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createCell(@PathVariable Long blockId, @RequestBody CellRequest request) {
+        try {
+            Cell cell = housingService.createCell(blockId, request);
+            return ResponseEntity.ok(new OccupancyResponse.CellOccupancy(cell.getId(), cell.getNumber(), cell.getCapacity(), 0));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/assignments/{detaineeId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<AssignmentResponse> getAssignment(@PathVariable Long detaineeId) {
+        return housingService.findAssignment(detaineeId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 409 when no compatible bed is free or the detainee already has one
+    @PostMapping("/assignments")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<?> assign(@RequestBody AssignmentRequest request) {
+        try {
+            return ResponseEntity.ok(housingService.assign(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/assignments/{detaineeId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<MessageResponse> vacate(@PathVariable Long detaineeId) {
+        return housingService.vacate(detaineeId)
+                ? ResponseEntity.ok(new MessageResponse("Place libérée."))
+                : ResponseEntity.notFound().build();
+    }
+
+    // Reloads the bitsets, e.g. after assignments were corrected directly in the database
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuild() {
+        int occupied = housingService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Occupation rechargée : " + occupied + " places occupées."));
+    }
+}
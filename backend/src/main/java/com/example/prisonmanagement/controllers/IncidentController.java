@@ -1,33 +1,118 @@
 package com.example.prisonmanagement.controllers;
 
 import com.example.prisonmanagement.models.Incident;
+import com.example.prisonmanagement.payload.response.MessageResponse;
+import com.example.prisonmanagement.payload.response.PageResponse;
 import com.example.prisonmanagement.repositories.IncidentRepository;
+import com.example.prisonmanagement.repositories.projections.IncidentView;
+import com.example.prisonmanagement.services.events.EventStreamService;
+import com.example.prisonmanagement.services.export.ExportFormat;
+import com.example.prisonmanagement.services.export.ExportService;
+import com.example.prisonmanagement.services.stats.IncidentRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/incidents")
 public class IncidentController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    IncidentRepository incidentRepository;
+
+    @Autowired
+    private ExportService exportService;
+
     @Autowired
-    private IncidentRepository incidentRepository;
+    private IncidentRollupService incidentRollupService;
+
+    @Autowired
+    private EventStreamService eventStreamService;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
-    public ResponseEntity<List<Incident>> getAllIncidents() {
-        List<Incident> incidents = incidentRepository.findAll();
-        return ResponseEntity.ok(incidents);
+    public ResponseEntity<PageResponse<IncidentView>> getAllIncidents(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String gravity,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Page<IncidentView> incidents = incidentRepository.findViewPage(gravity, location, type, from, to, pageRequest);
+        return ResponseEntity.ok(PageResponse.of(incidents));
+    }
+
+    @GetMapping("/detainee/{detaineeId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<List<IncidentView>> getIncidentsByDetainee(@PathVariable Long detaineeId) {
+        return ResponseEntity.ok(incidentRepository.findByDetaineeId(detaineeId));
+    }
+
+    // Pre-aggregated counts for heatmaps and trend charts, e.g. groupBy=dayOfWeek,hourOfDay or groupBy=month,gravity
+    @GetMapping("/rollups")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<?> getRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") List<String> groupBy) {
+        try {
+            List<IncidentRollupService.Dimension> dimensions = groupBy.stream()
+                    .map(IncidentRollupService.Dimension::from)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(incidentRollupService.query(from, to, dimensions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    // Recomputes the rollups from the table, e.g. after incidents were corrected directly in the database
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildRollups() {
+        long incidents = incidentRollupService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Agrégats reconstruits : " + incidents + " incidents."));
+    }
+
+    // Streams incident rows (detainee name inlined) straight from the cursor to the client
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportIncidents(@RequestParam(defaultValue = "ndjson") String format) {
+        // The declared body type must stay StreamingResponseBody for Spring MVC to stream it
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportIncidents(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"incidents." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
     public ResponseEntity<Incident> createIncident(@RequestBody Incident incident) {
         Incident savedIncident = incidentRepository.save(incident);
+        incidentRollupService.incidentCreated(savedIncident);
+        eventStreamService.incidentCreated(savedIncident);
         return ResponseEntity.ok(savedIncident);
     }
 }
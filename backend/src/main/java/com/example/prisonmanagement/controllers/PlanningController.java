@@ -0,0 +1,104 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.models.ScheduleStatus;
+import com.example.prisonmanagement.payload.request.PlanningRequest;
+import com.example.prisonmanagement.payload.request.TransferRequest;
+import com.example.prisonmanagement.payload.response.AgendaItemResponse;
+import com.example.prisonmanagement.payload.response.MessageResponse;
+import com.example.prisonmanagement.services.planning.ScheduleConflictException;
+import com.example.prisonmanagement.services.planning.SchedulingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.function.Supplier;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/planning")
+public class PlanningController {
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    // Transfers and appointments of one day (day=), one week from Monday (week= any day of it) or [from, to)
+    @GetMapping("/agenda")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<?> getAgenda(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (day != null) {
+            from = day.atStartOfDay();
+            to = from.plusDays(1);
+        } else if (week != null) {
+            from = week.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            to = from.plusWeeks(1);
+        }
+        try {
+            return ResponseEntity.ok(schedulingService.agenda(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/transfers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL', 'MEDECIN')")
+    public ResponseEntity<List<AgendaItemResponse>> getTransfersByDetainee(@RequestParam Long detaineeId) {
+        return ResponseEntity.ok(schedulingService.transfersOf(detaineeId));
+    }
+
+    @PostMapping("/transfers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<?> createTransfer(@RequestBody TransferRequest request) {
+        return book(() -> AgendaItemResponse.of(schedulingService.createTransfer(request)));
+    }
+
+    // Visits, hearings, consultations...
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<?> createPlanning(@RequestBody PlanningRequest request) {
+        return book(() -> AgendaItemResponse.of(schedulingService.createPlanning(request)));
+    }
+
+    @PutMapping("/transfers/{id}/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<?> updateTransferStatus(@PathVariable Long id, @RequestParam ScheduleStatus status) {
+        return book(() -> schedulingService.updateTransferStatus(id, status).map(AgendaItemResponse::of).orElse(null));
+    }
+
+    @PutMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONNEL')")
+    public ResponseEntity<?> updatePlanningStatus(@PathVariable Long id, @RequestParam ScheduleStatus status) {
+        return book(() -> schedulingService.updatePlanningStatus(id, status).map(AgendaItemResponse::of).orElse(null));
+    }
+
+    // Reloads the conflict index, e.g. after bookings were corrected directly in the database
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuild() {
+        int bookings = schedulingService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Planning rechargé : " + bookings + " réservations."));
+    }
+
+    // 409 when the slot is taken, 400 on invalid input, 404 when the booking does not exist
+    private ResponseEntity<?> book(Supplier<AgendaItemResponse> action) {
+        try {
+            AgendaItemResponse item = action.get();
+            return item != null ? ResponseEntity.ok(item) : ResponseEntity.notFound().build();
+        } catch (ScheduleConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.payload.response.CacheStatsResponse;
+import com.example.prisonmanagement.payload.response.DashboardStatsResponse;
+import com.example.prisonmanagement.services.stats.CacheStatsService;
+import com.example.prisonmanagement.services.stats.DashboardStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DashboardStatsResponse> getDashboardStats() {
+        return ResponseEntity.ok(dashboardStatsService.snapshot());
+    }
+
+    // Second-level/query cache effectiveness, cumulative since startup
+    @GetMapping("/cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.snapshot());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.services.files.FileServingService;
+import com.example.prisonmanagement.services.files.ImageDerivativeService;
+import com.example.prisonmanagement.services.files.ImageDerivativeService.Variant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Optional;
+
+// Serves /uploads/** (photos, fingerprints, documents) with caching headers and range support
+@RestController
+public class UploadsController {
+
+    private static final String PREFIX = "/uploads/";
+    private static final String DERIVED_PREFIX = "/uploads/derived/";
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    @Autowired
+    private FileServingService fileServingService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @GetMapping("/uploads/**")
+    public void serveUpload(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = PATH_HELPER.getPathWithinApplication(request); // decoded, e.g. /uploads/blobs/3f/...
+        fileServingService.serve(path.substring(PREFIX.length()), request, response);
+    }
+
+    // Resized variant of an uploaded image: /uploads/derived/{thumb|medium}/<path of the original>
+    @GetMapping("/uploads/derived/{variant}/**")
+    public void serveDerived(@PathVariable String variant, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        int start = Math.min(path.length(), DERIVED_PREFIX.length() + variant.length() + 1);
+        String source = path.substring(start);
+        Optional<String> derived = Variant.from(variant)
+                .flatMap(v -> imageDerivativeService.variant(source, v));
+        if (derived.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileServingService.serve(derived.get(), request, response);
+    }
+}
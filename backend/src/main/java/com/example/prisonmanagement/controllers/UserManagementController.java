@@ -5,11 +5,23 @@ import com.example.prisonmanagement.models.Role;
 import com.example.prisonmanagement.models.User;
 import com.example.prisonmanagement.models.UserStatus;
 import com.example.prisonmanagement.payload.request.UserRoleUpdateRequest;
+import com.example.prisonmanagement.payload.response.ActiveUserResponse;
 import com.example.prisonmanagement.payload.response.MessageResponse;
+import com.example.prisonmanagement.payload.response.PageResponse;
+import com.example.prisonmanagement.payload.response.UserResponse;
 import com.example.prisonmanagement.repositories.RoleRepository;
 import com.example.prisonmanagement.repositories.UserRepository;
+import com.example.prisonmanagement.services.UserDetailsCache;
 import com.example.prisonmanagement.services.UserDetailsImpl;
+import com.example.prisonmanagement.services.audit.AuditEntry;
+import com.example.prisonmanagement.services.audit.AuditLogService;
+import com.example.prisonmanagement.services.presence.PresenceTracker;
+import com.example.prisonmanagement.services.stats.DashboardStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,10 +29,17 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -34,30 +53,59 @@ public class UserManagementController {
     @Autowired
     RoleRepository roleRepository;
 
-    // SessionRegistry removed - JWT is stateless, no session tracking in DB
+    @Autowired
+    DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    PresenceTracker presenceTracker;
+
+    @Autowired
+    AuditLogService auditLogService;
 
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        System.out.println("🔍 DEBUG /users - Auth: " + auth);
-        System.out.println("🔍 DEBUG /users - Principal: " + auth.getPrincipal());
-        System.out.println("🔍 DEBUG /users - Authorities: " + auth.getAuthorities());
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<PageResponse<UserResponse>> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) ERole role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime registeredTo) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 500)));
+        Page<Long> ids = userRepository.findIdPage(status, role, registeredFrom, registeredTo, pageRequest);
+
+        // Second query loads the page with roles fetched; restore the order of the id page
+        Map<Long, User> users = new HashMap<>();
+        if (ids.hasContent()) {
+            userRepository.findAllWithRolesByIdIn(ids.getContent()).forEach(u -> users.put(u.getId(), u));
+        }
+        // A user deleted between the two queries is simply left out of the page
+        List<UserResponse> items = ids.getContent().stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(UserResponse::from)
+                .collect(Collectors.toList());
+        Page<UserResponse> result = new PageImpl<>(items, ids.getPageable(), ids.getTotalElements());
+        return ResponseEntity.ok(PageResponse.of(result));
     }
 
     @GetMapping("/active-users")
-    public ResponseEntity<List<String>> getActiveUsers() {
-        // Note: With JWT stateless authentication, we don't track active sessions.
-        // If you need active user tracking, consider implementing a different solution
-        // such as tracking last activity timestamp in the database.
-        List<String> activeUsers = List.of(); // Return empty list for now
+    public ResponseEntity<List<ActiveUserResponse>> getActiveUsers(@RequestParam(defaultValue = "15") int minutes) {
+        // JWT auth is stateless: presence comes from the in-memory tracker fed by AuthTokenFilter
+        List<ActiveUserResponse> activeUsers = presenceTracker.activeWithin(minutes).stream()
+                .map(p -> new ActiveUserResponse(p.getUserId(), p.getUsername(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getLastSeenMillis()), ZoneId.systemDefault())))
+                .collect(Collectors.toList());
         return ResponseEntity.ok(activeUsers);
     }
 
     @PutMapping("/users/{userId}/roles")
     public ResponseEntity<?> updateUserRoles(@PathVariable Long userId,
             @RequestBody UserRoleUpdateRequest roleUpdateRequest) {
-        Optional<User> userOptional = userRepository.findById(userId);
+        // Current roles are loaded with the user: they are recorded in the audit log
+        Optional<User> userOptional = userRepository.findAllWithRolesByIdIn(List.of(userId)).stream().findFirst();
         if (userOptional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new MessageResponse("Erreur : Utilisateur non trouvé !"));
@@ -74,9 +122,7 @@ public class UserManagementController {
         if (currentUser.getId().equals(userId)
                 && currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
             if (!roleUpdateRequest.getRoles().contains("ROLE_ADMIN")) {
-                long adminCount = userRepository.findAll().stream()
-                        .filter(u -> u.getRoles().stream().anyMatch(r -> r.getName() == ERole.ROLE_ADMIN))
-                        .count();
+                long adminCount = userRepository.countByRole(ERole.ROLE_ADMIN);
                 if (adminCount <= 1) { // If this is the last admin
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                             .body(new MessageResponse("Erreur : Impossible de supprimer le dernier rôle ADMIN actif."));
@@ -91,8 +137,11 @@ public class UserManagementController {
             roles.add(role);
         });
 
+        String previousRoles = roleNames(user.getRoles());
         user.setRoles(roles);
         userRepository.save(user);
+        auditLogService.record(AuditEntry.EntityType.USER, userId, "ROLES_CHANGED", previousRoles, roleNames(roles), null);
+        userDetailsCache.invalidate(user.getUsername()); // new roles apply from the next request
         return ResponseEntity.ok(new MessageResponse("Rôles de l'utilisateur mis à jour avec succès !"));
     }
 
@@ -112,18 +161,23 @@ public class UserManagementController {
         UserDetailsImpl currentUser = (UserDetailsImpl) authentication.getPrincipal();
 
         if (currentUser.getId().equals(userId) && status == UserStatus.SUSPENDED) {
-            long adminCount = userRepository.findAll().stream()
-                    .filter(u -> u.getStatus() == UserStatus.ACTIVE
-                            && u.getRoles().stream().anyMatch(r -> r.getName() == ERole.ROLE_ADMIN))
-                    .count();
+            long adminCount = userRepository.countByRoleAndStatus(ERole.ROLE_ADMIN, UserStatus.ACTIVE);
             if (adminCount <= 1) { // If this is the last active admin
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new MessageResponse("Erreur : Impossible de suspendre le dernier administrateur actif."));
             }
         }
 
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(status);
         userRepository.save(user);
+        dashboardStatsService.userStatusChanged(previousStatus, status);
+        auditLogService.record(AuditEntry.EntityType.USER, userId, "STATUS_CHANGED", previousStatus, status, null);
+        userDetailsCache.invalidate(user.getUsername()); // a suspension takes effect immediately
         return ResponseEntity.ok(new MessageResponse("Statut de l'utilisateur mis à jour avec succès !"));
     }
+
+    private static String roleNames(Set<Role> roles) {
+        return roles.stream().map(r -> r.getName().name()).sorted().collect(Collectors.joining(","));
+    }
 }
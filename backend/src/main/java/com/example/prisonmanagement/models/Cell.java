@@ -0,0 +1,34 @@
+package com.example.prisonmanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Table(name = "cellules",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = "number")
+        },
+        indexes = {
+                @Index(name = "idx_cellules_block", columnList = "block_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Cell {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "block_id", nullable = false)
+    private CellBlock block;
+
+    @Column(nullable = false)
+    private String number; // e.g., B-102
+
+    @Column(nullable = false)
+    private int capacity; // beds
+}
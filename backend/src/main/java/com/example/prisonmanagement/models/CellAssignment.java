@@ -0,0 +1,39 @@
+package com.example.prisonmanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The bed a detainee currently occupies; the unique constraints back the in-memory allocation
+@Entity
+@Table(name = "affectations_cellules",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_affectations_detainee", columnNames = "detainee_id"),
+                @UniqueConstraint(name = "uk_affectations_bed", columnNames = {"cell_id", "bed"})
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CellAssignment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "detainee_id", nullable = false)
+    private Detainee detainee;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cell_id", nullable = false)
+    private Cell cell;
+
+    @Column(nullable = false)
+    private int bed; // 0 to capacity - 1
+
+    @Column(nullable = false)
+    private LocalDateTime assignedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.prisonmanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Table(name = "blocs",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = "code")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CellBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String code; // e.g., B (cells B-101, B-102...)
+
+    private String name; // e.g., Quartier hommes
+
+    @Column(nullable = false)
+    private String securityLevel; // Faible, Moyen or Élevé: highest detainee level the block may house
+}
@@ -4,12 +4,22 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Entity
-@Table(name = "detenus") // French table name
+@Table(name = "detenus", // French table name
+        indexes = {
+                @Index(name = "idx_detenus_arrival_id", columnList = "arrival_date, id"),
+                @Index(name = "idx_detenus_status", columnList = "status"),
+                @Index(name = "idx_detenus_release_pending", columnList = "release_date, expected_end_date")
+        })
+// Narrow core row: the unbounded TEXT sections are stored in their own tables (detenus_identite,
+// detenus_judiciaire, detenus_medical, detenus_biometrie) and loaded only by their endpoints
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // updated in the cache when the transaction commits
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,47 +42,19 @@ public class Detainee {
     private LocalDate arrivalDate; // Date d'arrivée
     private String photoUrl; // URL de la photo
 
-    // Tab: Identité
+    // Tab: Identité (address and family contacts live in DetaineeIdentity)
     private String nationality; // Nationalité
     private String identificationNumber; // N° CIN/Passeport
-    private String address; // Adresse
-    // Using JSON string for family contacts for simplicity, a dedicated entity would be better for complex cases
-    @Column(columnDefinition = "TEXT")
-    private String familyContactsJson; // Contacts familiaux (JSON: [{name, relation, phone}])
 
-    // Tab: Judiciaire
-    @Column(columnDefinition = "TEXT")
-    private String offenses; // Infractions
-    private String sentence; // Peine
-    private LocalDate sentenceDate; // Date de jugement
+    // Tab: Judiciaire (offenses, sentence, court in DetaineeJudicial)
     private LocalDate expectedEndDate; // Fin de peine prévue
-    private String court; // Tribunal
     private String securityLevel; // Niveau de sécurité (e.g., Faible, Moyen, Élevé)
     private LocalDate releaseDate; // Date de sortie effective
 
-    // Tab: Médical
-    private String bloodType; // Groupe sanguin
-    private String medicalStatus; // État de santé (e.g., Bon, Moyen, Mauvais, Critique)
-    @Column(columnDefinition = "TEXT")
-    private String allergies; // Allergies
-    @Column(columnDefinition = "TEXT")
-    private String treatments; // Traitements en cours
-    @Column(columnDefinition = "TEXT")
-    private String medicalHistory; // Antécédents médicaux
-
-    // Tab: Biométrie
-    @Column(columnDefinition = "TEXT")
-    private String distinctiveMarks; // Signes distinctifs
-    @Column(columnDefinition = "TEXT")
-    private String physicalPeculiarities; // Particularités physiques
-    // Biometric data (fingerprints, facial recognition) will be links or handled by separate services
-    private String fingerprintsUrl;
-    private String facialRecognitionUrl;
+    // Tabs Médical and Biométrie: DetaineeMedical, DetaineeBiometrics
 
     // Status for validation (requested by user, implicitly)
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private DetaineeStatus status = DetaineeStatus.PENDING_VALIDATION; // Default status
-    @Column(columnDefinition = "TEXT")
-    private String adminComments; // Comments by admin during validation
 }
@@ -0,0 +1,39 @@
+package com.example.prisonmanagement.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Table(name = "detenus_biometrie")
+@Data
+@NoArgsConstructor
+public class DetaineeBiometrics {
+    // Shares the detainee's primary key
+    @Id
+    private Long detaineeId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "detainee_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Detainee detainee;
+
+    // Tab: Biométrie
+    @Column(columnDefinition = "TEXT")
+    private String distinctiveMarks; // Signes distinctifs
+    @Column(columnDefinition = "TEXT")
+    private String physicalPeculiarities; // Particularités physiques
+    // Biometric data (fingerprints, facial recognition) will be links or handled by separate services
+    private String fingerprintsUrl;
+    private String facialRecognitionUrl;
+
+    public DetaineeBiometrics(Long detaineeId) {
+        this.detaineeId = detaineeId;
+    }
+}
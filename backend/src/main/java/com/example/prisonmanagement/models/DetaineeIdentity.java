@@ -0,0 +1,47 @@
+package com.example.prisonmanagement.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.List;
+
+@Entity
+@Table(name = "detenus_identite")
+@Data
+@NoArgsConstructor
+public class DetaineeIdentity {
+    // Shares the detainee's primary key
+    @Id
+    private Long detaineeId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "detainee_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Detainee detainee;
+
+    // Tab: Identité
+    private String address; // Adresse
+    // Contacts familiaux, stored as jsonb: GIN-indexed (see FamilyContactsJsonbMigration) for the
+    // reverse lookups of /api/detainees/by-contact
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "family_contacts_json")
+    private List<FamilyContact> familyContacts;
+
+    public DetaineeIdentity(Long detaineeId) {
+        this.detaineeId = detaineeId;
+    }
+
+    // The forms still read the contacts as a JSON string
+    public String getFamilyContactsJson() {
+        return FamilyContact.toJson(familyContacts);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.prisonmanagement.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "detenus_judiciaire")
+@Data
+@NoArgsConstructor
+public class DetaineeJudicial {
+    // Shares the detainee's primary key
+    @Id
+    private Long detaineeId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "detainee_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Detainee detainee;
+
+    // Tab: Judiciaire
+    @Column(columnDefinition = "TEXT")
+    private String offenses; // Infractions
+    private String sentence; // Peine
+    private LocalDate sentenceDate; // Date de jugement
+    private String court; // Tribunal
+    @Column(columnDefinition = "TEXT")
+    private String adminComments; // Comments by admin during validation
+
+    public DetaineeJudicial(Long detaineeId) {
+        this.detaineeId = detaineeId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.prisonmanagement.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Table(name = "detenus_medical")
+@Data
+@NoArgsConstructor
+public class DetaineeMedical {
+    // Shares the detainee's primary key
+    @Id
+    private Long detaineeId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "detainee_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Detainee detainee;
+
+    // Tab: Médical (readable by MEDECIN only)
+    private String bloodType; // Groupe sanguin
+    private String medicalStatus; // État de santé (e.g., Bon, Moyen, Mauvais, Critique)
+    @Column(columnDefinition = "TEXT")
+    private String allergies; // Allergies
+    @Column(columnDefinition = "TEXT")
+    private String treatments; // Traitements en cours
+    @Column(columnDefinition = "TEXT")
+    private String medicalHistory; // Antécédents médicaux
+
+    public DetaineeMedical(Long detaineeId) {
+        this.detaineeId = detaineeId;
+    }
+}
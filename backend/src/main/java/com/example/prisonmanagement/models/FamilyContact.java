@@ -0,0 +1,87 @@
+package com.example.prisonmanagement.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One entry of DetaineeIdentity.familyContacts, stored in the jsonb column as {name, relation, phone}
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL) // also keeps lookup probes to the fields searched on
+public class FamilyContact {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<FamilyContact>> LIST = new TypeReference<>() {
+    };
+
+    private String name;
+    private String relation; // e.g., Mère, Épouse, Avocat
+    private String phone; // normalized: digits, with a leading + for international numbers
+
+    /**
+     * Parses the JSON array the forms send ([{name, relation, phone}]), trimming names and
+     * normalizing phones so lookups match however the number was typed. Null or blank gives null;
+     * anything else that is not such an array throws IllegalArgumentException.
+     */
+    public static List<FamilyContact> parseList(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        List<FamilyContact> contacts;
+        try {
+            contacts = MAPPER.readValue(json, LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Erreur : Contacts familiaux invalides (tableau JSON attendu).");
+        }
+        if (contacts == null) {
+            return null;
+        }
+        List<FamilyContact> normalized = new ArrayList<>(contacts.size());
+        for (FamilyContact contact : contacts) {
+            if (contact != null) {
+                normalized.add(new FamilyContact(trim(contact.name), trim(contact.relation), normalizePhone(contact.phone)));
+            }
+        }
+        return normalized;
+    }
+
+    public static String toJson(List<FamilyContact> contacts) {
+        if (contacts == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(contacts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // "+221 77-123.45.67" -> "+221771234567"; null when no digit is left
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+        return phone.trim().startsWith("+") ? "+" + digits : digits;
+    }
+
+    public static String trim(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
@@ -8,7 +8,11 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "incidents")
+@Table(name = "incidents",
+        indexes = {
+                @Index(name = "idx_incidents_date_gravity", columnList = "date, gravity"),
+                @Index(name = "idx_incidents_detainee", columnList = "detainee_id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
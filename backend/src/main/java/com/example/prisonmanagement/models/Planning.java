@@ -0,0 +1,51 @@
+package com.example.prisonmanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A scheduled appointment of a detainee inside the facility: visit, hearing, consultation...
+@Entity
+@Table(name = "planning",
+        indexes = {
+                @Index(name = "idx_planning_start", columnList = "start_time"),
+                @Index(name = "idx_planning_detainee_start", columnList = "detainee_id, start_time")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Planning {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "detainee_id", nullable = false)
+    private Detainee detainee;
+
+    @Column(nullable = false)
+    private String type; // e.g., Visite, Audience, Consultation
+
+    private String location; // e.g., Parloir 2; booked like a transfer destination
+
+    private String visitor;
+
+    private String escortTeam;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduleStatus status;
+}
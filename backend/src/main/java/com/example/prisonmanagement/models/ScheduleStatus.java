@@ -0,0 +1,8 @@
+package com.example.prisonmanagement.models;
+
+public enum ScheduleStatus {
+    PLANNED,    // En attente
+    CONFIRMED,  // Confirmé
+    COMPLETED,
+    CANCELLED   // frees the slot for other bookings
+}
@@ -0,0 +1,52 @@
+package com.example.prisonmanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A movement of a detainee out of its cell block: internal or external transfer, hospital escort
+@Entity
+@Table(name = "transferts",
+        indexes = {
+                @Index(name = "idx_transferts_start", columnList = "start_time"),
+                @Index(name = "idx_transferts_detainee_start", columnList = "detainee_id, start_time")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Transfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "detainee_id", nullable = false)
+    private Detainee detainee;
+
+    @Column(nullable = false)
+    private String type; // e.g., Interne, Externe, Escorte hospitalière
+
+    private String origin;
+
+    @Column(nullable = false)
+    private String destination;
+
+    @Column(columnDefinition = "TEXT")
+    private String reason;
+
+    private String escortTeam;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduleStatus status;
+}
@@ -10,7 +10,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "utilisateurs")
+@Table(name = "utilisateurs",
+        indexes = @Index(name = "idx_utilisateurs_status", columnList = "status"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,7 +32,8 @@ public class User {
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "utilisateur_roles",
             joinColumns = @JoinColumn(name = "utilisateur_id"),
-            inverseJoinColumns = @JoinColumn(name = "role_id"))
+            inverseJoinColumns = @JoinColumn(name = "role_id"),
+            indexes = @Index(name = "idx_utilisateur_roles_role", columnList = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
     @Column(name = "registration_date")
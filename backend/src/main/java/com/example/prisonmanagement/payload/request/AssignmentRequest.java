@@ -0,0 +1,9 @@
+package com.example.prisonmanagement.payload.request;
+
+import lombok.Data;
+
+@Data
+public class AssignmentRequest {
+    private Long detaineeId;
+    private Long cellId; // optional: first free compatible bed otherwise
+}
@@ -0,0 +1,10 @@
+package com.example.prisonmanagement.payload.request;
+
+import lombok.Data;
+
+@Data
+public class BlockRequest {
+    private String code;
+    private String name;
+    private String securityLevel;
+}
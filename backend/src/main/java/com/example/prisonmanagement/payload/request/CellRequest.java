@@ -0,0 +1,9 @@
+package com.example.prisonmanagement.payload.request;
+
+import lombok.Data;
+
+@Data
+public class CellRequest {
+    private String number;
+    private int capacity;
+}
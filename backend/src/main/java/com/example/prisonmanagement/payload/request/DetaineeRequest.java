@@ -0,0 +1,126 @@
+package com.example.prisonmanagement.payload.request;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeBiometrics;
+import com.example.prisonmanagement.models.DetaineeIdentity;
+import com.example.prisonmanagement.models.DetaineeJudicial;
+import com.example.prisonmanagement.models.DetaineeMedical;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.models.FamilyContact;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Full intake form (creation and bulk import): same flat shape as before the record was split
+// into a core row and detail sections
+@Data
+public class DetaineeRequest {
+    private String lastName;
+    private String firstName;
+    private LocalDate birthDate;
+    private String birthPlace;
+    private String detentionType;
+    private LocalDate arrivalDate;
+    private String photoUrl;
+
+    private String nationality;
+    private String identificationNumber;
+    private String address;
+    private String familyContactsJson;
+
+    private String offenses;
+    private String sentence;
+    private LocalDate sentenceDate;
+    private LocalDate expectedEndDate;
+    private String court;
+    private String securityLevel;
+    private LocalDate releaseDate;
+
+    private String bloodType;
+    private String medicalStatus;
+    private String allergies;
+    private String treatments;
+    private String medicalHistory;
+
+    private String distinctiveMarks;
+    private String physicalPeculiarities;
+    private String fingerprintsUrl;
+    private String facialRecognitionUrl;
+
+    // New records always wait for admin validation
+    public Detainee toDetainee() {
+        Detainee detainee = new Detainee();
+        detainee.setLastName(lastName);
+        detainee.setFirstName(firstName);
+        detainee.setBirthDate(birthDate);
+        detainee.setBirthPlace(birthPlace);
+        detainee.setDetentionType(detentionType);
+        detainee.setArrivalDate(arrivalDate);
+        detainee.setPhotoUrl(photoUrl);
+        detainee.setNationality(nationality);
+        detainee.setIdentificationNumber(identificationNumber);
+        detainee.setExpectedEndDate(expectedEndDate);
+        detainee.setSecurityLevel(securityLevel);
+        detainee.setReleaseDate(releaseDate);
+        detainee.setStatus(DetaineeStatus.PENDING_VALIDATION);
+        return detainee;
+    }
+
+    // Each section is only created when the form carries something for it (null otherwise)
+
+    public DetaineeIdentity toIdentity() {
+        if (allNull(address, familyContactsJson)) {
+            return null;
+        }
+        DetaineeIdentity identity = new DetaineeIdentity();
+        identity.setAddress(address);
+        identity.setFamilyContacts(FamilyContact.parseList(familyContactsJson));
+        return identity;
+    }
+
+    public DetaineeJudicial toJudicial() {
+        if (allNull(offenses, sentence, sentenceDate, court)) {
+            return null;
+        }
+        DetaineeJudicial judicial = new DetaineeJudicial();
+        judicial.setOffenses(offenses);
+        judicial.setSentence(sentence);
+        judicial.setSentenceDate(sentenceDate);
+        judicial.setCourt(court);
+        return judicial;
+    }
+
+    public DetaineeMedical toMedical() {
+        if (allNull(bloodType, medicalStatus, allergies, treatments, medicalHistory)) {
+            return null;
+        }
+        DetaineeMedical medical = new DetaineeMedical();
+        medical.setBloodType(bloodType);
+        medical.setMedicalStatus(medicalStatus);
+        medical.setAllergies(allergies);
+        medical.setTreatments(treatments);
+        medical.setMedicalHistory(medicalHistory);
+        return medical;
+    }
+
+    public DetaineeBiometrics toBiometrics() {
+        if (allNull(distinctiveMarks, physicalPeculiarities, fingerprintsUrl, facialRecognitionUrl)) {
+            return null;
+        }
+        DetaineeBiometrics biometrics = new DetaineeBiometrics();
+        biometrics.setDistinctiveMarks(distinctiveMarks);
+        biometrics.setPhysicalPeculiarities(physicalPeculiarities);
+        biometrics.setFingerprintsUrl(fingerprintsUrl);
+        biometrics.setFacialRecognitionUrl(facialRecognitionUrl);
+        return biometrics;
+    }
+
+    private static boolean allNull(Object... values) {
+        for (Object value : values) {
+            if (value != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.prisonmanagement.payload.request;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PlanningRequest {
+    private Long detaineeId;
+    private String type;
+    private String location;
+    private String visitor;
+    private String escortTeam;
+    private String notes;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime; // optional: one hour after the start
+}
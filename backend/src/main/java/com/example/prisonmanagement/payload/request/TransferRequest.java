@@ -0,0 +1,17 @@
+package com.example.prisonmanagement.payload.request;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class TransferRequest {
+    private Long detaineeId;
+    private String type;
+    private String origin;
+    private String destination;
+    private String reason;
+    private String escortTeam;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime; // optional: one hour after the start
+}
@@ -0,0 +1,9 @@
+package com.example.prisonmanagement.payload.request;
+
+import lombok.Data;
+
+@Data
+public class UploadInitRequest {
+    private String fileName;
+    private long totalSize; // bytes
+}
@@ -0,0 +1,14 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ActiveUserResponse {
+    private Long id;
+    private String username;
+    private LocalDateTime lastSeen; // one-minute resolution
+}
@@ -0,0 +1,46 @@
+package com.example.prisonmanagement.payload.response;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.Planning;
+import com.example.prisonmanagement.models.ScheduleStatus;
+import com.example.prisonmanagement.models.Transfer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One line of the agenda: a transfer or a planning entry, flattened to the same shape
+@Data
+@AllArgsConstructor
+public class AgendaItemResponse {
+    private String kind; // TRANSFER or PLANNING
+    private Long id;
+    private Long detaineeId;
+    private String detaineeName;
+    private String type;
+    private String destination; // transfer destination or planning location
+    private String escortTeam;
+    private String visitor;
+    private String details; // transfer reason or planning notes
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private ScheduleStatus status;
+
+    public static AgendaItemResponse of(Transfer transfer) {
+        Detainee detainee = transfer.getDetainee();
+        return new AgendaItemResponse("TRANSFER", transfer.getId(), detainee.getId(), nameOf(detainee),
+                transfer.getType(), transfer.getDestination(), transfer.getEscortTeam(), null, transfer.getReason(),
+                transfer.getStartTime(), transfer.getEndTime(), transfer.getStatus());
+    }
+
+    public static AgendaItemResponse of(Planning planning) {
+        Detainee detainee = planning.getDetainee();
+        return new AgendaItemResponse("PLANNING", planning.getId(), detainee.getId(), nameOf(detainee),
+                planning.getType(), planning.getLocation(), planning.getEscortTeam(), planning.getVisitor(),
+                planning.getNotes(), planning.getStartTime(), planning.getEndTime(), planning.getStatus());
+    }
+
+    private static String nameOf(Detainee detainee) {
+        return detainee.getLastName() + " " + detainee.getFirstName();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AssignmentResponse {
+    private Long detaineeId;
+    private Long cellId;
+    private String cellNumber;
+    private String blockCode;
+    private int bed;
+    private LocalDateTime assignedAt;
+}
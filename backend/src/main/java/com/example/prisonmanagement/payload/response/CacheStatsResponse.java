@@ -0,0 +1,25 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private List<RegionStats> regions;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private long queryCachePuts;
+
+    @Data
+    @AllArgsConstructor
+    public static class RegionStats {
+        private String region;
+        private long hits;
+        private long misses;
+        private long puts;
+        private double hitRatio; // hits / (hits + misses), 0 before the first lookup
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private String nextCursor; // null when there is no further page
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class DashboardStatsResponse {
+    private long totalDetainees;
+    private long pendingValidation;
+    private Map<String, Long> detaineesByStatus;
+    private Map<String, Long> detaineesBySecurityLevel;
+    private Map<String, Long> detaineesByDetentionType;
+    private long totalUsers;
+    private Map<String, Long> usersByStatus;
+}
@@ -0,0 +1,17 @@
+package com.example.prisonmanagement.payload.response;
+
+import com.example.prisonmanagement.models.DetaineeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DetaineeSearchHit {
+    private Long id;
+    private String lastName;
+    private String firstName;
+    private String identificationNumber;
+    private String nationality;
+    private DetaineeStatus status;
+    private double score; // 1.0 = every query trigram matched
+}
@@ -0,0 +1,21 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ImportReportResponse {
+    private int totalRows;
+    private int imported;
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // 1-based, header excluded
+        private String message;
+    }
+}
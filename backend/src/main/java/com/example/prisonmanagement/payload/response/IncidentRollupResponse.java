@@ -0,0 +1,32 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class IncidentRollupResponse {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<String> groupBy;
+    private String resolution; // "hour" or "day": granularity of the buckets that were summed
+    private long total;
+    private List<Bucket> buckets;
+
+    // Fields not listed in groupBy are null
+    @Data
+    @AllArgsConstructor
+    public static class Bucket {
+        private LocalDateTime period; // start of the hour, day or month
+        private Integer hourOfDay;
+        private DayOfWeek dayOfWeek;
+        private String location;
+        private String type;
+        private String gravity;
+        private long count;
+    }
+}
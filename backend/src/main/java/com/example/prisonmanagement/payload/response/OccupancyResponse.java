@@ -0,0 +1,37 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OccupancyResponse {
+    private int capacity;
+    private int occupied;
+    private double rate; // occupied / capacity, 0 when there is no bed
+    private List<BlockOccupancy> blocks;
+
+    @Data
+    @AllArgsConstructor
+    public static class BlockOccupancy {
+        private Long id;
+        private String code;
+        private String name;
+        private String securityLevel;
+        private int capacity;
+        private int occupied;
+        private double rate;
+        private List<CellOccupancy> cells; // only when requested
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class CellOccupancy {
+        private Long id;
+        private String number;
+        private int capacity;
+        private int occupied;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.prisonmanagement.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class UpcomingReleaseResponse {
+    private Long detaineeId;
+    private String lastName;
+    private String firstName;
+    private String securityLevel;
+    private LocalDate expectedEndDate;
+    private long daysLeft; // negative once the expected end date has passed
+    private boolean overdue;
+}
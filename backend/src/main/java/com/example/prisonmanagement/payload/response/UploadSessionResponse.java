@@ -0,0 +1,23 @@
+package com.example.prisonmanagement.payload.response;
+
+import com.example.prisonmanagement.services.files.UploadSession;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UploadSessionResponse {
+    private String uploadId;
+    private String fileName;
+    private long totalSize;
+    private long chunkSize;
+    private long receivedBytes;
+    private List<Long> missingOffsets; // chunks still to PUT, each chunkSize bytes (the last one may be shorter)
+
+    public static UploadSessionResponse from(UploadSession session) {
+        return new UploadSessionResponse(session.getId(), session.getFileName(), session.getTotalSize(),
+                session.getChunkSize(), session.getReceivedBytes(), session.getMissingOffsets());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.prisonmanagement.payload.response;
+
+import com.example.prisonmanagement.models.User;
+import com.example.prisonmanagement.models.UserStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// User as exposed to the admin screens: roles flattened to names, no password hash
+@Data
+@AllArgsConstructor
+public class UserResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private Set<String> roles;
+    private LocalDateTime registrationDate;
+    private LocalDateTime lastLoginDate;
+    private UserStatus status;
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(),
+                user.getRoles().stream().map(r -> r.getName().name()).collect(Collectors.toSet()),
+                user.getRegistrationDate(), user.getLastLoginDate(), user.getStatus());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.CellAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CellAssignmentRepository extends JpaRepository<CellAssignment, Long> {
+
+    // [cellId, bed] of every occupied bed
+    @Query("SELECT a.cell.id, a.bed FROM CellAssignment a")
+    List<Object[]> findOccupiedBeds();
+
+    @Query("SELECT a FROM CellAssignment a JOIN FETCH a.cell c JOIN FETCH c.block WHERE a.detainee.id = :detaineeId")
+    Optional<CellAssignment> findByDetaineeId(@Param("detaineeId") Long detaineeId);
+
+    // Returns 0 when a concurrent request already removed it, so only one caller frees the bed
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CellAssignment a WHERE a.id = :id")
+    int deleteAssignment(@Param("id") Long id);
+}
@@ -0,0 +1,10 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.CellBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CellBlockRepository extends JpaRepository<CellBlock, Long> {
+    boolean existsByCode(String code);
+}
@@ -0,0 +1,18 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.Cell;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CellRepository extends JpaRepository<Cell, Long> {
+
+    boolean existsByNumber(String number);
+
+    // [id, blockId, number, capacity] in creation order, which is the bed layout of each block
+    @Query("SELECT c.id, c.block.id, c.number, c.capacity FROM Cell c ORDER BY c.id")
+    List<Object[]> findLayout();
+}
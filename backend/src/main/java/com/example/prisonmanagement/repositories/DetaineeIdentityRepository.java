@@ -0,0 +1,29 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.DetaineeIdentity;
+import com.example.prisonmanagement.repositories.projections.ContactMatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DetaineeIdentityRepository extends JpaRepository<DetaineeIdentity, Long> {
+
+    // Reverse contact lookup (PostgreSQL). "probe" is a JSON array holding one partial contact, e.g.
+    // [{"phone":"+221771234567"}]: the @> containment test is answered by the GIN index
+    // idx_detenus_identite_contacts, then only the matching rows are unnested to return the contact.
+    @Query(value = "SELECT d.id AS detaineeId, d.last_name AS lastName, d.first_name AS firstName, "
+            + "d.status AS status, c.value ->> 'name' AS contactName, c.value ->> 'relation' AS contactRelation, "
+            + "c.value ->> 'phone' AS contactPhone "
+            + "FROM detenus_identite i "
+            + "JOIN detenus d ON d.id = i.detainee_id "
+            + "CROSS JOIN LATERAL jsonb_array_elements(i.family_contacts_json) c "
+            + "WHERE i.family_contacts_json @> CAST(:probe AS jsonb) "
+            + "AND c.value @> (CAST(:probe AS jsonb) -> 0) "
+            + "ORDER BY d.last_name, d.first_name, d.id "
+            + "LIMIT :limit", nativeQuery = true)
+    List<ContactMatch> findByContact(@Param("probe") String probe, @Param("limit") int limit);
+}
@@ -0,0 +1,9 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.DetaineeJudicial;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DetaineeJudicialRepository extends JpaRepository<DetaineeJudicial, Long> {
+}
@@ -0,0 +1,9 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.DetaineeMedical;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DetaineeMedicalRepository extends JpaRepository<DetaineeMedical, Long> {
+}
@@ -1,9 +1,77 @@
 package com.example.prisonmanagement.repositories;
 
 import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.repositories.projections.DetaineeExportRow;
+import com.example.prisonmanagement.repositories.projections.DetaineeSearchFields;
+import com.example.prisonmanagement.repositories.projections.DetaineeSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface DetaineeRepository extends JpaRepository<Detainee, Long> {
+
+    // Keyset pagination ordered by (arrivalDate desc, id desc): the cursor is the last row of the
+    // previous page, so the database seeks on the index instead of skipping OFFSET rows.
+    // Null parameters disable the corresponding filter.
+    @Query("SELECT d.id AS id, d.lastName AS lastName, d.firstName AS firstName, d.birthDate AS birthDate, "
+            + "d.detentionType AS detentionType, d.arrivalDate AS arrivalDate, d.securityLevel AS securityLevel, "
+            + "d.status AS status, d.photoUrl AS photoUrl "
+            + "FROM Detainee d "
+            + "WHERE (:status IS NULL OR d.status = :status) "
+            + "AND (:detentionType IS NULL OR d.detentionType = :detentionType) "
+            + "AND (:securityLevel IS NULL OR d.securityLevel = :securityLevel) "
+            + "AND (:cursorDate IS NULL OR d.arrivalDate < :cursorDate "
+            + "     OR (d.arrivalDate = :cursorDate AND d.id < :cursorId)) "
+            + "ORDER BY d.arrivalDate DESC, d.id DESC")
+    List<DetaineeSummary> findSummaryPage(@Param("status") DetaineeStatus status,
+                                          @Param("detentionType") String detentionType,
+                                          @Param("securityLevel") String securityLevel,
+                                          @Param("cursorDate") LocalDate cursorDate,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    @Query("SELECT d.id AS id, d.lastName AS lastName, d.firstName AS firstName, "
+            + "d.identificationNumber AS identificationNumber, d.nationality AS nationality, "
+            + "d.birthPlace AS birthPlace, d.status AS status FROM Detainee d")
+    List<DetaineeSearchFields> findAllSearchFields();
+
+    // Server-side cursor for exports: must be consumed inside a read-only transaction.
+    // Only the identity and judicial sections are exported (never medical data).
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT d.id AS id, d.lastName AS lastName, d.firstName AS firstName, d.birthDate AS birthDate, "
+            + "d.birthPlace AS birthPlace, d.detentionType AS detentionType, d.arrivalDate AS arrivalDate, "
+            + "d.nationality AS nationality, d.identificationNumber AS identificationNumber, i.address AS address, "
+            + "j.offenses AS offenses, j.sentence AS sentence, j.sentenceDate AS sentenceDate, "
+            + "d.expectedEndDate AS expectedEndDate, j.court AS court, d.securityLevel AS securityLevel, "
+            + "d.releaseDate AS releaseDate, d.status AS status "
+            + "FROM Detainee d "
+            + "LEFT JOIN DetaineeIdentity i ON i.detaineeId = d.id "
+            + "LEFT JOIN DetaineeJudicial j ON j.detaineeId = d.id "
+            + "ORDER BY d.id")
+    Stream<DetaineeExportRow> streamAllForExport();
+
+    // One row per (status, securityLevel, detentionType) combination: seeds the dashboard counters
+    @Query("SELECT d.status, d.securityLevel, d.detentionType, COUNT(d) FROM Detainee d "
+            + "GROUP BY d.status, d.securityLevel, d.detentionType")
+    List<Object[]> countGroupedForDashboard();
+
+    // [id, lastName, firstName, securityLevel, expectedEndDate] of every detainee still awaiting release:
+    // seeks idx_detenus_release_pending on release_date IS NULL, never the whole table
+    @Query("SELECT d.id, d.lastName, d.firstName, d.securityLevel, d.expectedEndDate FROM Detainee d "
+            + "WHERE d.releaseDate IS NULL AND d.expectedEndDate IS NOT NULL AND d.status <> :rejected")
+    List<Object[]> findPendingReleases(@Param("rejected") DetaineeStatus rejected);
 }
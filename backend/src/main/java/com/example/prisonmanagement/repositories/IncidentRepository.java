@@ -1,16 +1,64 @@
 package com.example.prisonmanagement.repositories;
 
 import com.example.prisonmanagement.models.Incident;
+import com.example.prisonmanagement.repositories.projections.IncidentView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
-    
-    // Custom query methods can be added here if needed
-    // For example, find incidents by detainee
-    List<Incident> findByDetaineeId(Long detaineeId);
 
+    String VIEW_SELECT = "SELECT i.id AS id, i.type AS type, i.date AS date, i.location AS location, "
+            + "i.description AS description, i.gravity AS gravity, d.id AS detaineeId, "
+            + "d.lastName AS detaineeLastName, d.firstName AS detaineeFirstName "
+            + "FROM Incident i LEFT JOIN i.detainee d ";
+
+    String FILTERS = "WHERE (:gravity IS NULL OR i.gravity = :gravity) "
+            + "AND (:location IS NULL OR i.location = :location) "
+            + "AND (:type IS NULL OR i.type = :type) "
+            + "AND (:from IS NULL OR i.date >= :from) "
+            + "AND (:to IS NULL OR i.date < :to) ";
+
+    // Per-detainee timeline, served by the detainee_id index
+    @Query(VIEW_SELECT + "WHERE d.id = :detaineeId ORDER BY i.date DESC, i.id DESC")
+    List<IncidentView> findByDetaineeId(@Param("detaineeId") Long detaineeId);
+
+    // Single query with the detainee name joined in: no N+1 and no lazy proxies to serialize.
+    // Null parameters disable the corresponding filter.
+    @Query(value = VIEW_SELECT + FILTERS + "ORDER BY i.date DESC, i.id DESC",
+            countQuery = "SELECT COUNT(i) FROM Incident i " + FILTERS)
+    Page<IncidentView> findViewPage(@Param("gravity") String gravity,
+                                    @Param("location") String location,
+                                    @Param("type") String type,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    Pageable pageable);
+
+    // Server-side cursor for exports: must be consumed inside a read-only transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + "ORDER BY i.id")
+    Stream<IncidentView> streamAllForExport();
+
+    // One row per (hour, location, type, gravity): rebuilds the in-memory incident rollups
+    @Query("SELECT year(i.date), month(i.date), day(i.date), hour(i.date), i.location, i.type, i.gravity, COUNT(i) "
+            + "FROM Incident i "
+            + "GROUP BY year(i.date), month(i.date), day(i.date), hour(i.date), i.location, i.type, i.gravity")
+    List<Object[]> countGroupedByHour();
+
+    // Which of these incidents exist: tells a rollup rebuild which creations its GROUP BY already saw
+    @Query("SELECT i.id FROM Incident i WHERE i.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
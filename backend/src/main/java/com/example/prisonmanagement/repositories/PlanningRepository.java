@@ -0,0 +1,31 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.Planning;
+import com.example.prisonmanagement.models.ScheduleStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlanningRepository extends JpaRepository<Planning, Long> {
+
+    // Same range query as TransferRepository.findOverlapping
+    @Query("SELECT p FROM Planning p JOIN FETCH p.detainee "
+            + "WHERE p.startTime >= :earliestStart AND p.startTime < :to AND p.endTime > :from "
+            + "ORDER BY p.startTime")
+    List<Planning> findOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                   @Param("earliestStart") LocalDateTime earliestStart);
+
+    @Query("SELECT p FROM Planning p JOIN FETCH p.detainee WHERE p.id = :id")
+    Optional<Planning> findWithDetaineeById(@Param("id") Long id);
+
+    // [id, detaineeId, location, escortTeam, startTime, endTime] of the bookings still holding their slot
+    @Query("SELECT p.id, p.detainee.id, p.location, p.escortTeam, p.startTime, p.endTime FROM Planning p "
+            + "WHERE p.status <> :cancelled AND p.endTime > :endingAfter")
+    List<Object[]> findSlots(@Param("cancelled") ScheduleStatus cancelled, @Param("endingAfter") LocalDateTime endingAfter);
+}
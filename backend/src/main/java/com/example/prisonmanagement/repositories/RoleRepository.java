@@ -2,12 +2,18 @@ package com.example.prisonmanagement.repositories;
 
 import com.example.prisonmanagement.models.ERole;
 import com.example.prisonmanagement.models.Role;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Integer> {
+    // Served from the query cache (ids) and the Role entity cache once warmed up
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(ERole name);
 }
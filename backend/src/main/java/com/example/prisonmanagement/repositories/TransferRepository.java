@@ -0,0 +1,35 @@
+package com.example.prisonmanagement.repositories;
+
+import com.example.prisonmanagement.models.ScheduleStatus;
+import com.example.prisonmanagement.models.Transfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TransferRepository extends JpaRepository<Transfer, Long> {
+
+    // Transfers overlapping [from, to). Bookings never last longer than the scheduler's maximum
+    // duration, so the caller passes earliestStart = from - maximum and the start_time index bounds the scan
+    @Query("SELECT t FROM Transfer t JOIN FETCH t.detainee "
+            + "WHERE t.startTime >= :earliestStart AND t.startTime < :to AND t.endTime > :from "
+            + "ORDER BY t.startTime")
+    List<Transfer> findOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                   @Param("earliestStart") LocalDateTime earliestStart);
+
+    @Query("SELECT t FROM Transfer t JOIN FETCH t.detainee WHERE t.detainee.id = :detaineeId ORDER BY t.startTime DESC")
+    List<Transfer> findByDetaineeId(@Param("detaineeId") Long detaineeId);
+
+    @Query("SELECT t FROM Transfer t JOIN FETCH t.detainee WHERE t.id = :id")
+    Optional<Transfer> findWithDetaineeById(@Param("id") Long id);
+
+    // [id, detaineeId, destination, escortTeam, startTime, endTime] of the bookings still holding their slot
+    @Query("SELECT t.id, t.detainee.id, t.destination, t.escortTeam, t.startTime, t.endTime FROM Transfer t "
+            + "WHERE t.status <> :cancelled AND t.endTime > :endingAfter")
+    List<Object[]> findSlots(@Param("cancelled") ScheduleStatus cancelled, @Param("endingAfter") LocalDateTime endingAfter);
+}
@@ -1,9 +1,18 @@
 package com.example.prisonmanagement.repositories;
 
+import com.example.prisonmanagement.models.ERole;
 import com.example.prisonmanagement.models.User;
+import com.example.prisonmanagement.models.UserStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +20,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Query("SELECT u.status, COUNT(u) FROM User u GROUP BY u.status")
+    List<Object[]> countGroupedByStatus();
+
+    String FILTERS = "WHERE (:status IS NULL OR u.status = :status) "
+            + "AND (:role IS NULL OR EXISTS (SELECT 1 FROM u.roles r WHERE r.name = :role)) "
+            + "AND (:registeredFrom IS NULL OR u.registrationDate >= :registeredFrom) "
+            + "AND (:registeredTo IS NULL OR u.registrationDate < :registeredTo) ";
+
+    // Step 1 of the admin listing: page over ids only (paging a collection fetch would happen in memory)
+    @Query(value = "SELECT u.id FROM User u " + FILTERS + "ORDER BY u.registrationDate DESC, u.id DESC",
+            countQuery = "SELECT COUNT(u) FROM User u " + FILTERS)
+    Page<Long> findIdPage(@Param("status") UserStatus status,
+                          @Param("role") ERole role,
+                          @Param("registeredFrom") LocalDateTime registeredFrom,
+                          @Param("registeredTo") LocalDateTime registeredTo,
+                          Pageable pageable);
+
+    // Step 2: load that page with its roles in a single join-fetch query
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(DISTINCT u) FROM User u JOIN u.roles r WHERE r.name = :role")
+    long countByRole(@Param("role") ERole role);
+
+    @Query("SELECT COUNT(DISTINCT u) FROM User u JOIN u.roles r WHERE r.name = :role AND u.status = :status")
+    long countByRoleAndStatus(@Param("role") ERole role, @Param("status") UserStatus status);
 }
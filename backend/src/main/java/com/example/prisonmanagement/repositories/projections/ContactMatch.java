@@ -0,0 +1,12 @@
+package com.example.prisonmanagement.repositories.projections;
+
+// A detainee whose family contacts include the searched phone or name, with that contact
+public interface ContactMatch {
+    Long getDetaineeId();
+    String getLastName();
+    String getFirstName();
+    String getStatus();
+    String getContactName();
+    String getContactRelation();
+    String getContactPhone();
+}
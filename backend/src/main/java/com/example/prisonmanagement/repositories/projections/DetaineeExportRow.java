@@ -0,0 +1,27 @@
+package com.example.prisonmanagement.repositories.projections;
+
+import com.example.prisonmanagement.models.DetaineeStatus;
+
+import java.time.LocalDate;
+
+// Core row joined with the identity and judicial sections, for CSV/NDJSON exports
+public interface DetaineeExportRow {
+    Long getId();
+    String getLastName();
+    String getFirstName();
+    LocalDate getBirthDate();
+    String getBirthPlace();
+    String getDetentionType();
+    LocalDate getArrivalDate();
+    String getNationality();
+    String getIdentificationNumber();
+    String getAddress();
+    String getOffenses();
+    String getSentence();
+    LocalDate getSentenceDate();
+    LocalDate getExpectedEndDate();
+    String getCourt();
+    String getSecurityLevel();
+    LocalDate getReleaseDate();
+    DetaineeStatus getStatus();
+}
@@ -0,0 +1,14 @@
+package com.example.prisonmanagement.repositories.projections;
+
+import com.example.prisonmanagement.models.DetaineeStatus;
+
+// Columns needed to (re)build the in-memory search index
+public interface DetaineeSearchFields {
+    Long getId();
+    String getLastName();
+    String getFirstName();
+    String getIdentificationNumber();
+    String getNationality();
+    String getBirthPlace();
+    DetaineeStatus getStatus();
+}
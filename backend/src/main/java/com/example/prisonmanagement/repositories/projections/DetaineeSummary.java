@@ -0,0 +1,19 @@
+package com.example.prisonmanagement.repositories.projections;
+
+import com.example.prisonmanagement.models.DetaineeStatus;
+
+import java.time.LocalDate;
+
+// Narrow read model for the detainee list screen: only the columns shown in the table,
+// none of the TEXT columns (medical history, offenses, family contacts, ...)
+public interface DetaineeSummary {
+    Long getId();
+    String getLastName();
+    String getFirstName();
+    LocalDate getBirthDate();
+    String getDetentionType();
+    LocalDate getArrivalDate();
+    String getSecurityLevel();
+    DetaineeStatus getStatus();
+    String getPhotoUrl();
+}
@@ -0,0 +1,16 @@
+package com.example.prisonmanagement.repositories.projections;
+
+import java.time.LocalDateTime;
+
+// Flat incident row with the detainee name inline, so no Detainee proxy is ever serialized
+public interface IncidentView {
+    Long getId();
+    String getType();
+    LocalDateTime getDate();
+    String getLocation();
+    String getDescription();
+    String getGravity();
+    Long getDetaineeId();
+    String getDetaineeLastName();
+    String getDetaineeFirstName();
+}
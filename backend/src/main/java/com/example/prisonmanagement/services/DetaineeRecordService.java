@@ -0,0 +1,86 @@
+package com.example.prisonmanagement.services;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeBiometrics;
+import com.example.prisonmanagement.models.DetaineeIdentity;
+import com.example.prisonmanagement.models.DetaineeJudicial;
+import com.example.prisonmanagement.models.DetaineeMedical;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.payload.request.DetaineeRequest;
+import com.example.prisonmanagement.repositories.DetaineeBiometricsRepository;
+import com.example.prisonmanagement.repositories.DetaineeIdentityRepository;
+import com.example.prisonmanagement.repositories.DetaineeJudicialRepository;
+import com.example.prisonmanagement.repositories.DetaineeMedicalRepository;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes that span the core detainee row and its detail sections, so they commit together.
+ */
+@Service
+public class DetaineeRecordService {
+
+    private final DetaineeRepository detaineeRepository;
+    private final DetaineeIdentityRepository identityRepository;
+    private final DetaineeJudicialRepository judicialRepository;
+    private final DetaineeMedicalRepository medicalRepository;
+    private final DetaineeBiometricsRepository biometricsRepository;
+
+    public DetaineeRecordService(DetaineeRepository detaineeRepository,
+                                 DetaineeIdentityRepository identityRepository,
+                                 DetaineeJudicialRepository judicialRepository,
+                                 DetaineeMedicalRepository medicalRepository,
+                                 DetaineeBiometricsRepository biometricsRepository) {
+        this.detaineeRepository = detaineeRepository;
+        this.identityRepository = identityRepository;
+        this.judicialRepository = judicialRepository;
+        this.medicalRepository = medicalRepository;
+        this.biometricsRepository = biometricsRepository;
+    }
+
+    @Transactional
+    public Detainee create(DetaineeRequest request) {
+        Detainee detainee = detaineeRepository.save(request.toDetainee());
+
+        DetaineeIdentity identity = request.toIdentity();
+        if (identity != null) {
+            identity.setDetainee(detainee);
+            identityRepository.save(identity);
+        }
+        DetaineeJudicial judicial = request.toJudicial();
+        if (judicial != null) {
+            judicial.setDetainee(detainee);
+            judicialRepository.save(judicial);
+        }
+        DetaineeMedical medical = request.toMedical();
+        if (medical != null) {
+            medical.setDetainee(detainee);
+            medicalRepository.save(medical);
+        }
+        DetaineeBiometrics biometrics = request.toBiometrics();
+        if (biometrics != null) {
+            biometrics.setDetainee(detainee);
+            biometricsRepository.save(biometrics);
+        }
+        return detainee;
+    }
+
+    // The validation comment is kept with the judicial record
+    @Transactional
+    public Detainee updateStatus(Detainee detainee, DetaineeStatus status, String adminComments) {
+        detainee.setStatus(status);
+        Detainee saved = detaineeRepository.save(detainee);
+
+        DetaineeJudicial judicial = judicialRepository.findById(saved.getId()).orElse(null);
+        if (judicial == null && adminComments != null) {
+            judicial = new DetaineeJudicial();
+            judicial.setDetainee(saved);
+        }
+        if (judicial != null) {
+            judicial.setAdminComments(adminComments);
+            judicialRepository.save(judicial);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.prisonmanagement.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for last-login timestamps. Sign-in only records the timestamp in memory;
+ * pending values are coalesced per user and written as one batched UPDATE every few seconds
+ * and on shutdown.
+ */
+@Service
+public class LastLoginRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void record(Long userId, LocalDateTime loginDate) {
+        pending.merge(userId, loginDate, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(fixedDelayString = "${prison.app.lastLoginFlushMs:5000}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime loginDate = pending.remove(userId);
+            if (loginDate != null) {
+                batch.add(new Object[]{Timestamp.valueOf(loginDate), userId});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate("UPDATE utilisateurs SET last_login_date = ? WHERE id = ?", batch);
+        } catch (RuntimeException e) {
+            // Put the values back (unless a newer login arrived meanwhile) so the next flush retries
+            for (Object[] row : batch) {
+                record((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+            }
+            logger.error("Could not flush {} last-login updates: {}", batch.size(), e.getMessage());
+        }
+    }
+}
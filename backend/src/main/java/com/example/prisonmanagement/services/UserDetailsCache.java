@@ -0,0 +1,106 @@
+package com.example.prisonmanagement.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals used by the JWT filter, so that a
+ * request does not need a database round-trip just to rebuild its UserDetailsImpl.
+ * Entries must be invalidated whenever a user's roles or status change.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Loads in flight per username, only while there are some: a load overlapping an invalidate is not cached
+    private final ConcurrentHashMap<String, Loads> loads = new ConcurrentHashMap<>();
+
+    public UserDetailsCache(UserDetailsServiceImpl userDetailsService,
+                            @Value("${prison.app.userCacheTtlMs:60000}") long ttlMs,
+                            @Value("${prison.app.userCacheMaxSize:10000}") int maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.maxSize = maxSize;
+    }
+
+    public UserDetailsImpl get(String username) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return entry.userDetails;
+        }
+
+        loads.compute(username, (key, current) -> {
+            Loads pending = current != null ? current : new Loads();
+            pending.count++;
+            return pending;
+        });
+        UserDetailsImpl loaded = null;
+        try {
+            loaded = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            return loaded;
+        } finally {
+            UserDetailsImpl userDetails = loaded;
+            // Runs under the same bin lock as invalidate, so the check and the put cannot be split by it
+            loads.compute(username, (key, pending) -> {
+                if (userDetails != null && !pending.invalidated) {
+                    entries.put(key, new Entry(userDetails, now));
+                }
+                pending.count--;
+                return pending.count == 0 ? null : pending;
+            });
+        }
+    }
+
+    public void invalidate(String username) {
+        loads.compute(username, (key, pending) -> {
+            entries.remove(key);
+            if (pending != null) {
+                pending.invalidated = true;
+            }
+            return pending;
+        });
+    }
+
+    // For tests: usernames with a load in flight
+    int pendingLoadCount() {
+        return loads.size();
+    }
+
+    private void evict(long now) {
+        // Drop expired entries first, then arbitrary ones until there is room again
+        entries.values().removeIf(e -> now - e.loadedAt >= ttlNanos);
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    // Only read and written inside loads.compute, under the bin lock of its username
+    private static final class Loads {
+        int count;
+        boolean invalidated; // once set, none of the loads still in flight is cached, even those started after it
+    }
+
+    private static final class Entry {
+        final UserDetailsImpl userDetails;
+        final long loadedAt;
+
+        Entry(UserDetailsImpl userDetails, long loadedAt) {
+            this.userDetails = userDetails;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
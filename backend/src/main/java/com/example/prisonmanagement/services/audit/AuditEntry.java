@@ -0,0 +1,28 @@
+package com.example.prisonmanagement.services.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// One audited change: who did what to which record, with the values before and after
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEntry {
+
+    public enum EntityType {
+        DETAINEE,
+        USER
+    }
+
+    private Instant timestamp;
+    private String actor; // username, or "system" outside of a request
+    private EntityType entityType;
+    private long entityId;
+    private String action; // e.g. CREATED, STATUS_CHANGED, ROLES_CHANGED
+    private String before;
+    private String after;
+    private String comment;
+}
@@ -0,0 +1,159 @@
+package com.example.prisonmanagement.services.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of detainee and user state changes.
+ *
+ * Controllers call record(), which only stamps the entry and publishes it into a lock-free ring
+ * (a few hundred nanoseconds, no I/O, no database). A single writer thread drains the ring in
+ * batches into memory-mapped segment files and forces them to disk every
+ * prison.app.auditFsyncMs. Entries are never dropped: if the writer falls a whole ring behind,
+ * record() waits for it.
+ */
+@Service
+public class AuditLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogService.class);
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SEGMENT_SLACK_MS = 60_000;
+    private static final int MAX_LIMIT = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final AuditRingBuffer ring;
+    private final AuditSegmentStore store;
+    private final long fsyncIntervalNanos;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AuditLogService(ObjectMapper objectMapper,
+                           @Value("${prison.app.auditDir:audit/}") String auditDir,
+                           @Value("${prison.app.auditSegmentSize:67108864}") int segmentSize,
+                           @Value("${prison.app.auditRingSize:8192}") int ringSize,
+                           @Value("${prison.app.auditFsyncMs:1000}") long fsyncMs) throws IOException {
+        this.objectMapper = objectMapper;
+        this.ring = new AuditRingBuffer(ringSize);
+        this.store = new AuditSegmentStore(Paths.get(auditDir).toAbsolutePath().normalize(), segmentSize);
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncMs);
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void record(AuditEntry.EntityType entityType, long entityId, String action,
+                       Object before, Object after, String comment) {
+        ring.publish(new AuditEntry(Instant.now(), currentActor(), entityType, entityId, action,
+                before == null ? null : before.toString(), after == null ? null : after.toString(), comment));
+    }
+
+    /**
+     * Entries for one entity type (and optionally one id) between from and to (inclusive, null =
+     * open), oldest first; only the most recent "limit" are kept.
+     */
+    public List<AuditEntry> query(AuditEntry.EntityType entityType, Long entityId, Instant from, Instant to, int limit) {
+        long fromMs = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMs = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Deque<AuditEntry> matches = new ArrayDeque<>(max);
+        try {
+            for (Path segment : store.segmentsBetween(fromMs, toMs, SEGMENT_SLACK_MS)) {
+                AuditSegmentStore.read(segment, body -> {
+                    // Filter on the binary header; only matching records are parsed
+                    long timestamp = body.getLong(body.position());
+                    int type = body.get(body.position() + 8);
+                    long id = body.getLong(body.position() + 9);
+                    if (timestamp < fromMs || timestamp > toMs || type != entityType.ordinal()
+                            || (entityId != null && id != entityId)) {
+                        return;
+                    }
+                    if (matches.size() == max) {
+                        matches.removeFirst();
+                    }
+                    matches.addLast(parse(body));
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ArrayList<>(matches);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(5000);
+    }
+
+    private void writeLoop() {
+        List<AuditEntry> batch = new ArrayList<>(BATCH_SIZE);
+        long lastForce = System.nanoTime();
+        while (running || !ring.isEmpty()) {
+            if (ring.drainTo(batch, BATCH_SIZE) > 0) {
+                for (AuditEntry entry : batch) {
+                    write(entry);
+                }
+                batch.clear();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                store.force();
+                lastForce = System.nanoTime();
+            }
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            logger.error("Could not close the audit log", e);
+        }
+        logger.info("Audit writer stopped");
+    }
+
+    private void write(AuditEntry entry) {
+        try {
+            store.append(entry.getTimestamp().toEpochMilli(), entry.getEntityType(), entry.getEntityId(),
+                    objectMapper.writeValueAsBytes(entry));
+        } catch (Exception e) {
+            // Never silently lose an audit entry: at least the application log keeps it
+            logger.error("Could not write audit entry {}", entry, e);
+        }
+    }
+
+    private AuditEntry parse(ByteBuffer body) {
+        byte[] json = new byte[body.remaining() - AuditSegmentStore.BODY_HEADER];
+        body.duplicate().position(body.position() + AuditSegmentStore.BODY_HEADER).get(json);
+        try {
+            return objectMapper.readValue(json, AuditEntry.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "system";
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.prisonmanagement.services.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, single-consumer ring of audit entries, without locks.
+ *
+ * Producers claim a sequence number with one atomic increment, fill the matching slot and publish
+ * it by storing the sequence in that slot's marker. The consumer reads slots in sequence order
+ * until it meets one that is not published yet. A producer only waits when the ring is full, i.e.
+ * when the writer is a whole ring behind.
+ */
+final class AuditRingBuffer {
+
+    private final int mask;
+    private final AuditEntry[] entries;
+    // Sequence last published in each slot (-1 = never)
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence the consumer will read; slots below it are free again
+    private volatile long consumed;
+
+    AuditRingBuffer(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(2, requestedSize - 1)) << 1;
+        this.mask = size - 1;
+        this.entries = new AuditEntry[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    void publish(AuditEntry entry) {
+        long sequence = claimed.getAndIncrement();
+        int spins = 0;
+        while (sequence - consumed >= entries.length) {
+            // Full: the writer is a whole ring behind, wait for it rather than lose an entry
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        int index = (int) (sequence & mask);
+        entries[index] = entry;
+        published.lazySet(index, sequence); // release: the entry is visible before the marker
+    }
+
+    // Moves up to max published entries into batch; returns how many were taken
+    int drainTo(List<AuditEntry> batch, int max) {
+        long next = consumed;
+        int taken = 0;
+        while (taken < max) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            batch.add(entries[index]);
+            entries[index] = null;
+            next++;
+            taken++;
+        }
+        if (taken > 0) {
+            consumed = next;
+        }
+        return taken;
+    }
+
+    boolean isEmpty() {
+        return claimed.get() == consumed;
+    }
+}
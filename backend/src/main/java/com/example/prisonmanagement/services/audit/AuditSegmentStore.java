@@ -0,0 +1,181 @@
+package com.example.prisonmanagement.services.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit segments: fixed-size files mapped into memory, named after the time their
+ * first record was written (audit-&lt;epoch millis&gt;.log) so a time range maps to a few files.
+ *
+ * Record layout: int length, int CRC32 of the body, then the body: long timestamp, byte entity
+ * type, long entity id and the JSON of the entry. Unused space is zeros, so the first zero length
+ * (or a bad checksum, after a crash mid-write) marks the end of a segment. Only the writer thread
+ * appends; readers map the files read-only.
+ */
+final class AuditSegmentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSegmentStore.class);
+
+    static final int RECORD_HEADER = 8; // length + crc
+    static final int BODY_HEADER = 8 + 1 + 8; // timestamp + entity type + entity id
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final int segmentSize;
+    private final CRC32 crc = new CRC32();
+
+    private long currentStart;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private boolean dirty;
+
+    AuditSegmentStore(Path dir, int segmentSize) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(dir);
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            open(System.currentTimeMillis());
+        } else {
+            // Continue after the last valid record of the newest segment
+            Path last = segments.get(segments.size() - 1);
+            open(startOf(last));
+            int end = scan(buffer.duplicate(), record -> { });
+            buffer.position(end);
+            logger.info("Audit log resumed in {} at offset {}", last.getFileName(), end);
+        }
+    }
+
+    // Appends one record, rotating to a new segment when the current one is full
+    void append(long timestamp, AuditEntry.EntityType type, long entityId, byte[] json) throws IOException {
+        int bodyLength = BODY_HEADER + json.length;
+        if (RECORD_HEADER + bodyLength > segmentSize) {
+            throw new IOException("Audit record of " + bodyLength + " bytes does not fit in a segment");
+        }
+        if (buffer.remaining() < RECORD_HEADER + bodyLength) {
+            rotate(timestamp);
+        }
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        body.putLong(timestamp).put((byte) type.ordinal()).putLong(entityId).put(json);
+        crc.reset();
+        crc.update(body.array(), 0, bodyLength);
+
+        int start = buffer.position();
+        // Body first, length last: a concurrent reader sees no record rather than a half-written one
+        buffer.position(start + RECORD_HEADER);
+        buffer.put(body.array());
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, bodyLength);
+        dirty = true;
+    }
+
+    // Flushes written records to disk (fsync of the mapped pages)
+    void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    // Segment files whose records may fall in [from, to] (epoch millis), oldest first
+    List<Path> segmentsBetween(long from, long to, long slackMillis) throws IOException {
+        List<Path> all = segments();
+        List<Path> selected = new ArrayList<>();
+        for (int i = 0; i < all.size(); i++) {
+            long start = startOf(all.get(i));
+            long nextStart = i + 1 < all.size() ? startOf(all.get(i + 1)) : Long.MAX_VALUE;
+            // Records carry the time they were submitted, which may trail the rotation by a little
+            if (start - slackMillis <= to && nextStart + slackMillis >= from) {
+                selected.add(all.get(i));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Calls the consumer with the body of every valid record of a segment (positioned at the body
+     * start, limited to the body). Returns the offset just past the last valid record.
+     */
+    static int read(Path segment, Consumer<ByteBuffer> consumer) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return scan(readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size()), consumer);
+        }
+    }
+
+    private static int scan(ByteBuffer segment, Consumer<ByteBuffer> consumer) {
+        CRC32 check = new CRC32();
+        int position = 0;
+        while (position + RECORD_HEADER <= segment.limit()) {
+            int length = segment.getInt(position);
+            if (length < BODY_HEADER || position + RECORD_HEADER + length > segment.limit()) {
+                break;
+            }
+            ByteBuffer body = segment.duplicate();
+            body.position(position + RECORD_HEADER).limit(position + RECORD_HEADER + length);
+            check.reset();
+            check.update(body.duplicate());
+            if ((int) check.getValue() != segment.getInt(position + 4)) {
+                break; // torn write: everything after it is unused
+            }
+            consumer.accept(body);
+            position += RECORD_HEADER + length;
+        }
+        return position;
+    }
+
+    private void rotate(long timestamp) throws IOException {
+        force();
+        channel.close();
+        // Keep names unique and ordered even if two rotations share a millisecond
+        open(Math.max(timestamp, currentStart + 1));
+        logger.info("Audit log rotated to {}", newSegmentPath(currentStart).getFileName());
+    }
+
+    private void open(long start) throws IOException {
+        Path path = newSegmentPath(start);
+        currentStart = start;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        dirty = false;
+    }
+
+    private Path newSegmentPath(long start) {
+        return dir.resolve(String.format("%s%013d%s", PREFIX, start, SUFFIX));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long startOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.prisonmanagement.services.events;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.Incident;
+import com.example.prisonmanagement.payload.response.UpcomingReleaseResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Server-Sent Events push channel for dashboards and guard-post screens.
+ *
+ * Connections are async SseEmitters, so no request thread is held while a screen is idle.
+ * Publishing only appends to each matching subscriber's bounded queue; a small shared pool of
+ * writer threads drains the queues. A subscriber that falls behind has repeated status changes
+ * coalesced and, past its buffer size, loses its oldest events and gets a "resync" event instead.
+ */
+@Service
+public class EventStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamService.class);
+
+    public static final String INCIDENT_CREATED = "incident-created";
+    public static final String DETAINEE_CREATED = "detainee-created";
+    public static final String DETAINEE_STATUS_CHANGED = "detainee-status-changed";
+    public static final String RELEASE_DUE = "release-due";
+    // One event for a bulk import too large to send row by row: screens reload their list
+    public static final String DETAINEES_IMPORTED = "detainees-imported";
+    public static final Set<String> TYPES = Set.of(INCIDENT_CREATED, DETAINEE_CREATED, DETAINEE_STATUS_CHANGED,
+            RELEASE_DUE, DETAINEES_IMPORTED);
+
+    // Same audience as the corresponding GET endpoints
+    private static final Set<String> INCIDENT_READERS = Set.of("ROLE_ADMIN", "ROLE_PERSONNEL", "ROLE_MEDECIN");
+    private static final Set<String> DETAINEE_READERS = Set.of("ROLE_ADMIN", "ROLE_PERSONNEL", "ROLE_MEDECIN");
+
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final int maxSubscribers;
+
+    private final Set<EventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public EventStreamService(@Value("${prison.app.sseTimeoutMs:1800000}") long timeoutMs,
+                              @Value("${prison.app.sseBufferSize:256}") int bufferSize,
+                              @Value("${prison.app.sseMaxSubscribers:1000}") int maxSubscribers,
+                              @Value("${prison.app.sseWriters:4}") int writerCount) {
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerCount, task -> {
+            Thread thread = new Thread(task, "sse-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Opens a stream for the given authorities; empty when the subscriber limit is reached
+    public Optional<SseEmitter> subscribe(Collection<? extends GrantedAuthority> authorities, Set<String> types) {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Set<String> roles = authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+        if (types.contains(DETAINEE_CREATED)) {
+            // The summary of a large import stands for the detainee-created events it replaces
+            types = new HashSet<>(types);
+            types.add(DETAINEES_IMPORTED);
+        }
+        EventSubscriber subscriber = new EventSubscriber(emitter, roles, types, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        // Flushes the response headers right away so the client sees the stream as open
+        deliver(subscriber, StreamEvent.HEARTBEAT);
+        return Optional.of(emitter);
+    }
+
+    public void incidentCreated(Incident incident) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", incident.getId());
+        data.put("type", incident.getType());
+        data.put("date", incident.getDate());
+        data.put("location", incident.getLocation());
+        data.put("gravity", incident.getGravity());
+        data.put("detaineeId", incident.getDetainee() != null ? incident.getDetainee().getId() : null);
+        publish(INCIDENT_CREATED, INCIDENT_READERS, null, data);
+    }
+
+    public void detaineeCreated(Detainee detainee) {
+        publish(DETAINEE_CREATED, DETAINEE_READERS, null, detaineeData(detainee));
+    }
+
+    // One detainee-created per row while that fits well within a subscriber's buffer, one summary otherwise
+    public void detaineesImported(List<Detainee> detainees) {
+        if (detainees.isEmpty()) {
+            return;
+        }
+        if (detainees.size() <= bufferSize / 2) {
+            detainees.forEach(this::detaineeCreated);
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("count", detainees.size());
+        publish(DETAINEES_IMPORTED, DETAINEE_READERS, null, data);
+    }
+
+    // Coalesced per detainee: a lagging screen only gets the latest status
+    public void detaineeStatusChanged(Detainee detainee) {
+        publish(DETAINEE_STATUS_CHANGED, DETAINEE_READERS, "detainee-status:" + detainee.getId(), detaineeData(detainee));
+    }
+
+    // Coalesced per detainee: only the most urgent alert matters to a lagging screen
+    public void releaseDue(UpcomingReleaseResponse release) {
+        publish(RELEASE_DUE, DETAINEE_READERS, "release:" + release.getDetaineeId(), release);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${prison.app.sseHeartbeatMs:15000}")
+    public void heartbeat() {
+        for (EventSubscriber subscriber : subscribers) {
+            deliver(subscriber, StreamEvent.HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (EventSubscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        writers.shutdownNow();
+    }
+
+    // Package-private for tests
+    void publish(String name, Set<String> roles, String coalesceKey, Object data) {
+        StreamEvent event = new StreamEvent(sequence.incrementAndGet(), name, roles, coalesceKey, data);
+        for (EventSubscriber subscriber : subscribers) {
+            if (subscriber.accepts(event)) {
+                deliver(subscriber, event);
+            }
+        }
+    }
+
+    private void deliver(EventSubscriber subscriber, StreamEvent event) {
+        if (subscriber.offer(event)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(EventSubscriber subscriber) {
+        try {
+            writers.execute(() -> {
+                if (subscriber.drain()) {
+                    schedule(subscriber); // more queued: yield to other subscribers, then continue
+                } else if (subscriber.isClosed()) {
+                    remove(subscriber);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.close(); // shutting down
+        }
+    }
+
+    private void remove(EventSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.close();
+            logger.debug("SSE subscriber left, {} connected", subscribers.size());
+        }
+    }
+
+    private static Map<String, Object> detaineeData(Detainee detainee) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", detainee.getId());
+        data.put("lastName", detainee.getLastName());
+        data.put("firstName", detainee.getFirstName());
+        data.put("status", detainee.getStatus());
+        return data;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.prisonmanagement.services.events;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One open SSE connection and its bounded backlog. Publishers only append to the queue; a writer
+ * thread drains it, and at most one writer works on a given subscriber at a time.
+ */
+final class EventSubscriber {
+
+    // Events written per drain turn before the writer moves on to other subscribers
+    private static final int MAX_BATCH = 32;
+
+    final SseEmitter emitter;
+    private final Set<String> roles;
+    private final Set<String> types; // empty = every type
+    private final int capacity;
+
+    private final ArrayDeque<StreamEvent> queue;
+    private boolean draining;
+    private int dropped;
+    private volatile boolean closed;
+
+    EventSubscriber(SseEmitter emitter, Set<String> roles, Set<String> types, int capacity) {
+        this.emitter = emitter;
+        this.roles = roles;
+        this.types = types;
+        this.capacity = capacity;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    boolean accepts(StreamEvent event) {
+        if (event.isHeartbeat()) {
+            return true;
+        }
+        if (!types.isEmpty() && !types.contains(event.name)) {
+            return false;
+        }
+        for (String role : event.roles) {
+            if (roles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues an event, coalescing on its key and dropping the oldest one when full.
+     * Returns true when the caller has to schedule a drain.
+     */
+    synchronized boolean offer(StreamEvent event) {
+        if (closed) {
+            return false;
+        }
+        if (event.coalesceKey != null) {
+            queue.removeIf(queued -> event.coalesceKey.equals(queued.coalesceKey));
+        }
+        if (queue.size() >= capacity) {
+            queue.pollFirst();
+            dropped++;
+        }
+        queue.addLast(event);
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    /**
+     * Writes queued events to the connection. Returns true if events remain after this turn
+     * (the caller resubmits), false once the queue is empty or the connection is gone.
+     */
+    boolean drain() {
+        for (int written = 0; written < MAX_BATCH; written++) {
+            StreamEvent event;
+            int lost;
+            synchronized (this) {
+                event = queue.pollFirst();
+                lost = dropped;
+                dropped = 0;
+                if (event == null && lost == 0) {
+                    draining = false;
+                    return false;
+                }
+            }
+            try {
+                if (lost > 0) {
+                    // Tells the client its view is stale and it should refetch
+                    emitter.send(SseEmitter.event().name("resync").data(Map.of("dropped", lost)));
+                }
+                if (event != null) {
+                    event.sendTo(emitter);
+                }
+            } catch (Exception e) {
+                close();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+        draining = false;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.prisonmanagement.services.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * One event as queued for subscribers. Events with a coalescing key replace any undelivered
+ * event with the same key, so a slow screen only receives the latest state of each record.
+ */
+final class StreamEvent {
+
+    static final StreamEvent HEARTBEAT = new StreamEvent(0, null, Set.of(), "heartbeat", null);
+
+    final long id;
+    final String name;
+    final Set<String> roles; // authorities allowed to receive it, e.g. ROLE_ADMIN
+    final String coalesceKey;
+    final Object data;
+
+    StreamEvent(long id, String name, Set<String> roles, String coalesceKey, Object data) {
+        this.id = id;
+        this.name = name;
+        this.roles = roles;
+        this.coalesceKey = coalesceKey;
+        this.data = data;
+    }
+
+    boolean isHeartbeat() {
+        return this == HEARTBEAT;
+    }
+
+    void sendTo(SseEmitter emitter) throws IOException {
+        if (isHeartbeat()) {
+            // A comment line: keeps proxies from closing an idle stream and detects dead clients
+            emitter.send(SseEmitter.event().comment("ping"));
+        } else {
+            emitter.send(SseEmitter.event().id(Long.toString(id)).name(name).data(data, MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.prisonmanagement.services.export;
+
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.IncidentRepository;
+import com.example.prisonmanagement.repositories.projections.DetaineeExportRow;
+import com.example.prisonmanagement.repositories.projections.IncidentView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables to an output stream row by row. Rows are read-only projections coming
+ * from a JDBC cursor (see the streamAllForExport queries), so memory stays flat regardless of
+ * the table size.
+ */
+@Service
+public class ExportService {
+
+    private static final List<Column<DetaineeExportRow>> DETAINEE_COLUMNS = List.of(
+            new Column<>("id", DetaineeExportRow::getId),
+            new Column<>("lastName", DetaineeExportRow::getLastName),
+            new Column<>("firstName", DetaineeExportRow::getFirstName),
+            new Column<>("birthDate", DetaineeExportRow::getBirthDate),
+            new Column<>("birthPlace", DetaineeExportRow::getBirthPlace),
+            new Column<>("detentionType", DetaineeExportRow::getDetentionType),
+            new Column<>("arrivalDate", DetaineeExportRow::getArrivalDate),
+            new Column<>("nationality", DetaineeExportRow::getNationality),
+            new Column<>("identificationNumber", DetaineeExportRow::getIdentificationNumber),
+            new Column<>("address", DetaineeExportRow::getAddress),
+            new Column<>("offenses", DetaineeExportRow::getOffenses),
+            new Column<>("sentence", DetaineeExportRow::getSentence),
+            new Column<>("sentenceDate", DetaineeExportRow::getSentenceDate),
+            new Column<>("expectedEndDate", DetaineeExportRow::getExpectedEndDate),
+            new Column<>("court", DetaineeExportRow::getCourt),
+            new Column<>("securityLevel", DetaineeExportRow::getSecurityLevel),
+            new Column<>("releaseDate", DetaineeExportRow::getReleaseDate),
+            new Column<>("status", DetaineeExportRow::getStatus));
+
+    private static final List<Column<IncidentView>> INCIDENT_COLUMNS = List.of(
+            new Column<>("id", IncidentView::getId),
+            new Column<>("type", IncidentView::getType),
+            new Column<>("date", IncidentView::getDate),
+            new Column<>("location", IncidentView::getLocation),
+            new Column<>("gravity", IncidentView::getGravity),
+            new Column<>("description", IncidentView::getDescription),
+            new Column<>("detaineeId", IncidentView::getDetaineeId),
+            new Column<>("detaineeLastName", IncidentView::getDetaineeLastName),
+            new Column<>("detaineeFirstName", IncidentView::getDetaineeFirstName));
+
+    private final DetaineeRepository detaineeRepository;
+    private final IncidentRepository incidentRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(DetaineeRepository detaineeRepository, IncidentRepository incidentRepository,
+                         ObjectMapper objectMapper) {
+        this.detaineeRepository = detaineeRepository;
+        this.incidentRepository = incidentRepository;
+        // Let the servlet buffer decide when to flush instead of flushing after every row
+        this.objectMapper = objectMapper.copy()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportDetainees(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<DetaineeExportRow> rows = detaineeRepository.streamAllForExport()) {
+            write(rows, DETAINEE_COLUMNS, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportIncidents(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<IncidentView> rows = incidentRepository.streamAllForExport()) {
+            write(rows, INCIDENT_COLUMNS, format, out);
+        }
+    }
+
+    private <T> void write(Stream<T> rows, List<Column<T>> columns, ExportFormat format, OutputStream out)
+            throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writeNdjson(rows, columns, out);
+        } else {
+            writeCsv(rows, columns, out);
+        }
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, List<Column<T>> columns, OutputStream out) throws IOException {
+        boolean empty = true;
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<T> it = rows.iterator();
+            while (it.hasNext()) {
+                T row = it.next();
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (Column<T> column : columns) {
+                    values.put(column.name, column.getter.apply(row));
+                }
+                writer.write(values);
+                if (empty) {
+                    writer.flush(); // first byte goes out before the cursor is drained
+                    empty = false;
+                }
+            }
+        }
+        if (!empty) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private <T> void writeCsv(Stream<T> rows, List<Column<T>> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).name);
+        }
+        writer.write("\r\n");
+        writer.flush(); // first byte goes out before the cursor is drained
+
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(writer, columns.get(i).getter.apply(row));
+            }
+            writer.write("\r\n");
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static final class Column<T> {
+        final String name;
+        final Function<T, Object> getter;
+
+        Column(String name, Function<T, Object> getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+    }
+}
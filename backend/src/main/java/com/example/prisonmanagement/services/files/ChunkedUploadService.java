@@ -0,0 +1,244 @@
+package com.example.prisonmanagement.services.files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads in fixed-size chunks. Each chunk is written at its offset straight into a
+ * temp file on the upload volume (positional FileChannel writes, no multipart buffering) and
+ * checked against the SHA-256 the client sent for it. On completion the file is hashed
+ * (in-order chunks are already digested on arrival) and renamed into the blob store.
+ * Sessions live in memory; idle ones are dropped with their temp file.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final String TEMP_PREFIX = "chunked-";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final long chunkSize;
+    private final long maxFileSize;
+    private final long sessionTtlMs;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(FileStorageService fileStorageService,
+                                @Value("${prison.app.uploadChunkSize:8388608}") long chunkSize,
+                                @Value("${prison.app.uploadMaxSize:2147483648}") long maxFileSize,
+                                @Value("${prison.app.uploadSessionTtlMs:21600000}") long sessionTtlMs) throws IOException {
+        this.fileStorageService = fileStorageService;
+        this.chunkSize = chunkSize;
+        this.maxFileSize = maxFileSize;
+        this.sessionTtlMs = sessionTtlMs;
+        // Sessions do not survive a restart, so neither do their partial files
+        fileStorageService.deleteTempFiles(TEMP_PREFIX);
+    }
+
+    public UploadSession initiate(String owner, String originalName, long totalSize) throws IOException {
+        String fileName = originalName == null ? "" : StringUtils.cleanPath(originalName);
+        if (fileName.isBlank() || fileName.contains("..")) {
+            throw new IllegalArgumentException("nom de fichier invalide");
+        }
+        if (totalSize <= 0 || totalSize > maxFileSize) {
+            throw new IllegalArgumentException("la taille doit être comprise entre 1 et " + maxFileSize + " octets");
+        }
+        Path file = fileStorageService.newTempFile(TEMP_PREFIX);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), owner, fileName, totalSize,
+                chunkSize, file, channel, sha256());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    // Sessions are only visible to the user who started them
+    public Optional<UploadSession> find(String id, String owner) {
+        UploadSession session = sessions.get(id);
+        if (session == null || !session.getOwner().equals(owner)) {
+            return Optional.empty();
+        }
+        session.touch();
+        return Optional.of(session);
+    }
+
+    public void writeChunk(UploadSession session, long offset, InputStream body, String expectedSha256) throws IOException {
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new IllegalArgumentException("offset invalide : il doit être un multiple de " + session.getChunkSize());
+        }
+        if (expectedSha256 == null || !expectedSha256.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("en-tête X-Chunk-Sha256 manquant ou invalide");
+        }
+        int index = (int) (offset / session.getChunkSize());
+        long length = session.chunkLength(index);
+        if (!session.beginChunk(index)) {
+            throw new IllegalStateException(session.isCompleting() ? "envoi déjà en cours de finalisation"
+                    : session.isDiscarding() ? "envoi annulé" : "ce bloc est déjà en cours d'envoi");
+        }
+
+        boolean stored = false;
+        try {
+            MessageDigest chunkDigest = sha256();
+            // If this chunk continues the digested prefix, feed a copy of the file digest as well
+            MessageDigest fileDigest = null;
+            synchronized (session) {
+                if (session.digestedUpTo > offset) {
+                    // Rewriting an already digested chunk: rehash everything on completion
+                    session.digest = sha256();
+                    session.digestedUpTo = 0;
+                }
+                if (session.digestedUpTo == offset) {
+                    fileDigest = cloneOf(session.digest);
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long written = 0;
+            int read;
+            while ((read = body.read(buffer.array(), 0, (int) Math.min(BUFFER_SIZE, length - written + 1))) != -1) {
+                if (written + read > length) {
+                    throw new IllegalArgumentException("le bloc dépasse la taille attendue de " + length + " octets");
+                }
+                chunkDigest.update(buffer.array(), 0, read);
+                if (fileDigest != null) {
+                    fileDigest.update(buffer.array(), 0, read);
+                }
+                buffer.limit(read).position(0);
+                long position = offset + written;
+                while (buffer.hasRemaining()) {
+                    position += session.channel.write(buffer, position);
+                }
+                buffer.clear();
+                written += read;
+            }
+            if (written != length) {
+                throw new IllegalArgumentException("bloc incomplet : " + written + " octets reçus sur " + length);
+            }
+            if (!HexFormat.of().formatHex(chunkDigest.digest()).equalsIgnoreCase(expectedSha256)) {
+                throw new IllegalArgumentException("somme de contrôle du bloc incorrecte");
+            }
+            stored = true;
+            if (fileDigest != null) {
+                synchronized (session) {
+                    if (session.digestedUpTo == offset) {
+                        session.digest = fileDigest;
+                        session.digestedUpTo = offset + length;
+                    }
+                }
+            }
+        } finally {
+            session.endChunk(index, stored);
+            session.touch();
+        }
+    }
+
+    // Returns the blob path, as FileStorageService.storeFile does
+    public String complete(UploadSession session, String expectedSha256) throws IOException {
+        if (!session.isComplete()) {
+            throw new IllegalStateException("blocs manquants : " + session.getMissingOffsets().size());
+        }
+        if (!session.beginCompletion() || !sessions.remove(session.getId(), session)) {
+            throw new IllegalStateException("envoi déjà en cours de finalisation");
+        }
+        try {
+            session.channel.force(false);
+            String hash = HexFormat.of().formatHex(finishDigest(session));
+            session.channel.close();
+            if (expectedSha256 != null && !expectedSha256.isBlank() && !hash.equalsIgnoreCase(expectedSha256)) {
+                throw new IllegalArgumentException("somme de contrôle du fichier incorrecte");
+            }
+            return fileStorageService.storeAssembled(session.file, hash, session.getFileName());
+        } finally {
+            discard(session);
+        }
+    }
+
+    // Refused while a chunk is being written or the upload is being completed
+    public void abort(UploadSession session) {
+        if (!session.beginDiscard()) {
+            throw new IllegalStateException(session.isCompleting() ? "envoi déjà en cours de finalisation"
+                    : session.isDiscarding() ? "envoi déjà annulé" : "un bloc est en cours d'envoi, réessayez");
+        }
+        if (sessions.remove(session.getId(), session)) {
+            discard(session);
+        }
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void purgeAbandoned() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMs;
+        for (UploadSession session : sessions.values()) {
+            if (session.getLastActivity() < cutoff && session.beginDiscard() && sessions.remove(session.getId(), session)) {
+                logger.info("Dropping abandoned upload {} ({}, {} of {} bytes)", session.getId(),
+                        session.getFileName(), session.getReceivedBytes(), session.getTotalSize());
+                discard(session);
+            }
+        }
+    }
+
+    // Hashes whatever arrived out of order after the contiguous prefix
+    private byte[] finishDigest(UploadSession session) throws IOException {
+        MessageDigest digest;
+        long position;
+        synchronized (session) {
+            digest = session.digest;
+            position = session.digestedUpTo;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (position < session.getTotalSize()) {
+            int read = session.channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            digest.update(buffer.array(), 0, read);
+            position += read;
+            buffer.clear();
+        }
+        return digest.digest();
+    }
+
+    private static void discard(UploadSession session) {
+        try {
+            session.channel.close();
+            Files.deleteIfExists(session.file);
+        } catch (IOException e) {
+            logger.warn("Could not delete upload temp file {}: {}", session.file, e.getMessage());
+        }
+    }
+
+    private static MessageDigest cloneOf(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            return null; // falls back to hashing this chunk from disk on completion
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.prisonmanagement.services.files;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves stored uploads with strong ETags, conditional GET, single byte ranges and zero-copy
+ * transfer (Tomcat sendfile when the connector supports it, FileChannel.transferTo otherwise).
+ */
+@Service
+public class FileServingService {
+
+    // Content-addressed blobs carry their SHA-256 in the name
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]+)?");
+    // Legacy uploads were stored as <uuid>_<original name>; the name never gets new content either
+    private static final Pattern UUID_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}_.+");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    // Uploads are detainee data: cacheable by the browser only, never by shared proxies
+    private static final String CACHE_IMMUTABLE = "private, max-age=31536000, immutable";
+    private static final String CACHE_REVALIDATE = "private, no-cache";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int LEGACY_TAG_CACHE_SIZE = 10_000;
+
+    private final Path root;
+
+    // ETags of files whose name does not tell their content, keyed by path and invalidated on mtime or size
+    // change; bounded, and entries of files found missing are dropped
+    private final Cache<Path, CachedTag> legacyTags = Caffeine.newBuilder().maximumSize(LEGACY_TAG_CACHE_SIZE).build();
+
+    public FileServingService(@Value("${file.upload-dir}") String uploadDir) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    public void serve(String relativePath, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = root.resolve(relativePath).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file) || isInternal(file)) {
+            legacyTags.invalidate(file);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String fileName = file.getFileName().toString();
+        long length = Files.size(file);
+        // Image variants keep their source's name but are regenerated in place: never immutable
+        boolean derived = isDerived(file);
+        String etag = etagFor(file, fileName, derived);
+        boolean immutable = !derived
+                && (BLOB_NAME.matcher(fileName).matches() || UUID_NAME.matcher(fileName).matches());
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? CACHE_IMMUTABLE : CACHE_REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(mediaType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher m = RANGE.matcher(range.trim());
+            // Multi-range requests fall through to a full 200 response, which RFC 9110 allows
+            if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty())) {
+                if (m.group(1).isEmpty()) {
+                    start = Math.max(0, length - position(m.group(2))); // suffix range: last N bytes
+                } else {
+                    start = position(m.group(1));
+                    if (!m.group(2).isEmpty()) {
+                        end = Math.min(end, position(m.group(2)));
+                    }
+                }
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat NIO: the connector writes the file straight from the page cache to the socket
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // For tests: number of cached content ETags
+    long cachedTagCount() {
+        legacyTags.cleanUp();
+        return legacyTags.estimatedSize();
+    }
+
+    private boolean isInternal(Path file) {
+        // Temp files and the blob index are not downloadable
+        Path relative = root.relativize(file);
+        return relative.getName(0).toString().startsWith(".") || relative.toString().endsWith(".ndjson");
+    }
+
+    private boolean isDerived(Path file) {
+        return root.relativize(file).getName(0).toString().equals(ImageDerivativeService.DERIVED_DIR);
+    }
+
+    // The hash in a blob name describes the source upload, not a variant derived from it
+    private String etagFor(Path file, String fileName, boolean derived) throws IOException {
+        Matcher blob = BLOB_NAME.matcher(fileName);
+        if (!derived && blob.matches()) {
+            return "\"" + blob.group(1) + "\"";
+        }
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        long size = Files.size(file);
+        CachedTag cached = legacyTags.getIfPresent(file);
+        if (cached != null && cached.modified == modified && cached.size == size) {
+            return cached.etag;
+        }
+        String etag = "\"" + sha256(file) + "\"";
+        legacyTags.put(file, new CachedTag(etag, modified, size));
+        return etag;
+    }
+
+    // Range positions are unbounded digit strings: past Long.MAX_VALUE they are clamped, not a 500
+    private static long position(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedTag {
+        final String etag;
+        final long modified;
+        final long size;
+
+        CachedTag(String etag, long modified, long size) {
+            this.etag = etag;
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+}
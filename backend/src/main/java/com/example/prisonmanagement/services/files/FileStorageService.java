@@ -1,5 +1,8 @@
 package com.example.prisonmanagement.services.files;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -7,24 +10,63 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
+/**
+ * Content-addressed upload storage. Each upload is hashed (SHA-256) while it is written to a temp
+ * file, then moved to blobs/&lt;2 hex chars&gt;/&lt;hash&gt;.&lt;ext&gt;. If that blob already exists
+ * the temp file is dropped and the existing blob is referenced, so identical photos and documents
+ * are stored once. blob-index.ndjson records which original names map to which blob.
+ */
 @Service
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final String BLOB_DIR = "blobs";
+    private static final String TMP_DIR = ".tmp";
+    private static final String INDEX_FILE = "blob-index.ndjson";
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
     private final Path fileStorageLocation;
+    private final Path indexFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    // blob path (relative to the upload dir) -> original file names it was uploaded under
+    private final Map<String, Set<String>> originalNames = new ConcurrentHashMap<>();
 
     public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.indexFile = this.fileStorageLocation.resolve(INDEX_FILE);
         try {
-            Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.fileStorageLocation.resolve(BLOB_DIR));
+            Files.createDirectories(this.fileStorageLocation.resolve(TMP_DIR));
+            loadIndex();
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
@@ -34,26 +76,77 @@ public class FileStorageService {
         // Normalize file name
         String fileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
 
+        // Check if the file's name contains invalid characters
+        if (fileName.contains("..")) {
+            throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            return storeStream(in, fileName);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
+        }
+    }
+
+    // Returns the path of the blob relative to the upload dir, e.g. "/blobs/3f/3f9a...c1.jpg"
+    public String storeStream(InputStream in, String originalName) throws IOException {
+        Path temp = newTempFile("upload-");
         try {
-            // Check if the file's name contains invalid characters
-            if (fileName.contains("..")) {
-                throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+            MessageDigest digest = sha256();
+            try (DigestInputStream hashing = new DigestInputStream(in, digest)) {
+                Files.copy(hashing, temp, StandardCopyOption.REPLACE_EXISTING);
             }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            return commitBlob(temp, hash, originalName);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 
-            // Append UUID to make filename unique
-            String uniqueFileName = UUID.randomUUID().toString() + "_" + fileName;
+    // Temp files live on the upload volume so committing them into the blob store is a rename, not a copy
+    Path newTempFile(String prefix) throws IOException {
+        return Files.createTempFile(fileStorageLocation.resolve(TMP_DIR), prefix, ".part");
+    }
 
-            // Copy file to the target location (Replacing existing file with same name)
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    // Commits a file assembled elsewhere (e.g. a chunked upload) whose SHA-256 is already known
+    String storeAssembled(Path temp, String hash, String originalName) throws IOException {
+        try {
+            return commitBlob(temp, hash, originalName);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 
-            // Return the relative path to the stored file
-            return "/" + this.fileStorageLocation.relativize(targetLocation).toString().replace("\\", "/");
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
+    void deleteTempFiles(String prefix) throws IOException {
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(fileStorageLocation.resolve(TMP_DIR), prefix + "*")) {
+            for (Path file : stale) {
+                Files.deleteIfExists(file);
+            }
         }
     }
 
+    // Moves a hashed temp file into the blob store (or drops it if the blob exists) and records the name
+    private String commitBlob(Path temp, String hash, String originalName) throws IOException {
+        String relative = BLOB_DIR + "/" + hash.substring(0, 2) + "/" + hash + extensionOf(originalName);
+        Path target = fileStorageLocation.resolve(relative);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently: keep the existing blob
+            }
+        } else {
+            logger.debug("Upload {} deduplicated onto existing blob {}", originalName, relative);
+        }
+        recordName(relative, originalName);
+        return "/" + relative;
+    }
+
+    public Set<String> getOriginalNames(String blobPath) {
+        return originalNames.getOrDefault(stripLeadingSlash(blobPath), Set.of());
+    }
+
     public Resource loadFileAsResource(String fileName) {
         try {
             Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
@@ -67,4 +160,60 @@ public class FileStorageService {
             throw new RuntimeException("File not found " + fileName, ex);
         }
     }
+
+    private void recordName(String relative, String originalName) throws IOException {
+        if (!originalNames.computeIfAbsent(relative, k -> ConcurrentHashMap.newKeySet()).add(originalName)) {
+            return; // this name is already known for this blob
+        }
+        String line = objectMapper.writeValueAsString(Map.of(
+                "blob", relative,
+                "name", originalName,
+                "storedAt", LocalDateTime.now().toString()));
+        // A lock rather than synchronized: file I/O inside a monitor would pin a virtual thread
+        indexLock.lock();
+        try (BufferedWriter writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(line);
+            writer.newLine();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<?, ?> entry = objectMapper.readValue(line, Map.class);
+            originalNames.computeIfAbsent((String) entry.get("blob"), k -> ConcurrentHashMap.newKeySet())
+                    .add((String) entry.get("name"));
+        }
+        logger.info("Loaded upload index: {} blobs", originalNames.size());
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String ext = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(ext).matches() ? "." + ext : "";
+    }
+
+    private static String stripLeadingSlash(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,264 @@
+package com.example.prisonmanagement.services.files;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thumbnail and medium-size JPEG variants of uploaded images, stored under
+ * derived/&lt;variant&gt;/&lt;source path&gt;.jpg. Uploads queue their variants on a small bounded
+ * pool; files uploaded before this existed (or dropped because the queue was full) get them
+ * on first request. Concurrent requests for the same source share one decode.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    static final String DERIVED_DIR = "derived";
+    private static final String TMP_DIR = ".tmp";
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+    private static final float JPEG_QUALITY = 0.8f;
+
+    public enum Variant {
+        THUMB("thumb", 160),
+        MEDIUM("medium", 640);
+
+        private final String dir;
+        private final int maxSize;
+
+        Variant(String dir, int maxSize) {
+            this.dir = dir;
+            this.maxSize = maxSize;
+        }
+
+        public static Optional<Variant> from(String name) {
+            for (Variant variant : values()) {
+                if (variant.dir.equals(name)) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final Path root;
+    private final ThreadPoolExecutor workers;
+
+    // source file -> generation in progress, so lazy requests wait for the upload-time job
+    private final Map<Path, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageDerivativeService(@Value("${file.upload-dir}") String uploadDir,
+                                  @Value("${prison.app.imageWorkers:2}") int workerCount,
+                                  @Value("${prison.app.imageQueueSize:200}") int queueSize) throws IOException {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve(TMP_DIR));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                task -> {
+                    Thread thread = new Thread(task, "image-derivatives-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                // A full queue only delays the variants: they are generated on first request instead
+                (task, executor) -> logger.debug("Derivative queue full, deferring to first request"));
+    }
+
+    // Queues the variants of a freshly stored upload; returns immediately
+    public void generateAsync(String relativePath) {
+        Path source = resolveSource(relativePath);
+        if (source != null) {
+            workers.execute(() -> generate(source));
+        }
+    }
+
+    // Relative path of the requested variant, generating it if needed; empty if the source is not a readable image
+    public Optional<String> variant(String relativePath, Variant variant) {
+        Path source = resolveSource(relativePath);
+        if (source == null || !Files.isRegularFile(source)) {
+            return Optional.empty();
+        }
+        Path target = targetFor(source, variant);
+        if (!Files.exists(target)) {
+            generate(source);
+        }
+        return Files.exists(target) ? Optional.of(root.relativize(target).toString()) : Optional.empty();
+    }
+
+    private void generate(Path source) {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(source, mine);
+        if (running != null) {
+            running.exceptionally(e -> null).join();
+            return;
+        }
+        try {
+            render(source);
+        } catch (Exception e) {
+            logger.warn("Could not build image variants for {}: {}", root.relativize(source), e.getMessage());
+        } finally {
+            inFlight.remove(source, mine);
+            mine.complete(null);
+        }
+    }
+
+    private void render(Path source) throws IOException {
+        List<Variant> missing = new ArrayList<>();
+        for (Variant variant : Variant.values()) {
+            if (!Files.exists(targetFor(source, variant))) {
+                missing.add(variant);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        int largest = missing.stream().mapToInt(v -> v.maxSize).max().orElse(0);
+        BufferedImage image = decode(source, largest);
+        if (image == null) {
+            return;
+        }
+        for (Variant variant : missing) {
+            write(scale(image, variant.maxSize), targetFor(source, variant));
+        }
+    }
+
+    private static BufferedImage decode(Path source, int targetSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Skip pixels while decoding large photos: keep at least twice the target size for a clean downscale
+                int subsampling = Math.max(1, longest / (targetSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        // Halve step by step with bilinear filtering, which avoids the aliasing of a single large step
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        // JPEG has no alpha channel: flatten transparent PNG/GIF areas onto white
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(root.resolve(TMP_DIR), "derived-", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Only image uploads inside the upload dir (and not themselves variants or internal files)
+    private Path resolveSource(String relativePath) {
+        Path source = root.resolve(stripLeadingSlash(relativePath)).normalize();
+        if (!source.startsWith(root) || source.equals(root)) {
+            return null;
+        }
+        String first = root.relativize(source).getName(0).toString();
+        if (first.startsWith(".") || first.equals(DERIVED_DIR)) {
+            return null;
+        }
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || !IMAGE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        return source;
+    }
+
+    private Path targetFor(Path source, Variant variant) {
+        String relative = root.relativize(source).toString();
+        String base = relative.substring(0, relative.lastIndexOf('.'));
+        return root.resolve(DERIVED_DIR).resolve(variant.dir).resolve(base + ".jpg");
+    }
+
+    private static String stripLeadingSlash(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
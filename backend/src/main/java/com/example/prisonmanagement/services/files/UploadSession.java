@@ -0,0 +1,148 @@
+package com.example.prisonmanagement.services.files;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * State of one resumable upload: the pre-sized target file, which fixed-size chunks have
+ * arrived, and a running SHA-256 over the contiguous prefix received so far.
+ */
+public class UploadSession {
+
+    private final String id;
+    private final String owner;
+    private final String fileName;
+    private final long totalSize;
+    private final long chunkSize;
+    private final int chunkCount;
+    final Path file;
+    final FileChannel channel;
+
+    private final BitSet received;
+    private final BitSet writing;
+    // Set once complete() has taken the session: no chunk may start after that
+    private boolean completing;
+    // Set once abort() or the purge has taken the session, before its channel is closed
+    private boolean discarding;
+    // Whole-file digest, valid for bytes [0, digestedUpTo)
+    MessageDigest digest;
+    long digestedUpTo;
+    private volatile long lastActivity;
+
+    UploadSession(String id, String owner, String fileName, long totalSize, long chunkSize,
+                  Path file, FileChannel channel, MessageDigest digest) {
+        this.id = id;
+        this.owner = owner;
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        this.file = file;
+        this.channel = channel;
+        this.digest = digest;
+        this.received = new BitSet(chunkCount);
+        this.writing = new BitSet(chunkCount);
+        touch();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    long chunkLength(int index) {
+        return Math.min(chunkSize, totalSize - index * chunkSize);
+    }
+
+    int chunkCount() {
+        return chunkCount;
+    }
+
+    public synchronized long getReceivedBytes() {
+        long bytes = 0;
+        for (int i = received.nextSetBit(0); i >= 0; i = received.nextSetBit(i + 1)) {
+            bytes += chunkLength(i);
+        }
+        return bytes;
+    }
+
+    public synchronized List<Long> getMissingOffsets() {
+        List<Long> offsets = new ArrayList<>();
+        for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+            offsets.add(i * chunkSize);
+        }
+        return offsets;
+    }
+
+    synchronized boolean isComplete() {
+        return received.cardinality() == chunkCount;
+    }
+
+    // Claims a chunk for writing; false if another request is writing it right now or the upload is being closed
+    synchronized boolean beginChunk(int index) {
+        if (completing || discarding || writing.get(index)) {
+            return false;
+        }
+        writing.set(index);
+        return true;
+    }
+
+    synchronized void endChunk(int index, boolean stored) {
+        writing.clear(index);
+        // A failed write may have overwritten earlier bytes of this chunk
+        received.set(index, stored);
+    }
+
+    // Checked and flagged under the same monitor as beginChunk, so no chunk can slip in before the file is hashed
+    synchronized boolean beginCompletion() {
+        if (completing || discarding || !writing.isEmpty() || received.cardinality() != chunkCount) {
+            return false;
+        }
+        completing = true;
+        return true;
+    }
+
+    synchronized boolean isCompleting() {
+        return completing;
+    }
+
+    // Same check for abort and the purge: the channel must not be closed under a chunk being written
+    synchronized boolean beginDiscard() {
+        if (completing || discarding || !writing.isEmpty()) {
+            return false;
+        }
+        discarding = true;
+        return true;
+    }
+
+    synchronized boolean isDiscarding() {
+        return discarding;
+    }
+
+    long getLastActivity() {
+        return lastActivity;
+    }
+
+    void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.prisonmanagement.services.housing;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Beds of one block as a bitset: one bit per bed (set = occupied), the cells of the block laid out
+ * one after the other in creation order. Finding a free bed reads 64 beds per word; taking it is
+ * a compare-and-set on that word, so two clerks can never get the same bed and nobody waits on a
+ * lock.
+ *
+ * The layout is immutable: adding a cell builds a new BlockBeds (see withCell).
+ */
+final class BlockBeds {
+
+    final long blockId;
+    final String code;
+    final String name;
+    final String securityLevel;
+    final int securityRank;
+
+    final long[] cellIds;
+    final String[] cellNumbers;
+    // offsets[i] = first bed of cell i; offsets[cellIds.length] = capacity of the block
+    final int[] offsets;
+    private final AtomicLongArray words;
+
+    BlockBeds(long blockId, String code, String name, String securityLevel, int securityRank) {
+        this(blockId, code, name, securityLevel, securityRank, new long[0], new String[0], new int[]{0},
+                new AtomicLongArray(0));
+    }
+
+    private BlockBeds(long blockId, String code, String name, String securityLevel, int securityRank,
+                      long[] cellIds, String[] cellNumbers, int[] offsets, AtomicLongArray words) {
+        this.blockId = blockId;
+        this.code = code;
+        this.name = name;
+        this.securityLevel = securityLevel;
+        this.securityRank = securityRank;
+        this.cellIds = cellIds;
+        this.cellNumbers = cellNumbers;
+        this.offsets = offsets;
+        this.words = words;
+    }
+
+    // Same block with one more cell at the end; the occupancy of the existing beds is copied
+    BlockBeds withCell(long cellId, String number, int capacity) {
+        int cells = cellIds.length;
+        long[] ids = Arrays.copyOf(cellIds, cells + 1);
+        String[] numbers = Arrays.copyOf(cellNumbers, cells + 1);
+        int[] starts = Arrays.copyOf(offsets, cells + 2);
+        ids[cells] = cellId;
+        numbers[cells] = number;
+        starts[cells + 1] = starts[cells] + capacity;
+        AtomicLongArray grown = new AtomicLongArray((starts[cells + 1] + 63) >>> 6);
+        for (int i = 0; i < words.length(); i++) {
+            grown.set(i, words.get(i));
+        }
+        return new BlockBeds(blockId, code, name, securityLevel, securityRank, ids, numbers, starts, grown);
+    }
+
+    int capacity() {
+        return offsets[cellIds.length];
+    }
+
+    int capacity(int cell) {
+        return offsets[cell + 1] - offsets[cell];
+    }
+
+    // Takes the first free bed of the block; returns its index or -1 when the block is full
+    int claimAny() {
+        return claimIn(0, capacity());
+    }
+
+    // Takes the first free bed of one cell; returns its index in the block or -1 when the cell is full
+    int claimInCell(int cell) {
+        return claimIn(offsets[cell], offsets[cell + 1]);
+    }
+
+    // Marks a known bed as taken (loading assignments); false if it already was
+    boolean claim(int bed) {
+        int index = bed >>> 6;
+        long bit = 1L << bed;
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word | bit)) {
+                return true;
+            }
+        }
+    }
+
+    void release(int bed) {
+        int index = bed >>> 6;
+        long bit = 1L << bed;
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) == 0 || words.compareAndSet(index, word, word & ~bit)) {
+                return;
+            }
+        }
+    }
+
+    int occupied() {
+        return occupiedIn(0, capacity());
+    }
+
+    int occupied(int cell) {
+        return occupiedIn(offsets[cell], offsets[cell + 1]);
+    }
+
+    // Index of the cell holding a bed of the block (cells have at least one bed, so offsets are distinct)
+    int cellOf(int bed) {
+        int found = Arrays.binarySearch(offsets, 0, cellIds.length, bed);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private int claimIn(int from, int to) {
+        for (int index = from >>> 6; from < to && index <= (to - 1) >>> 6; index++) {
+            long mask = mask(index, from, to);
+            while (true) {
+                long word = words.get(index);
+                long free = ~word & mask;
+                if (free == 0) {
+                    break; // no free bed in this word, try the next one
+                }
+                long bit = Long.lowestOneBit(free);
+                if (words.compareAndSet(index, word, word | bit)) {
+                    return (index << 6) + Long.numberOfTrailingZeros(bit);
+                }
+                // Another clerk changed this word meanwhile: read it again
+            }
+        }
+        return -1;
+    }
+
+    private int occupiedIn(int from, int to) {
+        int count = 0;
+        for (int index = from >>> 6; from < to && index <= (to - 1) >>> 6; index++) {
+            count += Long.bitCount(words.get(index) & mask(index, from, to));
+        }
+        return count;
+    }
+
+    // Bits of word "index" that fall in beds [from, to)
+    static long mask(int index, int from, int to) {
+        int low = Math.max(from, index << 6) - (index << 6);
+        int high = Math.min(to, (index + 1) << 6) - (index << 6);
+        long upTo = high == 64 ? -1L : (1L << high) - 1;
+        return upTo & (-1L << low);
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.prisonmanagement.services.housing;
+
+import com.example.prisonmanagement.models.Cell;
+import com.example.prisonmanagement.models.CellAssignment;
+import com.example.prisonmanagement.models.CellBlock;
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.payload.request.AssignmentRequest;
+import com.example.prisonmanagement.payload.request.BlockRequest;
+import com.example.prisonmanagement.payload.request.CellRequest;
+import com.example.prisonmanagement.payload.response.AssignmentResponse;
+import com.example.prisonmanagement.payload.response.OccupancyResponse;
+import com.example.prisonmanagement.payload.response.OccupancyResponse.BlockOccupancy;
+import com.example.prisonmanagement.payload.response.OccupancyResponse.CellOccupancy;
+import com.example.prisonmanagement.repositories.CellAssignmentRepository;
+import com.example.prisonmanagement.repositories.CellBlockRepository;
+import com.example.prisonmanagement.repositories.CellRepository;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Blocks, cells and bed allocation.
+ *
+ * Occupancy lives in memory as one BlockBeds bitset per block, rebuilt from the assignments at
+ * startup: finding a free compatible bed and computing occupancy rates are word scans, and a bed
+ * is taken by compare-and-set, so concurrent intake clerks never get the same one. The
+ * affectations_cellules row is written right after; its unique constraints back the bitset.
+ *
+ * A block accepts detainees up to its own security level (Faible &lt; Moyen &lt; Élevé); a
+ * detainee without a known level is treated as Élevé. Automatic allocation tries the lowest
+ * compatible level first.
+ */
+@Service
+public class HousingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HousingService.class);
+
+    public static final List<String> SECURITY_LEVELS = List.of("Faible", "Moyen", "Élevé");
+    private static final int MAX_CELL_CAPACITY = 64;
+
+    private final CellBlockRepository blockRepository;
+    private final CellRepository cellRepository;
+    private final CellAssignmentRepository assignmentRepository;
+    private final DetaineeRepository detaineeRepository;
+
+    // Allocations share the read lock (they only CAS bits); layout changes take the write lock
+    private final ReadWriteLock layoutLock = new ReentrantReadWriteLock();
+    private volatile Layout layout = new Layout(new HashMap<>());
+
+    public HousingService(CellBlockRepository blockRepository,
+                          CellRepository cellRepository,
+                          CellAssignmentRepository assignmentRepository,
+                          DetaineeRepository detaineeRepository) {
+        this.blockRepository = blockRepository;
+        this.cellRepository = cellRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.detaineeRepository = detaineeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    // Reloads blocks, cells and occupied beds from the database; returns the number of occupied beds
+    public int rebuild() {
+        layoutLock.writeLock().lock();
+        try {
+            Map<Long, BlockBeds> blocks = new HashMap<>();
+            for (CellBlock block : blockRepository.findAll()) {
+                blocks.put(block.getId(), newBlockBeds(block));
+            }
+            for (Object[] row : cellRepository.findLayout()) {
+                Long blockId = (Long) row[1];
+                blocks.put(blockId, blocks.get(blockId).withCell((Long) row[0], (String) row[2], (Integer) row[3]));
+            }
+            Layout loaded = new Layout(blocks);
+            int occupied = 0;
+            for (Object[] row : assignmentRepository.findOccupiedBeds()) {
+                CellRef ref = loaded.cells.get((Long) row[0]);
+                BlockBeds block = loaded.blocks.get(ref.blockId);
+                int bed = (Integer) row[1];
+                if (bed < 0 || bed >= block.capacity(ref.index) || !block.claim(block.offsets[ref.index] + bed)) {
+                    logger.warn("Ignoring assignment to bed {} of cell {}: outside the cell or already taken", bed, row[0]);
+                    continue;
+                }
+                occupied++;
+            }
+            layout = loaded;
+            logger.info("Housing loaded: {} blocks, {} cells, {} occupied beds",
+                    blocks.size(), loaded.cells.size(), occupied);
+            return occupied;
+        } finally {
+            layoutLock.writeLock().unlock();
+        }
+    }
+
+    public CellBlock createBlock(BlockRequest request) {
+        if (request.getCode() == null || request.getCode().isBlank()) {
+            throw new IllegalArgumentException("Erreur : Le code du bloc est obligatoire.");
+        }
+        if (!SECURITY_LEVELS.contains(request.getSecurityLevel())) {
+            throw new IllegalArgumentException("Erreur : Niveau de sécurité invalide (attendu : "
+                    + String.join(", ", SECURITY_LEVELS) + ").");
+        }
+        String code = request.getCode().trim();
+        if (blockRepository.existsByCode(code)) {
+            throw new IllegalArgumentException("Erreur : Le bloc " + code + " existe déjà.");
+        }
+        layoutLock.writeLock().lock();
+        try {
+            CellBlock block = blockRepository.save(new CellBlock(null, code, request.getName(), request.getSecurityLevel()));
+            Map<Long, BlockBeds> blocks = new HashMap<>(layout.blocks);
+            blocks.put(block.getId(), newBlockBeds(block));
+            layout = new Layout(blocks);
+            return block;
+        } finally {
+            layoutLock.writeLock().unlock();
+        }
+    }
+
+    public Cell createCell(Long blockId, CellRequest request) {
+        if (request.getNumber() == null || request.getNumber().isBlank()) {
+            throw new IllegalArgumentException("Erreur : Le numéro de cellule est obligatoire.");
+        }
+        if (request.getCapacity() < 1 || request.getCapacity() > MAX_CELL_CAPACITY) {
+            throw new IllegalArgumentException("Erreur : La capacité d'une cellule va de 1 à " + MAX_CELL_CAPACITY + " places.");
+        }
+        String number = request.getNumber().trim();
+        if (cellRepository.existsByNumber(number)) {
+            throw new IllegalArgumentException("Erreur : La cellule " + number + " existe déjà.");
+        }
+        layoutLock.writeLock().lock();
+        try {
+            BlockBeds beds = layout.blocks.get(blockId);
+            if (beds == null) {
+                throw new IllegalArgumentException("Erreur : Bloc introuvable.");
+            }
+            Cell cell = cellRepository.save(new Cell(null, blockRepository.getReferenceById(blockId), number,
+                    request.getCapacity()));
+            Map<Long, BlockBeds> blocks = new HashMap<>(layout.blocks);
+            blocks.put(blockId, beds.withCell(cell.getId(), number, cell.getCapacity()));
+            layout = new Layout(blocks);
+            return cell;
+        } finally {
+            layoutLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gives the detainee a bed: in the requested cell, or the first free one of the lowest compatible
+     * block. IllegalArgumentException for invalid input, IllegalStateException when no bed is free
+     * or the detainee already has one.
+     */
+    public AssignmentResponse assign(AssignmentRequest request) {
+        if (request.getDetaineeId() == null) {
+            throw new IllegalArgumentException("Erreur : Le détenu est obligatoire.");
+        }
+        Detainee detainee = detaineeRepository.findById(request.getDetaineeId())
+                .orElseThrow(() -> new IllegalArgumentException("Erreur : Détenu introuvable."));
+        assignmentRepository.findByDetaineeId(detainee.getId()).ifPresent(current -> {
+            throw new IllegalStateException("Erreur : Le détenu est déjà affecté à la cellule "
+                    + current.getCell().getNumber() + ".");
+        });
+        int rank = detaineeRank(detainee.getSecurityLevel());
+
+        layoutLock.readLock().lock();
+        try {
+            Layout current = layout;
+            BlockBeds block = null;
+            int bed = -1;
+            if (request.getCellId() != null) {
+                CellRef ref = current.cells.get(request.getCellId());
+                if (ref == null) {
+                    throw new IllegalArgumentException("Erreur : Cellule introuvable.");
+                }
+                block = current.blocks.get(ref.blockId);
+                String number = block.cellNumbers[ref.index];
+                if (block.securityRank < rank) {
+                    throw new IllegalArgumentException("Erreur : La cellule " + number + " (niveau "
+                            + block.securityLevel + ") ne peut pas accueillir un détenu de niveau "
+                            + SECURITY_LEVELS.get(rank) + ".");
+                }
+                bed = block.claimInCell(ref.index);
+                if (bed < 0) {
+                    throw new IllegalStateException("Erreur : La cellule " + number + " est complète.");
+                }
+            } else {
+                for (BlockBeds candidate : current.ordered) {
+                    if (candidate.securityRank >= rank && (bed = candidate.claimAny()) >= 0) {
+                        block = candidate;
+                        break;
+                    }
+                }
+                if (block == null) {
+                    throw new IllegalStateException("Erreur : Aucune place disponible pour un détenu de niveau "
+                            + SECURITY_LEVELS.get(rank) + ".");
+                }
+            }
+
+            int cell = block.cellOf(bed);
+            boolean saved = false;
+            try {
+                CellAssignment assignment = new CellAssignment(null, detainee,
+                        cellRepository.getReferenceById(block.cellIds[cell]), bed - block.offsets[cell], LocalDateTime.now());
+                assignmentRepository.save(assignment);
+                saved = true;
+                return new AssignmentResponse(detainee.getId(), block.cellIds[cell], block.cellNumbers[cell], block.code,
+                        assignment.getBed(), assignment.getAssignedAt());
+            } catch (DataIntegrityViolationException e) {
+                // Another clerk assigned this detainee at the same time
+                throw new IllegalStateException("Erreur : Le détenu est déjà affecté à une cellule.");
+            } finally {
+                // Whatever kept the row from being saved, the bed must not stay taken in the bitset
+                if (!saved) {
+                    block.release(bed);
+                }
+            }
+        } finally {
+            layoutLock.readLock().unlock();
+        }
+    }
+
+    public Optional<AssignmentResponse> findAssignment(Long detaineeId) {
+        return assignmentRepository.findByDetaineeId(detaineeId)
+                .map(a -> new AssignmentResponse(detaineeId, a.getCell().getId(), a.getCell().getNumber(),
+                        a.getCell().getBlock().getCode(), a.getBed(), a.getAssignedAt()));
+    }
+
+    // Frees the detainee's bed; false when the detainee had none
+    public boolean vacate(Long detaineeId) {
+        Optional<CellAssignment> assignment = assignmentRepository.findByDetaineeId(detaineeId);
+        if (assignment.isEmpty() || assignmentRepository.deleteAssignment(assignment.get().getId()) == 0) {
+            return false;
+        }
+        layoutLock.readLock().lock();
+        try {
+            CellRef ref = layout.cells.get(assignment.get().getCell().getId());
+            BlockBeds block = layout.blocks.get(ref.blockId);
+            block.release(block.offsets[ref.index] + assignment.get().getBed());
+            return true;
+        } finally {
+            layoutLock.readLock().unlock();
+        }
+    }
+
+    // Computed from the bitsets on every call: no query, no lock
+    public OccupancyResponse occupancy(boolean withCells) {
+        List<BlockOccupancy> blocks = new ArrayList<>();
+        int capacity = 0;
+        int occupied = 0;
+        for (BlockBeds block : layout.ordered) {
+            List<CellOccupancy> cells = null;
+            if (withCells) {
+                cells = new ArrayList<>(block.cellIds.length);
+                for (int i = 0; i < block.cellIds.length; i++) {
+                    cells.add(new CellOccupancy(block.cellIds[i], block.cellNumbers[i], block.capacity(i), block.occupied(i)));
+                }
+            }
+            int blockCapacity = block.capacity();
+            int blockOccupied = block.occupied();
+            blocks.add(new BlockOccupancy(block.blockId, block.code, block.name, block.securityLevel,
+                    blockCapacity, blockOccupied, rate(blockOccupied, blockCapacity), cells));
+            capacity += blockCapacity;
+            occupied += blockOccupied;
+        }
+        return new OccupancyResponse(capacity, occupied, rate(occupied, capacity), blocks);
+    }
+
+    private static BlockBeds newBlockBeds(CellBlock block) {
+        int rank = SECURITY_LEVELS.indexOf(block.getSecurityLevel());
+        // A block saved with an unknown level only takes detainees of the lowest one
+        return new BlockBeds(block.getId(), block.getCode(), block.getName(), block.getSecurityLevel(), Math.max(rank, 0));
+    }
+
+    private static int detaineeRank(String securityLevel) {
+        int rank = SECURITY_LEVELS.indexOf(securityLevel);
+        return rank >= 0 ? rank : SECURITY_LEVELS.size() - 1;
+    }
+
+    private static double rate(int occupied, int capacity) {
+        return capacity == 0 ? 0 : (double) occupied / capacity;
+    }
+
+    private static final class CellRef {
+        final long blockId;
+        final int index; // position of the cell in its BlockBeds
+
+        CellRef(long blockId, int index) {
+            this.blockId = blockId;
+            this.index = index;
+        }
+    }
+
+    // Immutable snapshot of the blocks, replaced as a whole on every layout change
+    private static final class Layout {
+        final Map<Long, BlockBeds> blocks;
+        final List<BlockBeds> ordered; // by security level, then code: allocation order
+        final Map<Long, CellRef> cells = new HashMap<>();
+
+        Layout(Map<Long, BlockBeds> blocks) {
+            this.blocks = blocks;
+            this.ordered = new ArrayList<>(blocks.values());
+            this.ordered.sort(Comparator.<BlockBeds>comparingInt(b -> b.securityRank).thenComparing(b -> b.code));
+            for (BlockBeds block : blocks.values()) {
+                for (int i = 0; i < block.cellIds.length; i++) {
+                    cells.put(block.cellIds[i], new CellRef(block.blockId, i));
+                }
+            }
+        }
+    }
+}
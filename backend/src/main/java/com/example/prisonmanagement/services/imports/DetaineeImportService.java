@@ -0,0 +1,403 @@
+package com.example.prisonmanagement.services.imports;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.models.FamilyContact;
+import com.example.prisonmanagement.payload.request.DetaineeRequest;
+import com.example.prisonmanagement.payload.response.ImportReportResponse;
+import com.example.prisonmanagement.payload.response.ImportReportResponse.RowError;
+import com.example.prisonmanagement.services.audit.AuditEntry;
+import com.example.prisonmanagement.services.audit.AuditLogService;
+import com.example.prisonmanagement.services.events.EventStreamService;
+import com.example.prisonmanagement.services.releases.ReleaseTimerService;
+import com.example.prisonmanagement.services.search.DetaineeSearchService;
+import com.example.prisonmanagement.services.stats.DashboardStatsService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Bulk intake of detainee files coming from other facilities.
+ *
+ * Rows are validated in parallel, then inserted with batched JDBC statements. Going through
+ * JdbcTemplate rather than the repository avoids the one-INSERT-per-row behaviour Hibernate has
+ * with IDENTITY ids; the generated ids are read back from the batch.
+ */
+@Service
+public class DetaineeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetaineeImportService.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final Table CORE = new Table("detenus", List.of(
+            new Column("last_name", DetaineeRequest::getLastName),
+            new Column("first_name", DetaineeRequest::getFirstName),
+            new Column("birth_date", DetaineeRequest::getBirthDate),
+            new Column("birth_place", DetaineeRequest::getBirthPlace),
+            new Column("detention_type", DetaineeRequest::getDetentionType),
+            new Column("arrival_date", DetaineeRequest::getArrivalDate),
+            new Column("photo_url", DetaineeRequest::getPhotoUrl),
+            new Column("nationality", DetaineeRequest::getNationality),
+            new Column("identification_number", DetaineeRequest::getIdentificationNumber),
+            new Column("expected_end_date", DetaineeRequest::getExpectedEndDate),
+            new Column("security_level", DetaineeRequest::getSecurityLevel),
+            new Column("release_date", DetaineeRequest::getReleaseDate),
+            new Column("status", r -> DetaineeStatus.PENDING_VALIDATION.name())));
+
+    // Detail sections, keyed by detainee_id; a row is only written when one of its columns is set
+    private static final List<Table> SECTIONS = List.of(
+            new Table("detenus_identite", List.of(
+                    new Column("address", DetaineeRequest::getAddress),
+                    Column.json("family_contacts_json", DetaineeRequest::getFamilyContactsJson))),
+            new Table("detenus_judiciaire", List.of(
+                    Column.text("offenses", DetaineeRequest::getOffenses),
+                    new Column("sentence", DetaineeRequest::getSentence),
+                    new Column("sentence_date", DetaineeRequest::getSentenceDate),
+                    new Column("court", DetaineeRequest::getCourt))),
+            new Table("detenus_medical", List.of(
+                    new Column("blood_type", DetaineeRequest::getBloodType),
+                    new Column("medical_status", DetaineeRequest::getMedicalStatus),
+                    Column.text("allergies", DetaineeRequest::getAllergies),
+                    Column.text("treatments", DetaineeRequest::getTreatments),
+                    Column.text("medical_history", DetaineeRequest::getMedicalHistory))),
+            new Table("detenus_biometrie", List.of(
+                    Column.text("distinctive_marks", DetaineeRequest::getDistinctiveMarks),
+                    Column.text("physical_peculiarities", DetaineeRequest::getPhysicalPeculiarities),
+                    new Column("fingerprints_url", DetaineeRequest::getFingerprintsUrl),
+                    new Column("facial_recognition_url", DetaineeRequest::getFacialRecognitionUrl))));
+
+    private static final List<Column> ALL_COLUMNS = Stream.concat(Stream.of(CORE), SECTIONS.stream())
+            .flatMap(table -> table.columns.stream())
+            .collect(Collectors.toList());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DetaineeSearchService detaineeSearchService;
+    private final DashboardStatsService dashboardStatsService;
+    private final AuditLogService auditLogService;
+    private final ReleaseTimerService releaseTimerService;
+    private final EventStreamService eventStreamService;
+
+    public DetaineeImportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                 DetaineeSearchService detaineeSearchService,
+                                 DashboardStatsService dashboardStatsService,
+                                 AuditLogService auditLogService,
+                                 ReleaseTimerService releaseTimerService,
+                                 EventStreamService eventStreamService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.detaineeSearchService = detaineeSearchService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.auditLogService = auditLogService;
+        this.releaseTimerService = releaseTimerService;
+        this.eventStreamService = eventStreamService;
+    }
+
+    @Transactional
+    public ImportReportResponse importFile(InputStream in, boolean csv) throws IOException {
+        long start = System.currentTimeMillis();
+        List<Map<String, Object>> rows = csv ? readCsv(in) : readJson(in);
+
+        // Conversion and validation are CPU-bound and independent per row
+        List<RowResult> results = IntStream.range(0, rows.size()).parallel()
+                .mapToObj(i -> validate(i + 1, rows.get(i)))
+                .collect(Collectors.toList());
+
+        List<DetaineeRequest> valid = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        for (RowResult result : results) {
+            if (result.error != null) {
+                errors.add(result.error);
+            } else {
+                valid.add(result.request);
+            }
+        }
+
+        List<Detainee> created = new ArrayList<>(valid.size());
+        for (int from = 0; from < valid.size(); from += BATCH_SIZE) {
+            created.addAll(insertBatch(valid.subList(from, Math.min(from + BATCH_SIZE, valid.size()))));
+        }
+        // Only expose the new rows to search and the dashboard once they are actually committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                created.forEach(detaineeSearchService::index);
+                created.forEach(dashboardStatsService::detaineeCreated);
+                created.forEach(releaseTimerService::detaineeChanged);
+                created.forEach(d -> auditLogService.record(AuditEntry.EntityType.DETAINEE, d.getId(), "IMPORTED",
+                        null, d.getStatus(), null));
+                eventStreamService.detaineesImported(created);
+            }
+        });
+
+        logger.info("Detainee import: {} rows, {} imported, {} rejected in {} ms",
+                rows.size(), valid.size(), errors.size(), System.currentTimeMillis() - start);
+        return new ImportReportResponse(rows.size(), valid.size(), errors);
+    }
+
+    private RowResult validate(int rowNumber, Map<String, Object> row) {
+        DetaineeRequest request;
+        try {
+            request = objectMapper.convertValue(row, DetaineeRequest.class);
+        } catch (IllegalArgumentException e) {
+            return RowResult.error(rowNumber, "Valeur invalide : " + e.getMessage());
+        }
+
+        List<String> missing = new ArrayList<>();
+        if (isBlank(request.getLastName())) missing.add("lastName");
+        if (isBlank(request.getFirstName())) missing.add("firstName");
+        if (request.getBirthDate() == null) missing.add("birthDate");
+        if (isBlank(request.getDetentionType())) missing.add("detentionType");
+        if (request.getArrivalDate() == null) missing.add("arrivalDate");
+        if (!missing.isEmpty()) {
+            return RowResult.error(rowNumber, "Champs obligatoires manquants : " + String.join(", ", missing));
+        }
+        List<FamilyContact> contacts;
+        try {
+            contacts = FamilyContact.parseList(request.getFamilyContactsJson());
+        } catch (IllegalArgumentException e) {
+            return RowResult.error(rowNumber, "Contacts familiaux invalides : tableau JSON attendu");
+        }
+        if (contacts != null && contacts.stream().anyMatch(c -> hasNul(c.getName()) || hasNul(c.getRelation()))) {
+            return RowResult.error(rowNumber, "Caractère nul interdit dans familyContactsJson");
+        }
+        // Stored normalized, exactly as createDetainee would store it
+        request.setFamilyContactsJson(FamilyContact.toJson(contacts));
+        // A single value the database refuses would abort the whole batch: reject its row here instead
+        for (Column column : ALL_COLUMNS) {
+            String problem = column.check(column.getter.apply(request));
+            if (problem != null) {
+                return RowResult.error(rowNumber, problem);
+            }
+        }
+        // Same rules as createDetainee: imported records always wait for admin validation (see CORE)
+        return new RowResult(request, null);
+    }
+
+    // Inserts the core rows, reads back their ids, then inserts the non-empty sections
+    private List<Detainee> insertBatch(List<DetaineeRequest> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(CORE.insertSql(false), new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        CORE.bind(ps, 1, batch.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != batch.size()) {
+            // Sections are keyed by these ids: without one per row they would land on the wrong detainee
+            throw new IllegalStateException("Import : " + keys.size() + " identifiants générés pour "
+                    + batch.size() + " lignes insérées");
+        }
+        List<Detainee> created = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Detainee detainee = batch.get(i).toDetainee();
+            detainee.setId(((Number) keys.get(i).get("id")).longValue());
+            created.add(detainee);
+        }
+
+        for (Table section : SECTIONS) {
+            List<Integer> rows = IntStream.range(0, created.size())
+                    .filter(i -> section.hasValues(batch.get(i)))
+                    .boxed()
+                    .collect(Collectors.toList());
+            if (rows.isEmpty()) {
+                continue;
+            }
+            jdbcTemplate.batchUpdate(section.insertSql(true), new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int row = rows.get(i);
+                    ps.setLong(1, created.get(row).getId());
+                    section.bind(ps, 2, batch.get(row));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            });
+        }
+        return created;
+    }
+
+    private List<Map<String, Object>> readJson(InputStream in) throws IOException {
+        return objectMapper.readValue(in, new TypeReference<List<Map<String, Object>>>() {
+        });
+    }
+
+    private List<Map<String, Object>> readCsv(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        if (header == null) {
+            return rows;
+        }
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue; // blank line
+            }
+            Map<String, Object> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) {
+                    row.put(header.get(i).trim(), value);
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // PostgreSQL refuses the NUL character in text and jsonb values
+    private static boolean hasNul(String value) {
+        return value != null && value.indexOf('\0') >= 0;
+    }
+
+    private static final class Column {
+        // Length of the varchar columns Hibernate creates for unannotated String fields
+        static final int VARCHAR_LENGTH = 255;
+
+        final String name;
+        final Function<DetaineeRequest, Object> getter;
+        final boolean json;
+        final int maxLength;
+
+        Column(String name, Function<DetaineeRequest, Object> getter) {
+            this(name, getter, false, VARCHAR_LENGTH);
+        }
+
+        private Column(String name, Function<DetaineeRequest, Object> getter, boolean json, int maxLength) {
+            this.name = name;
+            this.getter = getter;
+            this.json = json;
+            this.maxLength = maxLength;
+        }
+
+        // TEXT column: no length limit
+        static Column text(String name, Function<DetaineeRequest, Object> getter) {
+            return new Column(name, getter, false, Integer.MAX_VALUE);
+        }
+
+        // jsonb column: the JSON text is sent untyped so PostgreSQL parses it as jsonb
+        static Column json(String name, Function<DetaineeRequest, Object> getter) {
+            return new Column(name, getter, true, Integer.MAX_VALUE);
+        }
+
+        // Why the database would refuse this value, or null if it fits the column
+        String check(Object value) {
+            if (value instanceof String) {
+                String text = (String) value;
+                if (hasNul(text)) {
+                    return "Caractère nul interdit dans " + field();
+                }
+                if (text.codePointCount(0, text.length()) > maxLength) {
+                    return "Valeur trop longue pour " + field() + " (" + maxLength + " caractères au plus)";
+                }
+            } else if (value instanceof LocalDate) {
+                int year = ((LocalDate) value).getYear();
+                if (year < 1 || year > 9999) {
+                    return "Date hors limites pour " + field();
+                }
+            }
+            return null;
+        }
+
+        // Name of the request field, as in the import file header
+        String field() {
+            StringBuilder field = new StringBuilder();
+            for (String part : name.split("_")) {
+                field.append(field.length() == 0 ? part : Character.toUpperCase(part.charAt(0)) + part.substring(1));
+            }
+            return field.toString();
+        }
+    }
+
+    private static final class Table {
+        final String name;
+        final List<Column> columns;
+
+        Table(String name, List<Column> columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+
+        String insertSql(boolean withDetaineeId) {
+            String names = columns.stream().map(c -> c.name).collect(Collectors.joining(", "));
+            String params = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+            return withDetaineeId
+                    ? "INSERT INTO " + name + " (detainee_id, " + names + ") VALUES (?, " + params + ")"
+                    : "INSERT INTO " + name + " (" + names + ") VALUES (" + params + ")";
+        }
+
+        void bind(PreparedStatement ps, int firstIndex, DetaineeRequest request) throws SQLException {
+            for (int c = 0; c < columns.size(); c++) {
+                Column column = columns.get(c);
+                if (column.json) {
+                    ps.setObject(firstIndex + c, column.getter.apply(request), Types.OTHER);
+                } else {
+                    ps.setObject(firstIndex + c, column.getter.apply(request));
+                }
+            }
+        }
+
+        boolean hasValues(DetaineeRequest request) {
+            return columns.stream().anyMatch(c -> c.getter.apply(request) != null);
+        }
+    }
+
+    private static final class RowResult {
+        final DetaineeRequest request;
+        final RowError error;
+
+        RowResult(DetaineeRequest request, RowError error) {
+            this.request = request;
+            this.error = error;
+        }
+
+        static RowResult error(int row, String message) {
+            return new RowResult(null, new RowError(row, message));
+        }
+    }
+}
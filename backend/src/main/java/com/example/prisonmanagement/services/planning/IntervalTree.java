@@ -0,0 +1,205 @@
+package com.example.prisonmanagement.services.planning;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Booked slots of one resource (a detainee, a destination, an escort team) as half-open
+ * [start, end) intervals in epoch seconds.
+ *
+ * AVL tree ordered by start (then booking key) where every node also carries the largest end of
+ * its subtree: a subtree whose largest end is before the probed start cannot overlap it, and
+ * neither can anything right of a node that starts after the probed end, so finding a conflict
+ * visits O(log n) nodes. Not thread-safe: SchedulingService guards every tree with the lock of
+ * its resource.
+ */
+final class IntervalTree {
+
+    static final class Slot {
+        final String key; // booking key, e.g. "T:42" for transfer 42
+        final long start;
+        final long end;
+
+        Slot(String key, long start, long end) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Node {
+        Slot slot;
+        Node left;
+        Node right;
+        int height = 1;
+        long maxEnd;
+
+        Node(Slot slot) {
+            this.slot = slot;
+            this.maxEnd = slot.end;
+        }
+    }
+
+    private Node root;
+    // Booking key -> slot, to remove a booking without knowing its times
+    private final Map<String, Slot> byKey = new HashMap<>();
+
+    int size() {
+        return byKey.size();
+    }
+
+    boolean isEmpty() {
+        return byKey.isEmpty();
+    }
+
+    // Height of the tree, for the balance checks of the tests
+    int height() {
+        return height(root);
+    }
+
+    void insert(Slot slot) {
+        remove(slot.key);
+        root = insert(root, slot);
+        byKey.put(slot.key, slot);
+    }
+
+    boolean remove(String key) {
+        Slot slot = byKey.remove(key);
+        if (slot == null) {
+            return false;
+        }
+        root = delete(root, slot);
+        return true;
+    }
+
+    // A slot overlapping [start, end) other than the one booked under ignoredKey, or null
+    Slot findOverlap(long start, long end, String ignoredKey) {
+        return findOverlap(root, start, end, ignoredKey);
+    }
+
+    // Keys of the slots ending at or before the given time (linear; used by the daily purge only)
+    List<String> keysEndingBefore(long time) {
+        List<String> keys = new ArrayList<>();
+        for (Slot slot : byKey.values()) {
+            if (slot.end <= time) {
+                keys.add(slot.key);
+            }
+        }
+        return keys;
+    }
+
+    private static Slot findOverlap(Node node, long start, long end, String ignoredKey) {
+        if (node == null || node.maxEnd <= start) {
+            return null;
+        }
+        Slot found = findOverlap(node.left, start, end, ignoredKey);
+        if (found != null) {
+            return found;
+        }
+        if (node.slot.start >= end) {
+            return null; // this node and its right subtree start after the probed interval
+        }
+        if (node.slot.end > start && !node.slot.key.equals(ignoredKey)) {
+            return node.slot;
+        }
+        return findOverlap(node.right, start, end, ignoredKey);
+    }
+
+    private static int compare(Slot a, Slot b) {
+        int byStart = Long.compare(a.start, b.start);
+        return byStart != 0 ? byStart : a.key.compareTo(b.key);
+    }
+
+    private static Node insert(Node node, Slot slot) {
+        if (node == null) {
+            return new Node(slot);
+        }
+        if (compare(slot, node.slot) < 0) {
+            node.left = insert(node.left, slot);
+        } else {
+            node.right = insert(node.right, slot);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, Slot slot) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(slot, node.slot);
+        if (cmp < 0) {
+            node.left = delete(node.left, slot);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, slot);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Two children: take the successor's slot, then delete the successor
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.slot = successor.slot;
+            node.right = delete(node.right, successor.slot);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.slot.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.prisonmanagement.services.planning;
+
+// A booking would overlap another one on the same detainee, destination or escort team
+public class ScheduleConflictException extends RuntimeException {
+
+    public ScheduleConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.prisonmanagement.services.planning;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.Planning;
+import com.example.prisonmanagement.models.ScheduleStatus;
+import com.example.prisonmanagement.models.Transfer;
+import com.example.prisonmanagement.payload.request.PlanningRequest;
+import com.example.prisonmanagement.payload.request.TransferRequest;
+import com.example.prisonmanagement.payload.response.AgendaItemResponse;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.PlanningRepository;
+import com.example.prisonmanagement.repositories.TransferRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Books transfers and planning entries without double-booking a detainee, a destination (or
+ * planning location) or an escort team.
+ *
+ * Every such resource has an IntervalTree of the slots booked on it, so checking a new booking
+ * costs O(log n) per resource whatever the volume. The trees hold the bookings that are not
+ * cancelled and ended less than prison.app.planningHorizonDays ago; they are rebuilt from the
+ * database at startup and purged nightly. Check, insert and tree update happen under the locks of
+ * the resources the booking involves, taken in key order so two bookings never wait on each other
+ * in a cycle: bookings on unrelated resources save in parallel. Rebuild and purge take the write
+ * side of treesLock to have every tree to themselves.
+ */
+@Service
+public class SchedulingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingService.class);
+
+    // Bookings never last longer than this, which bounds the agenda range scans on start_time
+    static final Duration MAX_DURATION = Duration.ofDays(7);
+    private static final Duration DEFAULT_DURATION = Duration.ofHours(1);
+    private static final Duration MAX_AGENDA_RANGE = Duration.ofDays(31);
+    private static final String TRANSFER_KEY = "T:";
+    private static final String PLANNING_KEY = "P:";
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final TransferRepository transferRepository;
+    private final PlanningRepository planningRepository;
+    private final DetaineeRepository detaineeRepository;
+    private final Duration horizon;
+
+    // Read side for bookings (each also holding its resource locks), write side for rebuild and purge.
+    // Locks rather than monitors: the repository saves inside would pin a virtual thread
+    private final ReadWriteLock treesLock = new ReentrantReadWriteLock();
+    // Resource key -> lock guarding its tree; entries of emptied trees are dropped by the purge
+    private final Map<String, ReentrantLock> resourceLocks = new ConcurrentHashMap<>();
+    // Resource key (e.g. "escort:equipe a") -> slots booked on it
+    private final Map<String, IntervalTree> trees = new ConcurrentHashMap<>();
+
+    public SchedulingService(TransferRepository transferRepository,
+                             PlanningRepository planningRepository,
+                             DetaineeRepository detaineeRepository,
+                             @Value("${prison.app.planningHorizonDays:30}") int horizonDays) {
+        this.transferRepository = transferRepository;
+        this.planningRepository = planningRepository;
+        this.detaineeRepository = detaineeRepository;
+        this.horizon = Duration.ofDays(horizonDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    // Reloads every tree from the database; returns the number of bookings loaded
+    public int rebuild() {
+        treesLock.writeLock().lock();
+        try {
+            trees.clear();
+            LocalDateTime cutoff = cutoff();
+            int count = 0;
+            for (Object[] row : transferRepository.findSlots(ScheduleStatus.CANCELLED, cutoff)) {
+                book(TRANSFER_KEY + row[0], row);
+                count++;
+            }
+            for (Object[] row : planningRepository.findSlots(ScheduleStatus.CANCELLED, cutoff)) {
+                book(PLANNING_KEY + row[0], row);
+                count++;
+            }
+            logger.info("Scheduler loaded {} bookings on {} resources", count, trees.size());
+            return count;
+        } finally {
+            treesLock.writeLock().unlock();
+        }
+    }
+
+    public Transfer createTransfer(TransferRequest request) {
+        require(request.getType(), "le type de transfert");
+        require(request.getDestination(), "la destination");
+        Detainee detainee = findDetainee(request.getDetaineeId());
+        LocalDateTime start = request.getStartTime();
+        LocalDateTime end = endOf(start, request.getEndTime());
+
+        Transfer transfer = new Transfer(null, detainee, request.getType(), request.getOrigin(),
+                request.getDestination(), request.getReason(), request.getEscortTeam(), start, end,
+                ScheduleStatus.PLANNED);
+        List<Resource> resources = resources(detainee.getId(), transfer.getDestination(), transfer.getEscortTeam());
+        return withResources(resources, () -> {
+            checkFree(resources, start, end, null);
+            transferRepository.save(transfer);
+            book(resources, TRANSFER_KEY + transfer.getId(), start, end);
+            return transfer;
+        });
+    }
+
+    public Planning createPlanning(PlanningRequest request) {
+        require(request.getType(), "le type de rendez-vous");
+        Detainee detainee = findDetainee(request.getDetaineeId());
+        LocalDateTime start = request.getStartTime();
+        LocalDateTime end = endOf(start, request.getEndTime());
+
+        Planning planning = new Planning(null, detainee, request.getType(), request.getLocation(),
+                request.getVisitor(), request.getEscortTeam(), request.getNotes(), start, end,
+                ScheduleStatus.PLANNED);
+        List<Resource> resources = resources(detainee.getId(), planning.getLocation(), planning.getEscortTeam());
+        return withResources(resources, () -> {
+            checkFree(resources, start, end, null);
+            planningRepository.save(planning);
+            book(resources, PLANNING_KEY + planning.getId(), start, end);
+            return planning;
+        });
+    }
+
+    // Cancelling frees the slot; reinstating a cancelled booking checks it again. Empty if not found.
+    // A status change leaves the resources as they are, so the first read tells which locks to take;
+    // the booking is read again under them to see the status a concurrent change may have set
+    public Optional<Transfer> updateTransferStatus(Long id, ScheduleStatus status) {
+        Optional<Transfer> found = transferRepository.findWithDetaineeById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        List<Resource> resources = resources(found.get().getDetainee().getId(), found.get().getDestination(),
+                found.get().getEscortTeam());
+        return withResources(resources, () -> {
+            Optional<Transfer> current = transferRepository.findWithDetaineeById(id);
+            current.ifPresent(transfer -> {
+                ScheduleStatus previous = transfer.getStatus();
+                transfer.setStatus(status);
+                changeStatus(resources, TRANSFER_KEY + id, transfer.getStartTime(), transfer.getEndTime(), previous, status,
+                        () -> transferRepository.save(transfer));
+            });
+            return current;
+        });
+    }
+
+    public Optional<Planning> updatePlanningStatus(Long id, ScheduleStatus status) {
+        Optional<Planning> found = planningRepository.findWithDetaineeById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        List<Resource> resources = resources(found.get().getDetainee().getId(), found.get().getLocation(),
+                found.get().getEscortTeam());
+        return withResources(resources, () -> {
+            Optional<Planning> current = planningRepository.findWithDetaineeById(id);
+            current.ifPresent(planning -> {
+                ScheduleStatus previous = planning.getStatus();
+                planning.setStatus(status);
+                changeStatus(resources, PLANNING_KEY + id, planning.getStartTime(), planning.getEndTime(), previous, status,
+                        () -> planningRepository.save(planning));
+            });
+            return current;
+        });
+    }
+
+    // Transfers and planning entries overlapping [from, to), by start time
+    public List<AgendaItemResponse> agenda(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("Erreur : La période demandée est invalide.");
+        }
+        if (Duration.between(from, to).compareTo(MAX_AGENDA_RANGE) > 0) {
+            throw new IllegalArgumentException("Erreur : L'agenda couvre au plus " + MAX_AGENDA_RANGE.toDays() + " jours.");
+        }
+        LocalDateTime earliestStart = from.minus(MAX_DURATION);
+        List<AgendaItemResponse> items = new ArrayList<>();
+        transferRepository.findOverlapping(from, to, earliestStart).forEach(t -> items.add(AgendaItemResponse.of(t)));
+        planningRepository.findOverlapping(from, to, earliestStart).forEach(p -> items.add(AgendaItemResponse.of(p)));
+        items.sort(Comparator.comparing(AgendaItemResponse::getStartTime));
+        return items;
+    }
+
+    public List<AgendaItemResponse> transfersOf(Long detaineeId) {
+        List<AgendaItemResponse> items = new ArrayList<>();
+        transferRepository.findByDetaineeId(detaineeId).forEach(t -> items.add(AgendaItemResponse.of(t)));
+        return items;
+    }
+
+    // Past bookings can no longer conflict with new ones: drop them from the trees every night
+    @Scheduled(cron = "0 15 3 * * *")
+    public void purgeExpired() {
+        long cutoff = seconds(cutoff());
+        int removed = 0;
+        treesLock.writeLock().lock();
+        try {
+            Iterator<IntervalTree> iterator = trees.values().iterator();
+            while (iterator.hasNext()) {
+                IntervalTree tree = iterator.next();
+                for (String key : tree.keysEndingBefore(cutoff)) {
+                    tree.remove(key);
+                    removed++;
+                }
+                if (tree.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            // No booking holds a resource lock while the write side is held
+            resourceLocks.keySet().retainAll(trees.keySet());
+        } finally {
+            treesLock.writeLock().unlock();
+        }
+        logger.info("Scheduler purged {} expired slots", removed);
+    }
+
+    // Runs the action holding the locks of the given resources, taken in key order
+    private <T> T withResources(List<Resource> resources, Supplier<T> action) {
+        List<String> keys = new ArrayList<>(resources.size());
+        for (Resource resource : resources) {
+            keys.add(resource.key);
+        }
+        keys.sort(null);
+        List<ReentrantLock> held = new ArrayList<>(keys.size());
+        treesLock.readLock().lock();
+        try {
+            for (String key : keys) {
+                ReentrantLock resourceLock = resourceLocks.computeIfAbsent(key, k -> new ReentrantLock());
+                resourceLock.lock();
+                held.add(resourceLock);
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+            treesLock.readLock().unlock();
+        }
+    }
+
+    // Checks a reinstated slot before saving, and updates the trees only once the row is saved
+    private void changeStatus(List<Resource> resources, String key, LocalDateTime start, LocalDateTime end,
+                              ScheduleStatus previous, ScheduleStatus next, Runnable save) {
+        boolean reinstated = previous == ScheduleStatus.CANCELLED && next != ScheduleStatus.CANCELLED
+                && end.isAfter(cutoff());
+        if (reinstated) {
+            checkFree(resources, start, end, key);
+        }
+        save.run();
+        if (next == ScheduleStatus.CANCELLED) {
+            unbook(resources, key);
+        } else if (reinstated) {
+            book(resources, key, start, end);
+        }
+    }
+
+    private void checkFree(List<Resource> resources, LocalDateTime start, LocalDateTime end, String ignoredKey) {
+        long from = seconds(start);
+        long to = seconds(end);
+        for (Resource resource : resources) {
+            IntervalTree tree = trees.get(resource.key);
+            IntervalTree.Slot conflict = tree == null ? null : tree.findOverlap(from, to, ignoredKey);
+            if (conflict != null) {
+                throw new ScheduleConflictException("Erreur : Conflit d'horaire, " + resource.busy + " du "
+                        + DISPLAY.format(time(conflict.start)) + " au " + DISPLAY.format(time(conflict.end))
+                        + " (" + describe(conflict.key) + ").");
+            }
+        }
+    }
+
+    private void book(List<Resource> resources, String key, LocalDateTime start, LocalDateTime end) {
+        IntervalTree.Slot slot = new IntervalTree.Slot(key, seconds(start), seconds(end));
+        for (Resource resource : resources) {
+            trees.computeIfAbsent(resource.key, k -> new IntervalTree()).insert(slot);
+        }
+    }
+
+    // Row of findSlots: [id, detaineeId, destination, escortTeam, startTime, endTime]
+    private void book(String key, Object[] row) {
+        book(resources((Long) row[1], (String) row[2], (String) row[3]), key,
+                (LocalDateTime) row[4], (LocalDateTime) row[5]);
+    }
+
+    private void unbook(List<Resource> resources, String key) {
+        for (Resource resource : resources) {
+            IntervalTree tree = trees.get(resource.key);
+            if (tree != null && tree.remove(key) && tree.isEmpty()) {
+                trees.remove(resource.key);
+            }
+        }
+    }
+
+    private Detainee findDetainee(Long detaineeId) {
+        if (detaineeId == null) {
+            throw new IllegalArgumentException("Erreur : Le détenu est obligatoire.");
+        }
+        return detaineeRepository.findById(detaineeId)
+                .orElseThrow(() -> new IllegalArgumentException("Erreur : Détenu introuvable."));
+    }
+
+    private LocalDateTime endOf(LocalDateTime start, LocalDateTime requestedEnd) {
+        if (start == null) {
+            throw new IllegalArgumentException("Erreur : L'heure de début est obligatoire.");
+        }
+        LocalDateTime end = requestedEnd != null ? requestedEnd : start.plus(DEFAULT_DURATION);
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("Erreur : L'heure de fin doit suivre l'heure de début.");
+        }
+        if (Duration.between(start, end).compareTo(MAX_DURATION) > 0) {
+            throw new IllegalArgumentException("Erreur : Un créneau dure au plus " + MAX_DURATION.toDays() + " jours.");
+        }
+        if (!end.isAfter(cutoff())) {
+            throw new IllegalArgumentException("Erreur : Ce créneau est terminé depuis plus de "
+                    + horizon.toDays() + " jours.");
+        }
+        return end;
+    }
+
+    private static void require(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Erreur : " + capitalize(field) + " est obligatoire.");
+        }
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static List<Resource> resources(Long detaineeId, String destination, String escortTeam) {
+        List<Resource> resources = new ArrayList<>(3);
+        resources.add(new Resource("detainee:" + detaineeId, "le détenu est déjà planifié"));
+        if (destination != null && !destination.isBlank()) {
+            resources.add(new Resource("destination:" + normalize(destination),
+                    "la destination « " + destination.trim().replaceAll("\\s+", " ") + " » est déjà réservée"));
+        }
+        if (escortTeam != null && !escortTeam.isBlank()) {
+            resources.add(new Resource("escort:" + normalize(escortTeam),
+                    "l'équipe d'escorte « " + escortTeam.trim().replaceAll("\\s+", " ") + " » est déjà engagée"));
+        }
+        return resources;
+    }
+
+    // "Hôpital  Central " and "hôpital central" are the same destination
+    private static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String describe(String key) {
+        String id = key.substring(2);
+        return key.startsWith(TRANSFER_KEY) ? "transfert n°" + id : "rendez-vous n°" + id;
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(horizon);
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime time(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static final class Resource {
+        final String key;
+        final String busy; // message fragment when the resource is already booked
+
+        Resource(String key, String busy) {
+            this.key = key;
+            this.busy = busy;
+        }
+    }
+}
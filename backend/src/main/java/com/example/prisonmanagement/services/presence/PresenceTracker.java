@@ -0,0 +1,135 @@
+package com.example.prisonmanagement.services.presence;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Who has been active recently, fed by the JWT filter on every authenticated request.
+ *
+ * Activity is recorded in a timing wheel of one-minute buckets: a bucket is lazily replaced when
+ * its minute comes round again, which gives sliding expiry without any sweeper thread. The common
+ * case (user already marked in the current minute) is a couple of volatile reads and no write.
+ */
+@Component
+public class PresenceTracker {
+
+    public static final int WHEEL_MINUTES = 60;
+    private static final long MINUTE_MS = 60_000L;
+
+    private final AtomicReferenceArray<Bucket> wheel = new AtomicReferenceArray<>(WHEEL_MINUTES);
+    private final ConcurrentHashMap<Long, Presence> presences = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public PresenceTracker() {
+        this(System::currentTimeMillis);
+    }
+
+    // Tests drive the wheel with a fake clock
+    PresenceTracker(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void touch(Long userId, String username) {
+        long now = clock.getAsLong();
+        long minute = now / MINUTE_MS;
+
+        Presence presence = presences.get(userId);
+        if (presence == null) {
+            presence = presences.computeIfAbsent(userId, id -> new Presence(id, username));
+        }
+        if (presence.lastMinute == minute) {
+            return; // already counted in this bucket
+        }
+        presence.lastMinute = minute;
+        presence.lastSeenMillis = now;
+        bucketFor(minute).users.add(userId);
+    }
+
+    // Users seen within the last `minutes` minutes (current minute included), most recent first
+    public List<Presence> activeWithin(int minutes) {
+        long current = clock.getAsLong() / MINUTE_MS;
+        int span = Math.max(1, Math.min(minutes, WHEEL_MINUTES));
+        Set<Long> ids = new HashSet<>();
+        for (long minute = current - span + 1; minute <= current; minute++) {
+            Bucket bucket = wheel.get(slot(minute));
+            if (bucket != null && bucket.minute == minute) {
+                ids.addAll(bucket.users);
+            }
+        }
+        List<Presence> active = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Presence presence = presences.get(id);
+            if (presence != null) {
+                active.add(presence);
+            }
+        }
+        active.sort((a, b) -> Long.compare(b.lastSeenMillis, a.lastSeenMillis));
+        return active;
+    }
+
+    // Forget users that fell off the wheel so the map does not grow with every account ever seen
+    @Scheduled(fixedDelay = 10 * MINUTE_MS)
+    public void purge() {
+        long oldest = clock.getAsLong() / MINUTE_MS - WHEEL_MINUTES;
+        presences.values().removeIf(p -> p.lastMinute < oldest);
+    }
+
+    private Bucket bucketFor(long minute) {
+        int slot = slot(minute);
+        while (true) {
+            Bucket bucket = wheel.get(slot);
+            if (bucket != null && bucket.minute == minute) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(minute);
+            if (wheel.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static int slot(long minute) {
+        return (int) (minute % WHEEL_MINUTES);
+    }
+
+    private static final class Bucket {
+        final long minute;
+        final Set<Long> users = ConcurrentHashMap.newKeySet();
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    public static final class Presence {
+        private final Long userId;
+        private final String username;
+        private volatile long lastMinute = -1;
+        private volatile long lastSeenMillis;
+
+        Presence(Long userId, String username) {
+            this.userId = userId;
+            this.username = username;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public long getLastSeenMillis() {
+            return lastSeenMillis;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.prisonmanagement.services.releases;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.payload.response.UpcomingReleaseResponse;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.services.events.EventStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Upcoming releases and their alerts, kept in memory.
+ *
+ * Every detainee with an expected end date and no release date yet sits in a calendar (expected
+ * end date -> detainees) and in a timer queue keyed by the day its next alert is due:
+ * prison.app.releaseAlertDays before the date (30, 7 and 1 by default), then the day after it,
+ * when the detention becomes overdue. Both are loaded once at startup from an indexed query and
+ * kept up to date by every detainee write; the hourly tick only pops the timers that are due, so
+ * nothing ever rescans detenus. A missed tick (downtime, clock change) is caught up by the next
+ * one: an alert can be late, never lost, and only the most urgent one is sent.
+ */
+@Service
+public class ReleaseTimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReleaseTimerService.class);
+
+    private final DetaineeRepository detaineeRepository;
+    private final EventStreamService eventStreamService;
+    // Alert days relative to the expected end date, ascending, e.g. -30, -7, -1, +1 (overdue)
+    private final int[] offsets;
+    private final Supplier<LocalDate> clock;
+
+    private final Object lock = new Object();
+    private final Map<Long, Deadline> deadlines = new HashMap<>();
+    private final TreeMap<LocalDate, Set<Long>> calendar = new TreeMap<>();
+    private final TreeMap<LocalDate, Set<Long>> timers = new TreeMap<>();
+
+    @Autowired
+    public ReleaseTimerService(DetaineeRepository detaineeRepository,
+                               EventStreamService eventStreamService,
+                               @Value("${prison.app.releaseAlertDays:30,7,1}") int[] alertDays) {
+        this(detaineeRepository, eventStreamService, alertDays, LocalDate::now);
+    }
+
+    // Tests drive the timers with a fake calendar
+    ReleaseTimerService(DetaineeRepository detaineeRepository, EventStreamService eventStreamService,
+                        int[] alertDays, Supplier<LocalDate> clock) {
+        this.detaineeRepository = detaineeRepository;
+        this.eventStreamService = eventStreamService;
+        this.clock = clock;
+        this.offsets = IntStream.concat(Arrays.stream(alertDays).map(days -> -Math.abs(days)), IntStream.of(1))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        load();
+    }
+
+    // Reloads every pending release from the database; returns how many there are
+    public int load() {
+        List<Object[]> rows = detaineeRepository.findPendingReleases(DetaineeStatus.REJECTED);
+        LocalDate today = clock.get();
+        List<UpcomingReleaseResponse> fired = new ArrayList<>();
+        int overdue = 0;
+        synchronized (lock) {
+            deadlines.clear();
+            calendar.clear();
+            timers.clear();
+            for (Object[] row : rows) {
+                Deadline deadline = new Deadline((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                        (LocalDate) row[4]);
+                add(deadline, today, fired);
+                if (deadline.date.isBefore(today)) {
+                    overdue++;
+                }
+            }
+        }
+        publish(fired);
+        logger.info("Release timers loaded: {} pending releases, {} overdue", rows.size(), overdue);
+        return rows.size();
+    }
+
+    // Call after any write to a detainee row (creation, import, status change, release)
+    public void detaineeChanged(Detainee detainee) {
+        List<UpcomingReleaseResponse> fired = new ArrayList<>();
+        synchronized (lock) {
+            Deadline current = deadlines.get(detainee.getId());
+            boolean pending = detainee.getExpectedEndDate() != null && detainee.getReleaseDate() == null
+                    && detainee.getStatus() != DetaineeStatus.REJECTED;
+            if (current != null && pending && current.date.equals(detainee.getExpectedEndDate())) {
+                current.lastName = detainee.getLastName();
+                current.firstName = detainee.getFirstName();
+                current.securityLevel = detainee.getSecurityLevel();
+                return; // same deadline: alerts already sent stay sent
+            }
+            if (current != null) {
+                remove(current);
+            }
+            if (pending) {
+                add(new Deadline(detainee.getId(), detainee.getLastName(), detainee.getFirstName(),
+                        detainee.getSecurityLevel(), detainee.getExpectedEndDate()), clock.get(), fired);
+            }
+        }
+        publish(fired);
+    }
+
+    // Pending releases expected within the given number of days, overdue ones first, by date
+    public List<UpcomingReleaseResponse> upcoming(int withinDays) {
+        LocalDate today = clock.get();
+        List<UpcomingReleaseResponse> releases = new ArrayList<>();
+        synchronized (lock) {
+            for (Set<Long> ids : calendar.headMap(today.plusDays(withinDays), true).values()) {
+                for (Long id : ids) {
+                    releases.add(deadlines.get(id).toResponse(today));
+                }
+            }
+        }
+        return releases;
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void tick() {
+        LocalDate today = clock.get();
+        List<UpcomingReleaseResponse> fired = new ArrayList<>();
+        synchronized (lock) {
+            while (!timers.isEmpty() && !timers.firstKey().isAfter(today)) {
+                for (Long id : timers.pollFirstEntry().getValue()) {
+                    Deadline deadline = deadlines.get(id);
+                    deadline.nextAlert = null;
+                    arm(deadline, today, fired);
+                }
+            }
+        }
+        if (!fired.isEmpty()) {
+            logger.info("Release alerts sent: {}", fired.size());
+        }
+        publish(fired);
+    }
+
+    private void add(Deadline deadline, LocalDate today, List<UpcomingReleaseResponse> fired) {
+        deadlines.put(deadline.id, deadline);
+        calendar.computeIfAbsent(deadline.date, d -> new LinkedHashSet<>()).add(deadline.id);
+        arm(deadline, today, fired);
+    }
+
+    private void remove(Deadline deadline) {
+        deadlines.remove(deadline.id);
+        removeFrom(calendar, deadline.date, deadline.id);
+        if (deadline.nextAlert != null) {
+            removeFrom(timers, deadline.nextAlert, deadline.id);
+        }
+    }
+
+    // Sends the most urgent alert reached by today if not sent yet, then sets the timer of the next one
+    private void arm(Deadline deadline, LocalDate today, List<UpcomingReleaseResponse> fired) {
+        int reached = 0;
+        while (reached < offsets.length && !deadline.date.plusDays(offsets[reached]).isAfter(today)) {
+            reached++;
+        }
+        if (reached > deadline.alertsReached) {
+            deadline.alertsReached = reached;
+            fired.add(deadline.toResponse(today));
+        }
+        if (reached < offsets.length) {
+            deadline.nextAlert = deadline.date.plusDays(offsets[reached]);
+            timers.computeIfAbsent(deadline.nextAlert, d -> new LinkedHashSet<>()).add(deadline.id);
+        }
+    }
+
+    private void publish(List<UpcomingReleaseResponse> fired) {
+        for (UpcomingReleaseResponse release : fired) {
+            logger.debug("Release alert for detainee {}: {} days left", release.getDetaineeId(), release.getDaysLeft());
+            eventStreamService.releaseDue(release);
+        }
+    }
+
+    private static void removeFrom(TreeMap<LocalDate, Set<Long>> map, LocalDate date, Long id) {
+        Set<Long> ids = map.get(date);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            map.remove(date);
+        }
+    }
+
+    private static final class Deadline {
+        final Long id;
+        String lastName;
+        String firstName;
+        String securityLevel;
+        final LocalDate date; // expected end date
+        int alertsReached; // how many of the offsets have passed (and been alerted)
+        LocalDate nextAlert; // key in timers, null when every alert has been sent
+
+        Deadline(Long id, String lastName, String firstName, String securityLevel, LocalDate date) {
+            this.id = id;
+            this.lastName = lastName;
+            this.firstName = firstName;
+            this.securityLevel = securityLevel;
+            this.date = date;
+        }
+
+        UpcomingReleaseResponse toResponse(LocalDate today) {
+            long daysLeft = ChronoUnit.DAYS.between(today, date);
+            return new UpcomingReleaseResponse(id, lastName, firstName, securityLevel, date, daysLeft, daysLeft < 0);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.prisonmanagement.services.search;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.payload.response.DetaineeSearchHit;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.projections.DetaineeSearchFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over the searchable identity fields of detainees
+ * (last name, first name, ID number, nationality, birth place).
+ *
+ * Indexed tokens are padded as "$$token$", query tokens only as "$$token", so a query that is a
+ * prefix of a token matches all of its trigrams, and a query with a typo still shares most of them.
+ * Candidates are scored by the fraction of query trigrams they contain.
+ */
+@Service
+public class DetaineeSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetaineeSearchService.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    // Minimum fraction of query trigrams a detainee must contain to be returned
+    private static final double MIN_SCORE = 0.5;
+    private static final int MAX_LIMIT = 100;
+
+    private final DetaineeRepository detaineeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedDetainee> documents = new HashMap<>();
+    // Documents indexed while a rebuild is reading the table, replayed over its snapshot; null otherwise
+    private Map<Long, IndexedDetainee> indexedDuringRebuild;
+
+    public DetaineeSearchService(DetaineeRepository detaineeRepository) {
+        this.detaineeRepository = detaineeRepository;
+    }
+
+    // The table is read without holding the lock so searches keep working meanwhile; saves made
+    // during the read are recorded by index() and applied again on top of the fresh snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            indexedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<DetaineeSearchFields> rows = null;
+        try {
+            rows = detaineeRepository.findAllSearchFields();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rows != null) {
+                    postings.clear();
+                    documents.clear();
+                    for (DetaineeSearchFields row : rows) {
+                        add(new IndexedDetainee(row.getId(), row.getLastName(), row.getFirstName(),
+                                row.getIdentificationNumber(), row.getNationality(), row.getBirthPlace(),
+                                row.getStatus()));
+                    }
+                    for (IndexedDetainee doc : indexedDuringRebuild.values()) {
+                        remove(doc.id);
+                        add(doc);
+                    }
+                }
+                indexedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info("Detainee search index built: {} detainees, {} trigrams in {} ms",
+                rows.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    // Called after every save so the index never lags behind the table
+    public void index(Detainee detainee) {
+        if (detainee == null || detainee.getId() == null) {
+            return;
+        }
+        IndexedDetainee doc = new IndexedDetainee(detainee.getId(), detainee.getLastName(), detainee.getFirstName(),
+                detainee.getIdentificationNumber(), detainee.getNationality(), detainee.getBirthPlace(),
+                detainee.getStatus());
+        lock.writeLock().lock();
+        try {
+            remove(detainee.getId());
+            add(doc);
+            if (indexedDuringRebuild != null) {
+                indexedDuringRebuild.put(doc.id, doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<DetaineeSearchHit> search(String query, int limit) {
+        Set<String> queryGrams = new HashSet<>();
+        for (String token : tokenize(query)) {
+            addTrigrams("$$" + token, queryGrams);
+        }
+        if (queryGrams.isEmpty()) {
+            return List.of();
+        }
+
+        List<DetaineeSearchHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> matches = new HashMap<>();
+            for (String gram : queryGrams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    for (Long id : ids) {
+                        matches.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+            for (Map.Entry<Long, Integer> entry : matches.entrySet()) {
+                double score = (double) entry.getValue() / queryGrams.size();
+                if (score >= MIN_SCORE) {
+                    IndexedDetainee doc = documents.get(entry.getKey());
+                    hits.add(new DetaineeSearchHit(doc.id, doc.lastName, doc.firstName,
+                            doc.identificationNumber, doc.nationality, doc.status, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(DetaineeSearchHit::getScore).reversed()
+                .thenComparing(DetaineeSearchHit::getId));
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return hits.size() > max ? new ArrayList<>(hits.subList(0, max)) : hits;
+    }
+
+    // Must hold the write lock
+    private void add(IndexedDetainee doc) {
+        documents.put(doc.id, doc);
+        for (String gram : doc.trigrams) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(doc.id);
+        }
+    }
+
+    // Must hold the write lock
+    private void remove(Long id) {
+        IndexedDetainee previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : previous.trigrams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTrigrams(String padded, Set<String> out) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            out.add(padded.substring(i, i + 3));
+        }
+    }
+
+    private static final class IndexedDetainee {
+        final Long id;
+        final String lastName;
+        final String firstName;
+        final String identificationNumber;
+        final String nationality;
+        final DetaineeStatus status;
+        final Set<String> trigrams = new LinkedHashSet<>();
+
+        IndexedDetainee(Long id, String lastName, String firstName, String identificationNumber,
+                        String nationality, String birthPlace, DetaineeStatus status) {
+            this.id = id;
+            this.lastName = lastName;
+            this.firstName = firstName;
+            this.identificationNumber = identificationNumber;
+            this.nationality = nationality;
+            this.status = status;
+            for (String field : new String[]{lastName, firstName, identificationNumber, nationality, birthPlace}) {
+                for (String token : tokenize(field)) {
+                    addTrigrams("$$" + token + "$", trigrams);
+                }
+            }
+        }
+    }
+}
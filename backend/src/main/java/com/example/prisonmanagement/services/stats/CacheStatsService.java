@@ -0,0 +1,44 @@
+package com.example.prisonmanagement.services.stats;
+
+import com.example.prisonmanagement.payload.response.CacheStatsResponse;
+import com.example.prisonmanagement.payload.response.CacheStatsResponse.RegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hit/miss counters of the Hibernate second-level and query caches (hibernate.generate_statistics),
+ * cumulative since startup.
+ */
+@Service
+public class CacheStatsService {
+
+    private final Statistics statistics;
+
+    public CacheStatsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public CacheStatsResponse snapshot() {
+        List<RegionStats> regions = new ArrayList<>();
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        for (String name : names) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region == null) {
+                continue;
+            }
+            long lookups = region.getHitCount() + region.getMissCount();
+            regions.add(new RegionStats(name, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                    lookups == 0 ? 0 : (double) region.getHitCount() / lookups));
+        }
+        return new CacheStatsResponse(regions, statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+    }
+}
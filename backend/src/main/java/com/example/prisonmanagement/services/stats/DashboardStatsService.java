@@ -0,0 +1,121 @@
+package com.example.prisonmanagement.services.stats;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.models.UserStatus;
+import com.example.prisonmanagement.payload.response.DashboardStatsResponse;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Population counters for the admin dashboard. Seeded once from GROUP BY queries at startup,
+ * then kept current by the controllers on every write, so reading them never touches the database.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    // ConcurrentHashMap does not accept null keys
+    private static final String UNSPECIFIED = "Non renseigné";
+
+    private final DetaineeRepository detaineeRepository;
+    private final UserRepository userRepository;
+
+    private final ConcurrentMap<String, LongAdder> detaineesByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> detaineesBySecurityLevel = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> detaineesByDetentionType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> usersByStatus = new ConcurrentHashMap<>();
+
+    public DashboardStatsService(DetaineeRepository detaineeRepository, UserRepository userRepository) {
+        this.detaineeRepository = detaineeRepository;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        detaineesByStatus.clear();
+        detaineesBySecurityLevel.clear();
+        detaineesByDetentionType.clear();
+        usersByStatus.clear();
+
+        for (Object[] row : detaineeRepository.countGroupedForDashboard()) {
+            long count = (Long) row[3];
+            add(detaineesByStatus, ((DetaineeStatus) row[0]).name(), count);
+            add(detaineesBySecurityLevel, (String) row[1], count);
+            add(detaineesByDetentionType, (String) row[2], count);
+        }
+        for (Object[] row : userRepository.countGroupedByStatus()) {
+            add(usersByStatus, ((UserStatus) row[0]).name(), (Long) row[1]);
+        }
+        logger.info("Dashboard counters seeded: {} detainees, {} users",
+                sum(detaineesByStatus), sum(usersByStatus));
+    }
+
+    public void detaineeCreated(Detainee detainee) {
+        add(detaineesByStatus, detainee.getStatus().name(), 1);
+        add(detaineesBySecurityLevel, detainee.getSecurityLevel(), 1);
+        add(detaineesByDetentionType, detainee.getDetentionType(), 1);
+    }
+
+    public void detaineeStatusChanged(DetaineeStatus previous, DetaineeStatus current) {
+        if (previous != current) {
+            add(detaineesByStatus, previous.name(), -1);
+            add(detaineesByStatus, current.name(), 1);
+        }
+    }
+
+    public void userCreated(UserStatus status) {
+        add(usersByStatus, status.name(), 1);
+    }
+
+    public void userStatusChanged(UserStatus previous, UserStatus current) {
+        if (previous != current) {
+            add(usersByStatus, previous.name(), -1);
+            add(usersByStatus, current.name(), 1);
+        }
+    }
+
+    public DashboardStatsResponse snapshot() {
+        Map<String, Long> byStatus = toMap(detaineesByStatus);
+        Map<String, Long> users = toMap(usersByStatus);
+        return new DashboardStatsResponse(
+                byStatus.values().stream().mapToLong(Long::longValue).sum(),
+                byStatus.getOrDefault(DetaineeStatus.PENDING_VALIDATION.name(), 0L),
+                byStatus,
+                toMap(detaineesBySecurityLevel),
+                toMap(detaineesByDetentionType),
+                users.values().stream().mapToLong(Long::longValue).sum(),
+                users);
+    }
+
+    private static void add(ConcurrentMap<String, LongAdder> counters, String key, long delta) {
+        counters.computeIfAbsent(key == null ? UNSPECIFIED : key, k -> new LongAdder()).add(delta);
+    }
+
+    private static Map<String, Long> toMap(ConcurrentMap<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, adder) -> {
+            long value = adder.sum();
+            if (value != 0) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private static long sum(ConcurrentMap<String, LongAdder> counters) {
+        return counters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.prisonmanagement.services.stats;
+
+import com.example.prisonmanagement.models.Incident;
+import com.example.prisonmanagement.payload.response.IncidentRollupResponse;
+import com.example.prisonmanagement.payload.response.IncidentRollupResponse.Bucket;
+import com.example.prisonmanagement.repositories.IncidentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-aggregated incident counts for heatmaps and trend charts.
+ *
+ * Incidents are counted per hour and per day, broken down by (location, type, gravity). Both
+ * series are rebuilt from a GROUP BY at startup and incremented on every new incident, so a query
+ * over a year sums at most 365 daily (or 8760 hourly) buckets instead of scanning the table.
+ * Daily buckets are used whenever the requested bounds and grouping allow it.
+ *
+ * A rebuild does not block incident creation: incidents created while it reads the table are
+ * recorded, then checked against the same database snapshot as its GROUP BY, so each one is
+ * counted exactly once whether or not the query saw it.
+ */
+@Service
+public class IncidentRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncidentRollupService.class);
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final long HOURS_PER_DAY = 24;
+
+    public enum Dimension {
+        HOUR("hour"), DAY("day"), MONTH("month"),
+        HOUR_OF_DAY("hourOfDay"), DAY_OF_WEEK("dayOfWeek"),
+        LOCATION("location"), TYPE("type"), GRAVITY("gravity");
+
+        private final String param;
+
+        Dimension(String param) {
+            this.param = param;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        boolean isPeriod() {
+            return this == HOUR || this == DAY || this == MONTH;
+        }
+
+        public static Dimension from(String value) {
+            for (Dimension dimension : values()) {
+                if (dimension.param.equalsIgnoreCase(value.trim())) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("Erreur : Regroupement inconnu '" + value
+                    + "' (hour, day, month, hourOfDay, dayOfWeek, location, type, gravity).");
+        }
+    }
+
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator
+            .comparing(Bucket::getPeriod, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bucket::getHourOfDay, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bucket::getDayOfWeek, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bucket::getLocation, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bucket::getType, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bucket::getGravity, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final IncidentRepository incidentRepository;
+    // Repeatable read: both queries of a rebuild see the same rows
+    private final TransactionTemplate snapshot;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Bucket start in hours since the epoch (incident dates are local, taken as-is) -> count per cell
+    private NavigableMap<Long, Map<Cell, Long>> hourly = new TreeMap<>();
+    private NavigableMap<Long, Map<Cell, Long>> daily = new TreeMap<>();
+    // Incidents created while a rebuild reads the table; null otherwise
+    private List<Incident> createdDuringRebuild;
+
+    public IncidentRollupService(IncidentRepository incidentRepository, PlatformTransactionManager transactionManager) {
+        this.incidentRepository = incidentRepository;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshot.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    // Recomputes both series from the incidents table; returns the number of incidents counted
+    public synchronized long rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            createdDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long incidents = snapshot.execute(status -> load());
+            logger.info("Incident rollups built: {} incidents in {} ms", incidents, System.currentTimeMillis() - start);
+            return incidents;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                createdDuringRebuild = null; // a failed read leaves the current series in place
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Runs in the repeatable-read transaction of rebuild
+    private long load() {
+        NavigableMap<Long, Map<Cell, Long>> newHourly = new TreeMap<>();
+        NavigableMap<Long, Map<Cell, Long>> newDaily = new TreeMap<>();
+        long incidents = 0;
+        for (Object[] row : incidentRepository.countGroupedByHour()) {
+            LocalDateTime hour = LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+            long count = ((Number) row[7]).longValue();
+            add(newHourly, newDaily, hour, new Cell((String) row[4], (String) row[5], (String) row[6]), count);
+            incidents += count;
+        }
+        lock.writeLock().lock();
+        try {
+            // Incidents created since the rebuild started: add those the GROUP BY's snapshot did not hold
+            List<Long> ids = new ArrayList<>();
+            for (Incident incident : createdDuringRebuild) {
+                if (incident.getId() != null) {
+                    ids.add(incident.getId());
+                }
+            }
+            Set<Long> seen = ids.isEmpty() ? Set.of() : new HashSet<>(incidentRepository.findExistingIds(ids));
+            for (Incident incident : createdDuringRebuild) {
+                if (!seen.contains(incident.getId())) {
+                    add(newHourly, newDaily, incident.getDate(), cellOf(incident), 1);
+                    incidents++;
+                }
+            }
+            hourly = newHourly;
+            daily = newDaily;
+            createdDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return incidents;
+    }
+
+    // Called after every saved incident
+    public void incidentCreated(Incident incident) {
+        if (incident == null || incident.getDate() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            add(hourly, daily, incident.getDate(), cellOf(incident), 1);
+            if (createdDuringRebuild != null) {
+                createdDuringRebuild.add(incident);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sums the buckets starting in [from, to), bounds rounded outward to whole hours; null bounds
+     * are open. Dimensions not listed in groupBy are summed over.
+     */
+    public IncidentRollupResponse query(LocalDateTime from, LocalDateTime to, List<Dimension> groupBy) {
+        if (groupBy.stream().filter(Dimension::isPeriod).count() > 1) {
+            throw new IllegalArgumentException("Erreur : Un seul découpage temporel à la fois (hour, day ou month).");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Erreur : 'from' doit précéder 'to'.");
+        }
+        boolean byHour = groupBy.contains(Dimension.HOUR) || groupBy.contains(Dimension.HOUR_OF_DAY)
+                || !isMidnight(from) || !isMidnight(to);
+        long fromKey = from == null ? Long.MIN_VALUE : Math.floorDiv(epochSeconds(from), SECONDS_PER_HOUR);
+        long toKey = to == null ? Long.MAX_VALUE : -Math.floorDiv(-epochSeconds(to), SECONDS_PER_HOUR);
+
+        Map<Bucket, Long> groups = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, Map<Cell, Long>> series = byHour ? hourly : daily;
+            for (Map.Entry<Long, Map<Cell, Long>> bucket : series.subMap(fromKey, true, toKey, false).entrySet()) {
+                LocalDateTime start = LocalDateTime.ofEpochSecond(bucket.getKey() * SECONDS_PER_HOUR, 0, ZoneOffset.UTC);
+                for (Map.Entry<Cell, Long> cell : bucket.getValue().entrySet()) {
+                    groups.merge(groupKey(start, cell.getKey(), groupBy), cell.getValue(), Long::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Bucket> buckets = new ArrayList<>(groups.size());
+        long total = 0;
+        for (Map.Entry<Bucket, Long> group : groups.entrySet()) {
+            Bucket bucket = group.getKey();
+            bucket.setCount(group.getValue());
+            buckets.add(bucket);
+            total += group.getValue();
+        }
+        buckets.sort(BUCKET_ORDER);
+        List<String> dimensions = groupBy.stream().map(Dimension::getParam).collect(Collectors.toList());
+        return new IncidentRollupResponse(from, to, dimensions, byHour ? "hour" : "day", total, buckets);
+    }
+
+    // The count is left at 0 so equal keys collapse in the grouping map; it is set once summed
+    private static Bucket groupKey(LocalDateTime start, Cell cell, List<Dimension> groupBy) {
+        LocalDateTime period = null;
+        if (groupBy.contains(Dimension.HOUR)) {
+            period = start;
+        } else if (groupBy.contains(Dimension.DAY)) {
+            period = start.truncatedTo(ChronoUnit.DAYS);
+        } else if (groupBy.contains(Dimension.MONTH)) {
+            period = start.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+        return new Bucket(period,
+                groupBy.contains(Dimension.HOUR_OF_DAY) ? start.getHour() : null,
+                groupBy.contains(Dimension.DAY_OF_WEEK) ? start.getDayOfWeek() : null,
+                groupBy.contains(Dimension.LOCATION) ? cell.location : null,
+                groupBy.contains(Dimension.TYPE) ? cell.type : null,
+                groupBy.contains(Dimension.GRAVITY) ? cell.gravity : null,
+                0);
+    }
+
+    private static void add(NavigableMap<Long, Map<Cell, Long>> hourly, NavigableMap<Long, Map<Cell, Long>> daily,
+                            LocalDateTime time, Cell cell, long count) {
+        long hour = Math.floorDiv(epochSeconds(time), SECONDS_PER_HOUR);
+        hourly.computeIfAbsent(hour, k -> new HashMap<>()).merge(cell, count, Long::sum);
+        daily.computeIfAbsent(Math.floorDiv(hour, HOURS_PER_DAY) * HOURS_PER_DAY, k -> new HashMap<>())
+                .merge(cell, count, Long::sum);
+    }
+
+    private static Cell cellOf(Incident incident) {
+        return new Cell(incident.getLocation(), incident.getType(), incident.getGravity());
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static boolean isMidnight(LocalDateTime time) {
+        return time == null || time.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+
+    private static final class Cell {
+        final String location;
+        final String type;
+        final String gravity;
+
+        Cell(String location, String type, String gravity) {
+            this.location = location;
+            this.type = type;
+            this.gravity = gravity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cell)) {
+                return false;
+            }
+            Cell other = (Cell) o;
+            return Objects.equals(location, other.location) && Objects.equals(type, other.type)
+                    && Objects.equals(gravity, other.gravity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, type, gravity);
+        }
+    }
+}
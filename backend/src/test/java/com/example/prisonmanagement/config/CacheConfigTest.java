@@ -0,0 +1,41 @@
+package com.example.prisonmanagement.config;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.Role;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    @Test
+    void everyRegionIsDeclaredWithItsBounds() {
+        try (CacheManager cacheManager = new CacheConfig().hibernateCacheManager(500, 15)) {
+            assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder(Role.class.getName(),
+                    Detainee.class.getName(), "default-query-results-region", "default-update-timestamps-region");
+
+            CaffeineConfiguration<?, ?> detainees = configuration(cacheManager, Detainee.class.getName());
+            assertThat(detainees.getMaximumSize()).isEqualTo(OptionalLong.of(500));
+            assertThat(detainees.getExpireAfterWrite()).isEqualTo(OptionalLong.of(TimeUnit.MINUTES.toNanos(15)));
+
+            CaffeineConfiguration<?, ?> roles = configuration(cacheManager, Role.class.getName());
+            assertThat(roles.getMaximumSize()).isEqualTo(OptionalLong.of(100));
+            assertThat(roles.getExpireAfterWrite()).isEmpty();
+
+            // Evicting an update timestamp would let stale query results be served
+            CaffeineConfiguration<?, ?> timestamps = configuration(cacheManager, "default-update-timestamps-region");
+            assertThat(timestamps.getMaximumSize()).isEmpty();
+            assertThat(timestamps.getExpireAfterWrite()).isEmpty();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CaffeineConfiguration<?, ?> configuration(CacheManager cacheManager, String name) {
+        return cacheManager.getCache(name).getConfiguration(CaffeineConfiguration.class);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.prisonmanagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.cors.CorsConfiguration;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityConfigCorsTest {
+
+    private final CorsConfiguration cors = new SecurityConfig(null, null, null, null, null)
+            .corsConfigurationSource().getCorsConfiguration(new MockHttpServletRequest("GET", "/uploads/a.pdf"));
+
+    @Test
+    void rangeAndConditionalRequestHeadersPassThePreflight() {
+        assertThat(cors.checkHeaders(List.of("Range", "If-Range", "If-None-Match", "X-Chunk-Sha256")))
+                .containsExactly("Range", "If-Range", "If-None-Match", "X-Chunk-Sha256");
+    }
+
+    @Test
+    void validatorsAreReadableByTheFrontend() {
+        assertThat(cors.getExposedHeaders()).contains("ETag", "Content-Range", "Accept-Ranges");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.prisonmanagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadsProfileTest {
+
+    @Test
+    void connectionHandlingIsOnlyTunedInTheOptInProfile() throws IOException {
+        Properties defaults = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        Properties profile = PropertiesLoaderUtils.loadProperties(
+                new ClassPathResource("application-virtual-threads.properties"));
+
+        // The default profile keeps Spring Boot's OSIV and Hikari defaults
+        assertThat(defaults).doesNotContainKeys("spring.jpa.open-in-view", "spring.threads.virtual.enabled",
+                "spring.datasource.hikari.maximum-pool-size", "spring.datasource.hikari.connection-timeout");
+        assertThat(profile).containsEntry("spring.threads.virtual.enabled", "true")
+                .containsEntry("spring.jpa.open-in-view", "false")
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "${DB_POOL_SIZE:20}")
+                .containsEntry("spring.datasource.hikari.connection-timeout", "2000");
+    }
+}
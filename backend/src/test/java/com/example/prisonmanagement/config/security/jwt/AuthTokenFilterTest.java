@@ -0,0 +1,110 @@
+package com.example.prisonmanagement.config.security.jwt;
+
+import com.example.prisonmanagement.models.UserStatus;
+import com.example.prisonmanagement.services.UserDetailsCache;
+import com.example.prisonmanagement.services.UserDetailsImpl;
+import com.example.prisonmanagement.services.presence.PresenceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthTokenFilterTest {
+
+    private static final String SECRET = "bezKoderSecretKeySuperSecureAndLongEnoughForHS256Algorithm";
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRET, 86400000);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+    private final PresenceTracker presenceTracker = mock(PresenceTracker.class);
+    private final AuthTokenFilter filter = new AuthTokenFilter(jwtUtils, userDetailsCache, presenceTracker);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validBearerTokenAuthenticatesTheCachedPrincipal() throws Exception {
+        UserDetailsImpl principal = principal(UserStatus.ACTIVE);
+        when(userDetailsCache.get("admin")).thenReturn(principal);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("Bearer " + token(principal)), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isSameAs(principal);
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ADMIN");
+        assertThat(chain.getRequest()).isNotNull();
+        verify(presenceTracker).touch(1L, "admin");
+    }
+
+    @Test
+    void suspendedUserIsNotAuthenticated() throws Exception {
+        UserDetailsImpl principal = principal(UserStatus.SUSPENDED);
+        when(userDetailsCache.get("admin")).thenReturn(principal);
+
+        filter.doFilter(request("Bearer " + token(principal)), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(presenceTracker, never()).touch(any(), any());
+    }
+
+    @Test
+    void invalidTokenSkipsThePrincipalLookup() throws Exception {
+        String tampered = token(principal(UserStatus.ACTIVE)) + "x";
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("Bearer " + tampered), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verify(userDetailsCache, never()).get(any());
+    }
+
+    @Test
+    void queryParameterTokenIsOnlyAcceptedOnTheEventStream() throws Exception {
+        UserDetailsImpl principal = principal(UserStatus.ACTIVE);
+        when(userDetailsCache.get("admin")).thenReturn(principal);
+
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/detainees");
+        other.setServletPath("/api/detainees");
+        other.setParameter("access_token", token(principal));
+        filter.doFilter(other, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+        MockHttpServletRequest events = new MockHttpServletRequest("GET", "/api/events");
+        events.setServletPath("/api/events");
+        events.setParameter("access_token", token(principal));
+        filter.doFilter(events, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(principal);
+    }
+
+    private String token(UserDetailsImpl principal) {
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/detainees");
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+
+    private static UserDetailsImpl principal(UserStatus status) {
+        return new UserDetailsImpl(1L, "admin", "admin@prison.gov", "x",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), status);
+    }
+}
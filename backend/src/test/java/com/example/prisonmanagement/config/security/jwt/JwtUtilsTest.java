@@ -0,0 +1,44 @@
+package com.example.prisonmanagement.config.security.jwt;
+
+import com.example.prisonmanagement.models.UserStatus;
+import com.example.prisonmanagement.services.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "bezKoderSecretKeySuperSecureAndLongEnoughForHS256Algorithm";
+
+    @Test
+    void validTokenIsVerifiedOnceAndYieldsTheSubject() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 86400000);
+        String token = token(jwtUtils);
+
+        assertThat(jwtUtils.parseValidClaims(token).getSubject()).isEqualTo("admin");
+        assertThat(jwtUtils.validateJwtToken(token)).isTrue();
+        assertThat(jwtUtils.getUserNameFromJwtToken(token)).isEqualTo("admin");
+    }
+
+    @Test
+    void tamperedForeignExpiredOrEmptyTokensAreRejected() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 86400000);
+        String token = token(jwtUtils);
+        String foreign = token(new JwtUtils(SECRET.replace('b', 'c'), 86400000));
+        String expired = token(new JwtUtils(SECRET, -1000));
+
+        assertThat(jwtUtils.parseValidClaims(token.substring(0, token.length() - 2))).isNull();
+        assertThat(jwtUtils.parseValidClaims(foreign)).isNull();
+        assertThat(jwtUtils.parseValidClaims(expired)).isNull();
+        assertThat(jwtUtils.parseValidClaims("pas.un.jeton")).isNull();
+        assertThat(jwtUtils.parseValidClaims("")).isNull();
+    }
+
+    private static String token(JwtUtils jwtUtils) {
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "admin", "admin@prison.gov", "x", List.of(), UserStatus.ACTIVE);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+    }
+}
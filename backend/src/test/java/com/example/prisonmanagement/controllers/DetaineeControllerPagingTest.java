@@ -0,0 +1,91 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.payload.response.CursorPageResponse;
+import com.example.prisonmanagement.payload.response.MessageResponse;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.projections.DetaineeSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DetaineeControllerPagingTest {
+
+    private final DetaineeController controller = new DetaineeController();
+    private final DetaineeRepository repository = mock(DetaineeRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        controller.detaineeRepository = repository;
+    }
+
+    @Test
+    void fetchesOneExtraRowAndBuildsTheNextCursorFromTheLastItem() {
+        List<DetaineeSummary> rows = List.of(summary(9, "2024-03-02"), summary(7, "2024-03-01"), summary(5, "2024-03-01"));
+        when(repository.findSummaryPage(isNull(), isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(rows);
+
+        ResponseEntity<?> response = controller.getAllDetainees(null, 2, null, null, null);
+
+        CursorPageResponse<?> page = (CursorPageResponse<?>) response.getBody();
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo("2024-03-01_7");
+        verify(repository).findSummaryPage(isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(Pageable.ofSize(3)));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        List<DetaineeSummary> rows = List.of(summary(3, "2024-01-01"));
+        when(repository.findSummaryPage(any(), any(), any(), any(), any(), any(Pageable.class))).thenReturn(rows);
+
+        CursorPageResponse<?> page = (CursorPageResponse<?>) controller
+                .getAllDetainees("2024-02-01_4", 2, null, null, null).getBody();
+
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        verify(repository).findSummaryPage(isNull(), isNull(), isNull(), eq(LocalDate.parse("2024-02-01")), eq(4L),
+                any(Pageable.class));
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        controller.getAllDetainees(null, 100_000, null, null, null);
+        controller.getAllDetainees(null, 0, null, null, null);
+
+        verify(repository).findSummaryPage(any(), any(), any(), any(), any(), eq(Pageable.ofSize(501)));
+        verify(repository).findSummaryPage(any(), any(), any(), any(), any(), eq(Pageable.ofSize(2)));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String cursor : List.of("nope", "2024-02-01_x", "2024-13-01_4", "_4")) {
+            ResponseEntity<?> response = controller.getAllDetainees(cursor, 10, null, null, null);
+
+            assertThat(response.getStatusCode()).as(cursor).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(((MessageResponse) response.getBody()).getMessage()).startsWith("Erreur :");
+        }
+        verifyNoInteractions(repository);
+    }
+
+    private static DetaineeSummary summary(long id, String arrivalDate) {
+        DetaineeSummary summary = mock(DetaineeSummary.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getArrivalDate()).thenReturn(LocalDate.parse(arrivalDate));
+        return summary;
+    }
+}
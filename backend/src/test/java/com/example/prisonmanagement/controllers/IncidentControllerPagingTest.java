@@ -0,0 +1,61 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.payload.response.PageResponse;
+import com.example.prisonmanagement.repositories.IncidentRepository;
+import com.example.prisonmanagement.repositories.projections.IncidentView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IncidentControllerPagingTest {
+
+    private final IncidentController controller = new IncidentController();
+    private final IncidentRepository repository = mock(IncidentRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        controller.incidentRepository = repository;
+    }
+
+    @Test
+    void returnsThePageWithItsTotalsAndPassesTheFiltersThrough() {
+        IncidentView view = mock(IncidentView.class);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        PageRequest request = PageRequest.of(2, 10);
+        when(repository.findViewPage(eq("Grave"), isNull(), eq("Bagarre"), eq(from), isNull(), eq(request)))
+                .thenReturn(new PageImpl<>(List.of(view), request, 21));
+
+        PageResponse<IncidentView> body = controller.getAllIncidents(2, 10, "Grave", null, "Bagarre", from, null).getBody();
+
+        assertThat(body.getItems()).containsExactly(view);
+        assertThat(body.getPage()).isEqualTo(2);
+        assertThat(body.getSize()).isEqualTo(10);
+        assertThat(body.getTotalElements()).isEqualTo(21);
+        assertThat(body.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void pageAndSizeAreClamped() {
+        when(repository.findViewPage(any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<IncidentView>(List.of(), invocation.getArgument(5), 0));
+
+        controller.getAllIncidents(-3, 10_000, null, null, null, null, null);
+        controller.getAllIncidents(0, 0, null, null, null, null, null);
+
+        verify(repository).findViewPage(null, null, null, null, null, PageRequest.of(0, 500));
+        verify(repository).findViewPage(null, null, null, null, null, PageRequest.of(0, 1));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.prisonmanagement.controllers;
+
+import com.example.prisonmanagement.models.User;
+import com.example.prisonmanagement.payload.response.PageResponse;
+import com.example.prisonmanagement.payload.response.UserResponse;
+import com.example.prisonmanagement.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserManagementControllerPagingTest {
+
+    private final UserManagementController controller = new UserManagementController();
+    private final UserRepository repository = mock(UserRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        controller.userRepository = repository;
+    }
+
+    @Test
+    void keepsTheIdPageOrderAndSkipsUsersDeletedBetweenTheTwoQueries() {
+        PageRequest request = PageRequest.of(0, 3);
+        when(repository.findIdPage(null, null, null, null, request))
+                .thenReturn(new PageImpl<>(List.of(9L, 4L, 7L), request, 3));
+        // User 4 was deleted after the id page was read
+        when(repository.findAllWithRolesByIdIn(List.of(9L, 4L, 7L))).thenReturn(List.of(user(7L), user(9L)));
+
+        PageResponse<UserResponse> body = controller.getAllUsers(0, 3, null, null, null, null).getBody();
+
+        assertThat(body.getItems()).extracting(UserResponse::getId).containsExactly(9L, 7L);
+        assertThat(body.getPage()).isZero();
+        assertThat(body.getSize()).isEqualTo(3);
+    }
+
+    @Test
+    void emptyIdPageSkipsTheSecondQuery() {
+        PageRequest request = PageRequest.of(4, 50);
+        when(repository.findIdPage(null, null, null, null, request)).thenReturn(new PageImpl<>(List.of(), request, 12));
+
+        PageResponse<UserResponse> body = controller.getAllUsers(4, 50, null, null, null, null).getBody();
+
+        assertThat(body.getItems()).isEmpty();
+        assertThat(body.getTotalElements()).isEqualTo(12);
+        verify(repository, never()).findAllWithRolesByIdIn(anyCollection());
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("agent" + id);
+        return user;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.prisonmanagement.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FamilyContactTest {
+
+    @Test
+    void phonesKeepOnlyDigitsAndALeadingPlus() {
+        assertThat(FamilyContact.normalizePhone("+221 77-123.45.67")).isEqualTo("+221771234567");
+        assertThat(FamilyContact.normalizePhone("  +33 (0)6 12 34 56 78 ")).isEqualTo("+330612345678");
+        assertThat(FamilyContact.normalizePhone("77 123 45 67")).isEqualTo("771234567");
+        assertThat(FamilyContact.normalizePhone("77+123")).isEqualTo("77123");
+        assertThat(FamilyContact.normalizePhone("+ - .")).isNull();
+        assertThat(FamilyContact.normalizePhone("")).isNull();
+        assertThat(FamilyContact.normalizePhone(null)).isNull();
+    }
+
+    @Test
+    void parseListTrimsNormalizesAndSkipsNullEntries() {
+        List<FamilyContact> contacts = FamilyContact.parseList("[{\"name\":\"  Aïssatou Diallo \",\"relation\":\" Mère\","
+                + "\"phone\":\"+221 77-123.45.67\",\"unknown\":1}, null, {\"name\":\"Me Ba\",\"relation\":\"  \"}]");
+
+        assertThat(contacts).containsExactly(
+                new FamilyContact("Aïssatou Diallo", "Mère", "+221771234567"),
+                new FamilyContact("Me Ba", null, null));
+    }
+
+    @Test
+    void parseListGivesNullForNothingAndRejectsWhatIsNotAnArray() {
+        assertThat(FamilyContact.parseList(null)).isNull();
+        assertThat(FamilyContact.parseList("  ")).isNull();
+        assertThat(FamilyContact.parseList("null")).isNull();
+        assertThat(FamilyContact.parseList("[]")).isEmpty();
+
+        for (String invalid : List.of("Mère : 77 123 45 67", "{\"name\":\"A\"}", "[1, 2", "[\"A\"]")) {
+            assertThatThrownBy(() -> FamilyContact.parseList(invalid))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Erreur : Contacts familiaux invalides (tableau JSON attendu).");
+        }
+    }
+
+    @Test
+    void toJsonLeavesOutMissingFieldsAndRoundTrips() {
+        List<FamilyContact> contacts = List.of(new FamilyContact("Awa", "Épouse", "+221771234567"),
+                new FamilyContact("Me Ba", null, null));
+
+        String json = FamilyContact.toJson(contacts);
+
+        assertThat(json).isEqualTo("[{\"name\":\"Awa\",\"relation\":\"Épouse\",\"phone\":\"+221771234567\"},"
+                + "{\"name\":\"Me Ba\"}]");
+        assertThat(FamilyContact.parseList(json)).isEqualTo(contacts);
+        assertThat(FamilyContact.toJson(null)).isNull();
+    }
+}
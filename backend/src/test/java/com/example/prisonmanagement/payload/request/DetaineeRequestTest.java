@@ -0,0 +1,77 @@
+package com.example.prisonmanagement.payload.request;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeJudicial;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.models.FamilyContact;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DetaineeRequestTest {
+
+    @Test
+    void coreRowCarriesTheListFieldsAndWaitsForValidation() {
+        DetaineeRequest request = new DetaineeRequest();
+        request.setLastName("Diallo");
+        request.setFirstName("Amadou");
+        request.setSecurityLevel("Élevé");
+        request.setExpectedEndDate(LocalDate.of(2030, 1, 1));
+        request.setOffenses("Vol");
+
+        Detainee detainee = request.toDetainee();
+
+        assertThat(detainee.getLastName()).isEqualTo("Diallo");
+        assertThat(detainee.getFirstName()).isEqualTo("Amadou");
+        assertThat(detainee.getSecurityLevel()).isEqualTo("Élevé");
+        assertThat(detainee.getExpectedEndDate()).isEqualTo(LocalDate.of(2030, 1, 1));
+        assertThat(detainee.getStatus()).isEqualTo(DetaineeStatus.PENDING_VALIDATION);
+    }
+
+    @Test
+    void sectionsAreOnlyBuiltWhenTheFormCarriesDataForThem() {
+        DetaineeRequest request = new DetaineeRequest();
+        request.setLastName("Diallo");
+
+        assertThat(request.toIdentity()).isNull();
+        assertThat(request.toJudicial()).isNull();
+        assertThat(request.toMedical()).isNull();
+        assertThat(request.toBiometrics()).isNull();
+
+        request.setSentenceDate(LocalDate.of(2024, 2, 1));
+        request.setCourt("Tribunal de Dakar");
+        request.setFingerprintsUrl("/blobs/ab/ab.png");
+
+        DetaineeJudicial judicial = request.toJudicial();
+        assertThat(judicial.getSentenceDate()).isEqualTo(LocalDate.of(2024, 2, 1));
+        assertThat(judicial.getCourt()).isEqualTo("Tribunal de Dakar");
+        assertThat(judicial.getOffenses()).isNull();
+        assertThat(request.toBiometrics().getFingerprintsUrl()).isEqualTo("/blobs/ab/ab.png");
+        assertThat(request.toIdentity()).isNull();
+        assertThat(request.toMedical()).isNull();
+    }
+
+    @Test
+    void identityParsesAndNormalizesFamilyContacts() {
+        DetaineeRequest request = new DetaineeRequest();
+        request.setFamilyContactsJson("[{\"name\":\" Awa Diallo \",\"relation\":\"Mère\",\"phone\":\"+221 77-123.45.67\"}]");
+
+        assertThat(request.toIdentity().getFamilyContacts())
+                .containsExactly(new FamilyContact("Awa Diallo", "Mère", "+221771234567"));
+    }
+
+    @Test
+    void medicalSectionKeepsEveryField() {
+        DetaineeRequest request = new DetaineeRequest();
+        request.setBloodType("O+");
+        request.setAllergies("Pénicilline");
+
+        assertThat(request.toMedical()).satisfies(medical -> {
+            assertThat(medical.getBloodType()).isEqualTo("O+");
+            assertThat(medical.getAllergies()).isEqualTo("Pénicilline");
+            assertThat(medical.getTreatments()).isNull();
+        });
+    }
+}
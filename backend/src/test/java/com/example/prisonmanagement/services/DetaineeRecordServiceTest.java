@@ -0,0 +1,92 @@
+package com.example.prisonmanagement.services;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeJudicial;
+import com.example.prisonmanagement.models.DetaineeMedical;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.payload.request.DetaineeRequest;
+import com.example.prisonmanagement.repositories.DetaineeBiometricsRepository;
+import com.example.prisonmanagement.repositories.DetaineeIdentityRepository;
+import com.example.prisonmanagement.repositories.DetaineeJudicialRepository;
+import com.example.prisonmanagement.repositories.DetaineeMedicalRepository;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DetaineeRecordServiceTest {
+
+    private final DetaineeRepository detaineeRepository = mock(DetaineeRepository.class);
+    private final DetaineeIdentityRepository identityRepository = mock(DetaineeIdentityRepository.class);
+    private final DetaineeJudicialRepository judicialRepository = mock(DetaineeJudicialRepository.class);
+    private final DetaineeMedicalRepository medicalRepository = mock(DetaineeMedicalRepository.class);
+    private final DetaineeBiometricsRepository biometricsRepository = mock(DetaineeBiometricsRepository.class);
+    private final DetaineeRecordService service = new DetaineeRecordService(detaineeRepository, identityRepository,
+            judicialRepository, medicalRepository, biometricsRepository);
+
+    @Test
+    void createWritesTheCoreRowAndOnlyTheSectionsThatHaveData() {
+        Detainee saved = detainee(7L);
+        when(detaineeRepository.save(any(Detainee.class))).thenReturn(saved);
+        DetaineeRequest request = new DetaineeRequest();
+        request.setLastName("Diallo");
+        request.setBloodType("O+");
+
+        assertThat(service.create(request)).isSameAs(saved);
+
+        ArgumentCaptor<DetaineeMedical> medical = ArgumentCaptor.forClass(DetaineeMedical.class);
+        verify(medicalRepository).save(medical.capture());
+        assertThat(medical.getValue().getDetainee()).isSameAs(saved);
+        assertThat(medical.getValue().getBloodType()).isEqualTo("O+");
+        verify(identityRepository, never()).save(any());
+        verify(judicialRepository, never()).save(any());
+        verify(biometricsRepository, never()).save(any());
+    }
+
+    @Test
+    void statusChangeKeepsTheCommentWithTheJudicialRecord() {
+        Detainee detainee = detainee(7L);
+        when(detaineeRepository.save(detainee)).thenReturn(detainee);
+        when(judicialRepository.findById(7L)).thenReturn(Optional.empty());
+
+        service.updateStatus(detainee, DetaineeStatus.VALIDATED, "Dossier complet");
+
+        assertThat(detainee.getStatus()).isEqualTo(DetaineeStatus.VALIDATED);
+        ArgumentCaptor<DetaineeJudicial> judicial = ArgumentCaptor.forClass(DetaineeJudicial.class);
+        verify(judicialRepository).save(judicial.capture());
+        assertThat(judicial.getValue().getDetainee()).isSameAs(detainee);
+        assertThat(judicial.getValue().getAdminComments()).isEqualTo("Dossier complet");
+    }
+
+    @Test
+    void statusChangeWithoutCommentCreatesNoJudicialRecordButClearsAnExistingOne() {
+        Detainee detainee = detainee(7L);
+        when(detaineeRepository.save(detainee)).thenReturn(detainee);
+        when(judicialRepository.findById(7L)).thenReturn(Optional.empty());
+
+        service.updateStatus(detainee, DetaineeStatus.REJECTED, null);
+        verify(judicialRepository, never()).save(any());
+
+        DetaineeJudicial existing = new DetaineeJudicial();
+        existing.setAdminComments("ancien commentaire");
+        when(judicialRepository.findById(7L)).thenReturn(Optional.of(existing));
+
+        service.updateStatus(detainee, DetaineeStatus.VALIDATED, null);
+        verify(judicialRepository).save(existing);
+        assertThat(existing.getAdminComments()).isNull();
+    }
+
+    private static Detainee detainee(Long id) {
+        Detainee detainee = new Detainee();
+        detainee.setId(id);
+        return detainee;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.prisonmanagement.services;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LastLoginRecorderTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 5, 1, 8, 0);
+    private static final LocalDateTime T2 = T1.plusMinutes(5);
+    private static final LocalDateTime T3 = T1.plusMinutes(10);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LastLoginRecorder recorder = new LastLoginRecorder(jdbcTemplate);
+
+    @Test
+    void loginsAreCoalescedPerUserIntoOneBatch() {
+        recorder.record(1L, T2);
+        recorder.record(1L, T1); // late arrival must not move the date backwards
+        recorder.record(2L, T3);
+
+        recorder.flush();
+
+        assertThat(rows(1)).containsExactlyInAnyOrder(
+                List.of(Timestamp.valueOf(T2), 1L), List.of(Timestamp.valueOf(T3), 2L));
+    }
+
+    @Test
+    void nothingPendingMeansNoUpdate() {
+        recorder.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void failedFlushKeepsTheValuesForTheNextOneWithoutOverwritingNewerLogins() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("base indisponible"))
+                .thenReturn(new int[0]);
+        recorder.record(1L, T1);
+        recorder.record(2L, T1);
+
+        recorder.flush();
+        recorder.record(2L, T3);
+        recorder.flush();
+
+        assertThat(rows(2)).containsExactlyInAnyOrder(
+                List.of(Timestamp.valueOf(T1), 1L), List.of(Timestamp.valueOf(T3), 2L));
+    }
+
+    // Rows of the last batch, out of `calls` flushes that reached the database
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> rows(int calls) {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(calls)).batchUpdate(
+                eq("UPDATE utilisateurs SET last_login_date = ? WHERE id = ?"), batch.capture());
+        return batch.getValue().stream().map(List::of).toList();
+    }
+}
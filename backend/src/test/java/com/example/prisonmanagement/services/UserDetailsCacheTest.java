@@ -0,0 +1,84 @@
+package com.example.prisonmanagement.services;
+
+import com.example.prisonmanagement.models.UserStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailsCacheTest {
+
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+
+    @Test
+    void cachesUntilInvalidated() {
+        UserDetailsCache cache = new UserDetailsCache(userDetailsService, 60_000, 100);
+        UserDetailsImpl active = principal(UserStatus.ACTIVE);
+        UserDetailsImpl suspended = principal(UserStatus.SUSPENDED);
+        when(userDetailsService.loadUserByUsername("agent")).thenReturn(active, suspended);
+
+        assertThat(cache.get("agent")).isSameAs(active);
+        assertThat(cache.get("agent")).isSameAs(active);
+        cache.invalidate("agent");
+        assertThat(cache.get("agent")).isSameAs(suspended);
+        verify(userDetailsService, times(2)).loadUserByUsername("agent");
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        UserDetailsCache cache = new UserDetailsCache(userDetailsService, 60_000, 100);
+        UserDetailsImpl stale = principal(UserStatus.ACTIVE);
+        UserDetailsImpl fresh = principal(UserStatus.SUSPENDED);
+        // The suspension commits and invalidates while the first load is still in flight
+        when(userDetailsService.loadUserByUsername("agent")).thenAnswer(invocation -> {
+            cache.invalidate("agent");
+            return stale;
+        }).thenReturn(fresh);
+
+        assertThat(cache.get("agent")).isSameAs(stale);
+        assertThat(cache.get("agent")).isSameAs(fresh);
+        assertThat(cache.get("agent")).isSameAs(fresh);
+        verify(userDetailsService, times(2)).loadUserByUsername("agent");
+    }
+
+    @Test
+    void invalidationsLeaveNoTrackingBehind() {
+        UserDetailsCache cache = new UserDetailsCache(userDetailsService, 60_000, 100);
+        when(userDetailsService.loadUserByUsername("agent")).thenAnswer(invocation -> {
+            assertThat(cache.pendingLoadCount()).isEqualTo(1);
+            return principal(UserStatus.ACTIVE);
+        });
+        when(userDetailsService.loadUserByUsername("absent")).thenThrow(new UsernameNotFoundException("absent"));
+
+        for (int i = 0; i < 1000; i++) {
+            cache.invalidate("user" + i);
+        }
+        cache.get("agent");
+        cache.invalidate("agent");
+        assertThatThrownBy(() -> cache.get("absent")).isInstanceOf(UsernameNotFoundException.class);
+
+        assertThat(cache.pendingLoadCount()).isZero();
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        UserDetailsCache cache = new UserDetailsCache(userDetailsService, 0, 100);
+        when(userDetailsService.loadUserByUsername("agent")).thenReturn(principal(UserStatus.ACTIVE));
+
+        cache.get("agent");
+        cache.get("agent");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("agent");
+    }
+
+    private static UserDetailsImpl principal(UserStatus status) {
+        return new UserDetailsImpl(1L, "agent", "agent@example.com", "hash", List.of(), status);
+    }
+}
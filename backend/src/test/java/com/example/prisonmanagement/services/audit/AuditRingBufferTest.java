@@ -0,0 +1,102 @@
+package com.example.prisonmanagement.services.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void capacityIsAPowerOfTwoOfAtLeastFour() {
+        assertThat(new AuditRingBuffer(1).capacity()).isEqualTo(4);
+        assertThat(new AuditRingBuffer(5).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer(8).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer(8193).capacity()).isEqualTo(16384);
+    }
+
+    @Test
+    void entriesAreDrainedInOrderAcrossWrapAround() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        List<AuditEntry> batch = new ArrayList<>();
+        assertThat(ring.isEmpty()).isTrue();
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                ring.publish(entry(round * 10L + i));
+            }
+            assertThat(ring.drainTo(batch, 2)).isEqualTo(2);
+            assertThat(ring.drainTo(batch, 10)).isEqualTo(1);
+            assertThat(ring.drainTo(batch, 10)).isZero();
+            assertThat(ring.isEmpty()).isTrue();
+        }
+
+        assertThat(batch).extracting(AuditEntry::getEntityId).containsExactly(0L, 1L, 2L, 10L, 11L, 12L, 20L, 21L, 22L);
+    }
+
+    @Test
+    void producerWaitsForTheWriterWhenTheRingIsFull() throws Exception {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int i = 1; i <= 4; i++) {
+            ring.publish(entry(i));
+        }
+        Thread producer = new Thread(() -> ring.publish(entry(5)));
+        producer.start();
+
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+
+        List<AuditEntry> batch = new ArrayList<>();
+        ring.drainTo(batch, 1);
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(producer.isAlive()).isFalse();
+        ring.drainTo(batch, 10);
+        assertThat(batch).extracting(AuditEntry::getEntityId).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepTheirOwnOrder() throws Exception {
+        AuditRingBuffer ring = new AuditRingBuffer(64);
+        int producers = 4;
+        int perProducer = 5_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = p * 1_000_000L;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.publish(entry(base + i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        List<AuditEntry> drained = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (drained.size() < producers * perProducer && System.nanoTime() < deadline) {
+            if (ring.drainTo(drained, 100) == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(drained).hasSize(producers * perProducer);
+        long[] next = new long[producers];
+        for (AuditEntry entry : drained) {
+            int producer = (int) (entry.getEntityId() / 1_000_000L);
+            assertThat(entry.getEntityId() % 1_000_000L).isEqualTo(next[producer]++);
+        }
+        assertThat(ring.isEmpty()).isTrue();
+    }
+
+    private static AuditEntry entry(long entityId) {
+        AuditEntry entry = new AuditEntry();
+        entry.setEntityId(entityId);
+        return entry;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.prisonmanagement.services.audit;
+
+import com.example.prisonmanagement.services.audit.AuditEntry.EntityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditSegmentStoreTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsAreReadBackAndAppendingResumesAfterARestart() throws IOException {
+        AuditSegmentStore store = new AuditSegmentStore(dir, SEGMENT_SIZE);
+        store.append(1_000, EntityType.DETAINEE, 7, json("{\"a\":1}"));
+        store.append(2_000, EntityType.USER, 3, json("{\"b\":2}"));
+        store.close();
+
+        AuditSegmentStore reopened = new AuditSegmentStore(dir, SEGMENT_SIZE);
+        reopened.append(3_000, EntityType.DETAINEE, 8, json("{\"c\":3}"));
+        reopened.close();
+
+        Path segment = onlySegment(reopened);
+        assertThat(records(segment)).containsExactly("1000 DETAINEE 7 {\"a\":1}", "2000 USER 3 {\"b\":2}",
+                "3000 DETAINEE 8 {\"c\":3}");
+    }
+
+    @Test
+    void tornRecordEndsTheSegmentAndIsOverwrittenOnResume() throws IOException {
+        AuditSegmentStore store = new AuditSegmentStore(dir, SEGMENT_SIZE);
+        store.append(1_000, EntityType.DETAINEE, 1, json("{\"n\":1}"));
+        store.append(2_000, EntityType.DETAINEE, 2, json("{\"n\":2}"));
+        int recordLength = AuditSegmentStore.RECORD_HEADER + AuditSegmentStore.BODY_HEADER + 7;
+        store.append(3_000, EntityType.DETAINEE, 3, json("{\"n\":3}"));
+        store.close();
+        Path segment = onlySegment(store);
+
+        // Crash mid-write: the third record's length made it to disk but its body did not
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(2L * recordLength + AuditSegmentStore.RECORD_HEADER + 3);
+            file.write(0x5A);
+        }
+        assertThat(records(segment)).hasSize(2);
+        assertThat(AuditSegmentStore.read(segment, body -> { })).isEqualTo(2 * recordLength);
+
+        AuditSegmentStore resumed = new AuditSegmentStore(dir, SEGMENT_SIZE);
+        resumed.append(4_000, EntityType.USER, 4, json("{\"n\":4}"));
+        resumed.close();
+
+        assertThat(records(segment)).containsExactly("1000 DETAINEE 1 {\"n\":1}", "2000 DETAINEE 2 {\"n\":2}",
+                "4000 USER 4 {\"n\":4}");
+    }
+
+    @Test
+    void zeroedTailAndLengthsPastTheEndStopTheScan() throws IOException {
+        AuditSegmentStore store = new AuditSegmentStore(dir, SEGMENT_SIZE);
+        store.append(1_000, EntityType.DETAINEE, 1, json("{}"));
+        store.close();
+        Path segment = onlySegment(store);
+        int end = AuditSegmentStore.read(segment, body -> { });
+
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(SEGMENT_SIZE); // a garbage length must not read past the file
+        }
+
+        assertThat(records(segment)).containsExactly("1000 DETAINEE 1 {}");
+    }
+
+    @Test
+    void fullSegmentsRotateAndTimeRangesSelectTheirFiles() throws IOException {
+        int recordLength = AuditSegmentStore.RECORD_HEADER + AuditSegmentStore.BODY_HEADER + 100;
+        AuditSegmentStore store = new AuditSegmentStore(dir, recordLength * 2);
+        long[] times = {System.currentTimeMillis() + 10_000, 0, 0, 0, 0};
+        for (int i = 0; i < times.length; i++) {
+            times[i] = times[0] + i * 60_000L;
+            store.append(times[i], EntityType.DETAINEE, i, json("x".repeat(100)));
+        }
+        store.close();
+
+        // First segment was opened at startup; later ones are named after the record that opened them
+        List<Path> all = store.segmentsBetween(Long.MIN_VALUE, Long.MAX_VALUE, 0);
+        assertThat(all).hasSize(3);
+        assertThat(all.get(1).getFileName().toString()).isEqualTo(String.format("audit-%013d.log", times[2]));
+        assertThat(records(all.get(1))).hasSize(2);
+        // Boundaries are inclusive: selection may include a neighbour, never miss a file
+        assertThat(store.segmentsBetween(times[4], times[4], 0)).containsExactly(all.get(1), all.get(2));
+        assertThat(store.segmentsBetween(times[4] + 1, Long.MAX_VALUE, 0)).containsExactly(all.get(2));
+        assertThat(store.segmentsBetween(times[2] + 1, times[3], 0)).containsExactly(all.get(1));
+        assertThat(store.segmentsBetween(times[2], times[2], 1_000)).containsExactly(all.get(0), all.get(1));
+
+        assertThatThrownBy(() -> new AuditSegmentStore(dir, recordLength * 2)
+                .append(1, EntityType.USER, 1, json("x".repeat(recordLength * 2))))
+                .isInstanceOf(IOException.class).hasMessageContaining("does not fit in a segment");
+    }
+
+    private static Path onlySegment(AuditSegmentStore store) throws IOException {
+        List<Path> segments = store.segmentsBetween(Long.MIN_VALUE, Long.MAX_VALUE, 0);
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    private static List<String> records(Path segment) throws IOException {
+        List<String> records = new ArrayList<>();
+        AuditSegmentStore.read(segment, body -> {
+            long timestamp = body.getLong();
+            EntityType type = EntityType.values()[body.get()];
+            long entityId = body.getLong();
+            byte[] json = new byte[body.remaining()];
+            body.get(json);
+            records.add(timestamp + " " + type + " " + entityId + " " + new String(json, StandardCharsets.UTF_8));
+        });
+        return records;
+    }
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
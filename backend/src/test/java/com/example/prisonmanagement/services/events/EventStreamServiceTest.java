@@ -0,0 +1,68 @@
+package com.example.prisonmanagement.services.events;
+
+import com.example.prisonmanagement.models.Detainee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EventStreamServiceTest {
+
+    private final EventStreamService service = new EventStreamService(60_000, 16, 2, 1);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void subscriptionsAreCappedAndReleasedOnShutdown() {
+        List<SimpleGrantedAuthority> admin = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+        assertThat(service.subscribe(admin, Set.of())).isPresent();
+        assertThat(service.subscribe(admin, Set.of(EventStreamService.INCIDENT_CREATED))).isPresent();
+        assertThat(service.subscribe(admin, Set.of())).isEmpty();
+        assertThat(service.getSubscriberCount()).isEqualTo(2);
+
+        service.shutdown();
+        assertThat(service.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void smallImportsSendOneEventPerDetaineeAndLargeOnesASummary() {
+        EventStreamService events = spy(service);
+
+        events.detaineesImported(detainees(8)); // half of the 16-event buffer
+        verify(events, times(8)).detaineeCreated(any(Detainee.class));
+
+        events.detaineesImported(detainees(9));
+        verify(events, times(8)).detaineeCreated(any(Detainee.class));
+        verify(events).publish(eq(EventStreamService.DETAINEES_IMPORTED), any(), isNull(), eq(Map.of("count", 9)));
+
+        events.detaineesImported(List.of());
+        verify(events, times(8)).detaineeCreated(any(Detainee.class));
+        verify(events).publish(eq(EventStreamService.DETAINEES_IMPORTED), any(), any(), any());
+    }
+
+    private static List<Detainee> detainees(int count) {
+        List<Detainee> detainees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Detainee detainee = new Detainee();
+            detainee.setId((long) i);
+            detainees.add(detainee);
+        }
+        return detainees;
+    }
+}
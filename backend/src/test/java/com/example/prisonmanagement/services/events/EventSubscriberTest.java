@@ -0,0 +1,136 @@
+package com.example.prisonmanagement.services.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSubscriberTest {
+
+    private final RecordingEmitter emitter = new RecordingEmitter();
+
+    @Test
+    void filtersOnRolesAndRequestedTypesButAlwaysTakesHeartbeats() {
+        EventSubscriber guard = new EventSubscriber(emitter, Set.of("ROLE_PERSONNEL"), Set.of(), 8);
+        EventSubscriber incidentsOnly = new EventSubscriber(emitter, Set.of("ROLE_ADMIN"), Set.of("incident-created"), 8);
+
+        assertThat(guard.accepts(event(1, "incident-created", null))).isTrue();
+        assertThat(guard.accepts(new StreamEvent(2, "incident-created", Set.of("ROLE_ADMIN"), null, null))).isFalse();
+        assertThat(incidentsOnly.accepts(event(3, "detainee-created", null))).isFalse();
+        assertThat(incidentsOnly.accepts(StreamEvent.HEARTBEAT)).isTrue();
+    }
+
+    @Test
+    void onlyTheFirstOfferSchedulesADrain() {
+        EventSubscriber subscriber = new EventSubscriber(emitter, Set.of("ROLE_ADMIN"), Set.of(), 8);
+
+        assertThat(subscriber.offer(event(1, "incident-created", null))).isTrue();
+        assertThat(subscriber.offer(event(2, "incident-created", null))).isFalse();
+        assertThat(subscriber.drain()).isFalse();
+        assertThat(emitter.sent).containsExactly("1:incident-created", "2:incident-created");
+
+        // The queue went idle: the next event needs a new drain
+        assertThat(subscriber.offer(event(3, "incident-created", null))).isTrue();
+    }
+
+    @Test
+    void eventsWithTheSameKeyAreCoalescedToTheLatest() {
+        EventSubscriber subscriber = new EventSubscriber(emitter, Set.of("ROLE_ADMIN"), Set.of(), 8);
+
+        subscriber.offer(event(1, "detainee-status-changed", "detainee-status:7"));
+        subscriber.offer(event(2, "incident-created", null));
+        subscriber.offer(event(3, "detainee-status-changed", "detainee-status:7"));
+        subscriber.offer(event(4, "detainee-status-changed", "detainee-status:8"));
+        subscriber.drain();
+
+        assertThat(emitter.sent).containsExactly("2:incident-created", "3:detainee-status-changed",
+                "4:detainee-status-changed");
+    }
+
+    @Test
+    void overflowDropsTheOldestAndAnnouncesAResync() {
+        EventSubscriber subscriber = new EventSubscriber(emitter, Set.of("ROLE_ADMIN"), Set.of(), 2);
+
+        for (int i = 1; i <= 5; i++) {
+            subscriber.offer(event(i, "incident-created", null));
+        }
+        subscriber.drain();
+
+        assertThat(emitter.sent).containsExactly("resync{dropped=3}", "4:incident-created", "5:incident-created");
+    }
+
+    @Test
+    void drainYieldsAfterABatch() {
+        EventSubscriber subscriber = new EventSubscriber(emitter, Set.of("ROLE_ADMIN"), Set.of(), 100);
+        for (int i = 1; i <= 40; i++) {
+            subscriber.offer(event(i, "incident-created", null));
+        }
+
+        assertThat(subscriber.drain()).isTrue();
+        assertThat(emitter.sent).hasSize(32);
+        assertThat(subscriber.drain()).isFalse();
+        assertThat(emitter.sent).hasSize(40);
+    }
+
+    @Test
+    void aFailedWriteClosesTheSubscriber() {
+        emitter.failing = true;
+        EventSubscriber subscriber = new EventSubscriber(emitter, Set.of("ROLE_ADMIN"), Set.of(), 8);
+        subscriber.offer(event(1, "incident-created", null));
+        subscriber.offer(event(2, "incident-created", null));
+
+        assertThat(subscriber.drain()).isFalse();
+        assertThat(subscriber.isClosed()).isTrue();
+        assertThat(subscriber.offer(event(3, "incident-created", null))).isFalse();
+    }
+
+    private static StreamEvent event(long id, String name, String coalesceKey) {
+        return new StreamEvent(id, name, Set.of("ROLE_ADMIN", "ROLE_PERSONNEL"), coalesceKey, Map.of("id", id));
+    }
+
+    // Records "<id>:<name>" per event, "resync{...}" for resyncs and "ping" for heartbeats
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("connexion fermée");
+            }
+            StringBuilder text = new StringBuilder();
+            Object payload = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String) {
+                    text.append(part.getData());
+                } else {
+                    payload = part.getData();
+                }
+            }
+            sent.add(describe(text.toString(), payload));
+        }
+
+        private static String describe(String text, Object payload) {
+            if (text.startsWith(":")) {
+                return "ping";
+            }
+            String id = null;
+            String name = null;
+            for (String line : text.split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                }
+            }
+            return id == null ? name + payload : id + ":" + name;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.prisonmanagement.services.export;
+
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.IncidentRepository;
+import com.example.prisonmanagement.repositories.projections.IncidentView;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+
+    private final IncidentRepository incidentRepository = mock(IncidentRepository.class);
+    private final ExportService service = new ExportService(mock(DetaineeRepository.class), incidentRepository,
+            JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    void ndjsonWritesOneObjectPerLineInColumnOrder() throws Exception {
+        List<IncidentView> rows = List.of(incident(1L, "Bagarre"), incident(2L, "Fouille"));
+        when(incidentRepository.streamAllForExport()).thenReturn(rows.stream());
+
+        service.exportIncidents(ExportFormat.NDJSON, out);
+
+        assertThat(text().split("\n", -1)).containsExactly(
+                "{\"id\":1,\"type\":\"Bagarre\",\"date\":\"2024-05-01T10:30:00\",\"location\":\"Bloc A, cour\","
+                        + "\"gravity\":null,\"description\":\"Il a dit \\\"non\\\"\",\"detaineeId\":7,"
+                        + "\"detaineeLastName\":\"Diallo\",\"detaineeFirstName\":\"Amadou\"}",
+                "{\"id\":2,\"type\":\"Fouille\",\"date\":\"2024-05-01T10:30:00\",\"location\":\"Bloc A, cour\","
+                        + "\"gravity\":null,\"description\":\"Il a dit \\\"non\\\"\",\"detaineeId\":7,"
+                        + "\"detaineeLastName\":\"Diallo\",\"detaineeFirstName\":\"Amadou\"}",
+                "");
+    }
+
+    @Test
+    void firstRowIsFlushedBeforeTheCursorIsAskedForMore() throws Exception {
+        assertFirstLineSentBeforeSecondRow(ExportFormat.NDJSON, "{\"id\":1,");
+        out.reset();
+        assertFirstLineSentBeforeSecondRow(ExportFormat.CSV, "id,type,date,");
+    }
+
+    @Test
+    void csvQuotesOnlyWhenNeededAndLeavesNullsEmpty() throws Exception {
+        List<IncidentView> rows = List.of(incident(1L, "Bagarre"));
+        when(incidentRepository.streamAllForExport()).thenReturn(rows.stream());
+
+        service.exportIncidents(ExportFormat.CSV, out);
+
+        assertThat(text()).isEqualTo(
+                "id,type,date,location,gravity,description,detaineeId,detaineeLastName,detaineeFirstName\r\n"
+                        + "1,Bagarre,2024-05-01T10:30,\"Bloc A, cour\",,\"Il a dit \"\"non\"\"\",7,Diallo,Amadou\r\n");
+    }
+
+    @Test
+    void emptyTables() throws Exception {
+        when(incidentRepository.streamAllForExport()).thenReturn(Stream.empty()).thenReturn(Stream.empty());
+
+        service.exportIncidents(ExportFormat.NDJSON, out);
+        assertThat(text()).isEmpty();
+
+        service.exportIncidents(ExportFormat.CSV, out);
+        assertThat(text()).isEqualTo(
+                "id,type,date,location,gravity,description,detaineeId,detaineeLastName,detaineeFirstName\r\n");
+    }
+
+    @Test
+    void formatsAreParsedCaseInsensitively() {
+        assertThat(ExportFormat.from("CSV")).isEqualTo(ExportFormat.CSV);
+        assertThat(ExportFormat.from("ndjson")).isEqualTo(ExportFormat.NDJSON);
+        assertThatThrownBy(() -> ExportFormat.from("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertFirstLineSentBeforeSecondRow(ExportFormat format, String expectedStart) throws Exception {
+        IncidentView first = incident(1L, "Bagarre");
+        IncidentView second = incident(2L, "Fouille");
+        List<String> sentBeforeSecondRow = new ArrayList<>();
+        when(incidentRepository.streamAllForExport()).thenReturn(Stream.of(1, 2).map(i -> {
+            if (i == 1) {
+                return first;
+            }
+            sentBeforeSecondRow.add(text());
+            return second;
+        }));
+
+        service.exportIncidents(format, out);
+
+        assertThat(sentBeforeSecondRow).singleElement().asString().startsWith(expectedStart);
+    }
+
+    private String text() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static IncidentView incident(Long id, String type) {
+        IncidentView view = mock(IncidentView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getType()).thenReturn(type);
+        when(view.getDate()).thenReturn(LocalDateTime.of(2024, 5, 1, 10, 30));
+        when(view.getLocation()).thenReturn("Bloc A, cour");
+        when(view.getDescription()).thenReturn("Il a dit \"non\"");
+        when(view.getDetaineeId()).thenReturn(7L);
+        when(view.getDetaineeLastName()).thenReturn("Diallo");
+        when(view.getDetaineeFirstName()).thenReturn("Amadou");
+        return view;
+    }
+}
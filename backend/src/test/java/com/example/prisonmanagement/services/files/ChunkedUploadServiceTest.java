@@ -0,0 +1,209 @@
+package com.example.prisonmanagement.services.files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChunkedUploadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij"; // 20 bytes, chunks of 8
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void chunksInAnyOrderAreAssembledIntoTheBlobStore() throws Exception {
+        FileStorageService storage = new FileStorageService(uploadDir.toString());
+        ChunkedUploadService service = new ChunkedUploadService(storage, 8, 1000, 60_000);
+        UploadSession session = service.initiate("agent", "scan.pdf", CONTENT.length());
+
+        write(service, session, 16);
+        write(service, session, 0);
+        assertThat(session.getMissingOffsets()).containsExactly(8L);
+        assertThat(session.getReceivedBytes()).isEqualTo(12);
+        write(service, session, 8);
+
+        String blob = service.complete(session, sha256(CONTENT));
+
+        assertThat(blob).isEqualTo("/blobs/" + sha256(CONTENT).substring(0, 2) + "/" + sha256(CONTENT) + ".pdf");
+        assertThat(Files.readString(uploadDir.resolve(blob.substring(1)))).isEqualTo(CONTENT);
+        assertThat(service.find(session.getId(), "agent")).isEmpty();
+    }
+
+    @Test
+    void badChunksAreNotCountedAndIncompleteUploadsCannotComplete() throws Exception {
+        ChunkedUploadService service = new ChunkedUploadService(new FileStorageService(uploadDir.toString()), 8, 1000, 60_000);
+        UploadSession session = service.initiate("agent", "scan.pdf", CONTENT.length());
+
+        assertThatThrownBy(() -> service.writeChunk(session, 0, stream("01234567"), sha256("autre")))
+                .hasMessage("somme de contrôle du bloc incorrecte");
+        assertThatThrownBy(() -> service.writeChunk(session, 0, stream("0123456789"), sha256("0123456789")))
+                .hasMessageContaining("dépasse la taille attendue");
+        assertThatThrownBy(() -> service.writeChunk(session, 3, stream("x"), sha256("x")))
+                .hasMessageContaining("offset invalide");
+        assertThat(session.getReceivedBytes()).isZero();
+
+        assertThatThrownBy(() -> service.complete(session, null)).hasMessage("blocs manquants : 3");
+        assertThat(service.find(session.getId(), "agent")).isPresent();
+        assertThat(service.find(session.getId(), "autre")).isEmpty();
+    }
+
+    @Test
+    void completionIsRefusedWhileAChunkIsBeingWritten() throws Exception {
+        ChunkedUploadService service = new ChunkedUploadService(new FileStorageService(uploadDir.toString()), 8, 1000, 60_000);
+        UploadSession session = service.initiate("agent", "scan.pdf", CONTENT.length());
+        writeAll(service, session);
+        AtomicReference<Throwable> refused = new AtomicReference<>();
+
+        // The client resends chunk 0 and calls complete before that resend is finished
+        service.writeChunk(session, 0, new ByteArrayInputStream(bytes("01234567")) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (refused.get() == null) {
+                    try {
+                        service.complete(session, null);
+                    } catch (Throwable t) {
+                        refused.set(t);
+                    }
+                }
+                return super.read(b, off, len);
+            }
+        }, sha256("01234567"));
+
+        assertThat(refused.get()).isInstanceOf(IllegalStateException.class)
+                .hasMessage("envoi déjà en cours de finalisation");
+        assertThat(service.find(session.getId(), "agent")).isPresent();
+    }
+
+    @Test
+    void noChunkCanStartOnceCompletionHasBegun() throws Exception {
+        FileStorageService storage = mock(FileStorageService.class);
+        when(storage.newTempFile(anyString())).thenAnswer(invocation -> Files.createTempFile(uploadDir, "chunked-", ".part"));
+        ChunkedUploadService service = new ChunkedUploadService(storage, 8, 1000, 60_000);
+        UploadSession session = service.initiate("agent", "scan.pdf", CONTENT.length());
+        writeAll(service, session);
+        AtomicReference<Throwable> refused = new AtomicReference<>();
+        // A chunk arriving while the assembled file is hashed and committed must be turned away
+        doAnswer(invocation -> {
+            try {
+                write(service, session, 8);
+            } catch (Throwable t) {
+                refused.set(t);
+            }
+            return "/blobs/ab/ab.pdf";
+        }).when(storage).storeAssembled(any(Path.class), anyString(), anyString());
+
+        assertThat(service.complete(session, sha256(CONTENT))).isEqualTo("/blobs/ab/ab.pdf");
+
+        assertThat(refused.get()).isInstanceOf(IllegalStateException.class)
+                .hasMessage("envoi déjà en cours de finalisation");
+        assertThat(session.beginChunk(0)).isFalse();
+        assertThat(session.beginCompletion()).isFalse();
+    }
+
+    @Test
+    void abortIsRefusedWhileAChunkIsBeingWritten() throws Exception {
+        ChunkedUploadService service = new ChunkedUploadService(new FileStorageService(uploadDir.toString()), 8, 1000, 60_000);
+        UploadSession session = service.initiate("agent", "scan.pdf", CONTENT.length());
+        AtomicReference<Throwable> refused = new AtomicReference<>();
+
+        service.writeChunk(session, 0, whileReading(() -> service.abort(session), refused), sha256("01234567"));
+
+        assertThat(refused.get()).isInstanceOf(IllegalStateException.class)
+                .hasMessage("un bloc est en cours d'envoi, réessayez");
+        assertThat(session.getReceivedBytes()).isEqualTo(8);
+
+        service.abort(session);
+
+        assertThat(service.find(session.getId(), "agent")).isEmpty();
+        assertThat(Files.exists(session.file)).isFalse();
+        assertThatThrownBy(() -> write(service, session, 8)).isInstanceOf(IllegalStateException.class)
+                .hasMessage("envoi annulé");
+        assertThatThrownBy(() -> service.abort(session)).hasMessage("envoi déjà annulé");
+    }
+
+    @Test
+    void purgeLeavesSessionsWithAChunkInFlight() throws Exception {
+        // Negative TTL: every session is past its deadline
+        ChunkedUploadService service = new ChunkedUploadService(new FileStorageService(uploadDir.toString()), 8, 1000, -60_000);
+        UploadSession session = service.initiate("agent", "scan.pdf", CONTENT.length());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        service.writeChunk(session, 0, whileReading(service::purgeAbandoned, failure), sha256("01234567"));
+
+        assertThat(failure.get()).isNull();
+        assertThat(service.find(session.getId(), "agent")).isPresent();
+        assertThat(session.getReceivedBytes()).isEqualTo(8);
+
+        service.purgeAbandoned();
+
+        assertThat(service.find(session.getId(), "agent")).isEmpty();
+        assertThat(Files.exists(session.file)).isFalse();
+        assertThat(session.beginChunk(1)).isFalse();
+    }
+
+    // Chunk "01234567" whose first read runs the action, as a concurrent request would
+    private static InputStream whileReading(Runnable action, AtomicReference<Throwable> thrown) {
+        return new ByteArrayInputStream(bytes("01234567")) {
+            private boolean ran;
+
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (!ran) {
+                    ran = true;
+                    try {
+                        action.run();
+                    } catch (Throwable t) {
+                        thrown.set(t);
+                    }
+                }
+                return super.read(b, off, len);
+            }
+        };
+    }
+
+    private static void writeAll(ChunkedUploadService service, UploadSession session) throws IOException {
+        for (long offset = 0; offset < CONTENT.length(); offset += 8) {
+            write(service, session, offset);
+        }
+    }
+
+    private static void write(ChunkedUploadService service, UploadSession session, long offset) throws IOException {
+        String chunk = CONTENT.substring((int) offset, (int) Math.min(offset + 8, CONTENT.length()));
+        service.writeChunk(session, offset, stream(chunk), sha256(chunk));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(bytes(text));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes(text)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
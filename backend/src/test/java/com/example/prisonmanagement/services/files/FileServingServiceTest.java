@@ -0,0 +1,180 @@
+package com.example.prisonmanagement.services.files;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileServingServiceTest {
+
+    private static final String NAME = "rapport.txt";
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path uploadDir;
+
+    private FileServingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(uploadDir.resolve(NAME), CONTENT, StandardCharsets.UTF_8);
+        service = new FileServingService(uploadDir.toString());
+    }
+
+    @Test
+    void fullDownloadCarriesValidators() throws Exception {
+        MockHttpServletResponse response = get(null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+        assertThat(response.getHeader("ETag")).matches("\"[0-9a-f]{64}\"");
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("private, no-cache");
+    }
+
+    @Test
+    void singleRangesAreServedAsPartialContent() throws Exception {
+        assertPartial("bytes=2-4", "234", "bytes 2-4/10");
+        assertPartial("bytes=7-", "789", "bytes 7-9/10");
+        assertPartial("bytes=-3", "789", "bytes 7-9/10");
+        assertPartial("bytes=8-100", "89", "bytes 8-9/10");
+        assertPartial("bytes=-100", CONTENT, "bytes 0-9/10");
+    }
+
+    @Test
+    void positionsBeyondALongAreClampedInsteadOfFailing() throws Exception {
+        String huge = "9".repeat(25);
+
+        assertPartial("bytes=4-" + huge, "456789", "bytes 4-9/10");
+        assertPartial("bytes=-" + huge, CONTENT, "bytes 0-9/10");
+        assertUnsatisfiable("bytes=" + huge + "-");
+        assertUnsatisfiable("bytes=" + huge + "-" + huge);
+    }
+
+    @Test
+    void unsatisfiableRangesAnswer416() throws Exception {
+        assertUnsatisfiable("bytes=10-");
+        assertUnsatisfiable("bytes=5-2");
+        assertUnsatisfiable("bytes=-0");
+    }
+
+    @Test
+    void malformedOrMultipleRangesFallBackToTheWholeFile() throws Exception {
+        for (String range : new String[]{"bytes=-", "bytes=0-1,4-5", "items=0-1", "bytes=a-b"}) {
+            MockHttpServletResponse response = get(range);
+            assertThat(response.getStatus()).as(range).isEqualTo(200);
+            assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void staleIfRangeIgnoresTheRangeAndMatchingIfNoneMatchAnswers304() throws Exception {
+        String etag = get(null).getHeader("ETag");
+
+        MockHttpServletRequest stale = request("bytes=0-1");
+        stale.addHeader("If-Range", "\"autre\"");
+        MockHttpServletResponse full = new MockHttpServletResponse();
+        service.serve(NAME, stale, full);
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(full.getContentAsString()).isEqualTo(CONTENT);
+
+        MockHttpServletRequest revalidate = request(null);
+        revalidate.addHeader("If-None-Match", "W/" + etag);
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        service.serve(NAME, revalidate, notModified);
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void blobsAreImmutableButTheirVariantsRevalidateOnTheirOwnContent() throws Exception {
+        String hash = "ab".repeat(32);
+        Files.createDirectories(uploadDir.resolve("blobs/ab"));
+        Files.writeString(uploadDir.resolve("blobs/ab/" + hash + ".jpg"), "source");
+        Path variant = Files.createDirectories(uploadDir.resolve("derived/thumb/blobs/ab")).resolve(hash + ".jpg");
+        Files.writeString(variant, "thumb v1");
+
+        MockHttpServletResponse blob = serve("blobs/ab/" + hash + ".jpg", request(null));
+        assertThat(blob.getHeader("ETag")).isEqualTo("\"" + hash + "\"");
+        assertThat(blob.getHeader("Cache-Control")).isEqualTo("private, max-age=31536000, immutable");
+
+        MockHttpServletResponse first = serve("derived/thumb/blobs/ab/" + hash + ".jpg", request(null));
+        String firstTag = first.getHeader("ETag");
+        assertThat(firstTag).isNotEqualTo("\"" + hash + "\"").matches("\"[0-9a-f]{64}\"");
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("private, no-cache");
+
+        // Regenerated with other settings: a new validator, and a range of the old bytes is not resumed
+        Files.writeString(variant, "thumb v2, other quality");
+        MockHttpServletRequest resume = request("bytes=0-1");
+        resume.addHeader("If-Range", firstTag);
+        MockHttpServletResponse second = serve("derived/thumb/blobs/ab/" + hash + ".jpg", resume);
+        assertThat(second.getHeader("ETag")).isNotEqualTo(firstTag);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getContentAsString()).isEqualTo("thumb v2, other quality");
+    }
+
+    @Test
+    void contentTagsOfDeletedFilesAreDropped() throws Exception {
+        get(null);
+        assertThat(service.cachedTagCount()).isEqualTo(1);
+
+        Files.delete(uploadDir.resolve(NAME));
+
+        assertThat(get(null).getStatus()).isEqualTo(404);
+        assertThat(service.cachedTagCount()).isZero();
+    }
+
+    @Test
+    void traversalAndInternalFilesAreNotFound() throws Exception {
+        Files.createDirectories(uploadDir.resolve(".tmp"));
+        Files.writeString(uploadDir.resolve(".tmp/upload-1.part"), "x");
+        Files.writeString(uploadDir.resolve("blob-index.ndjson"), "{}");
+
+        for (String path : new String[]{"../" + NAME, ".tmp/upload-1.part",
+                "blob-index.ndjson", "absent.txt"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            service.serve(path, request(null), response);
+            assertThat(response.getStatus()).as(path).isEqualTo(404);
+        }
+    }
+
+    private void assertPartial(String range, String body, String contentRange) throws Exception {
+        MockHttpServletResponse response = get(range);
+        assertThat(response.getStatus()).as(range).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo(contentRange);
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    private void assertUnsatisfiable(String range) throws Exception {
+        MockHttpServletResponse response = get(range);
+        assertThat(response.getStatus()).as(range).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+    }
+
+    private MockHttpServletResponse serve(String path, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(path, request, response);
+        return response;
+    }
+
+    private MockHttpServletResponse get(String range) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(NAME, request(range), response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + NAME);
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+        return request;
+    }
+}
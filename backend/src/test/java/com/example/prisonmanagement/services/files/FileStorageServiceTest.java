@@ -0,0 +1,70 @@
+package com.example.prisonmanagement.services.files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileStorageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void identicalContentIsStoredOnceUnderItsHash() throws Exception {
+        FileStorageService service = new FileStorageService(uploadDir.toString());
+
+        String first = service.storeStream(stream("photo"), "Diallo.JPG");
+        String second = service.storeStream(stream("photo"), "copie.jpg");
+        String other = service.storeStream(stream("autre"), "Ba.jpg");
+
+        assertThat(first).isEqualTo(second).matches("/blobs/([0-9a-f]{2})/\\1[0-9a-f]{62}\\.jpg");
+        assertThat(other).isNotEqualTo(first);
+        assertThat(Files.readString(uploadDir.resolve(first.substring(1)))).isEqualTo("photo");
+        assertThat(service.getOriginalNames(first)).containsExactlyInAnyOrder("Diallo.JPG", "copie.jpg");
+        try (Stream<Path> temps = Files.list(uploadDir.resolve(".tmp"))) {
+            assertThat(temps).isEmpty();
+        }
+    }
+
+    @Test
+    void originalNamesSurviveARestartWithoutDuplicateIndexLines() throws Exception {
+        FileStorageService service = new FileStorageService(uploadDir.toString());
+        String blob = service.storeStream(stream("photo"), "Diallo.jpg");
+        service.storeStream(stream("photo"), "Diallo.jpg");
+
+        FileStorageService restarted = new FileStorageService(uploadDir.toString());
+
+        assertThat(restarted.getOriginalNames(blob)).containsExactly("Diallo.jpg");
+        assertThat(Files.readAllLines(uploadDir.resolve("blob-index.ndjson"))).hasSize(1);
+    }
+
+    @Test
+    void unsafeExtensionsAreDropped() throws Exception {
+        FileStorageService service = new FileStorageService(uploadDir.toString());
+
+        assertThat(service.storeStream(stream("a"), "rapport")).doesNotContain(".");
+        assertThat(service.storeStream(stream("b"), "x.p hp")).doesNotContain(".");
+        assertThat(service.storeStream(stream("c"), "scan.PDF")).endsWith(".pdf");
+    }
+
+    @Test
+    void pathTraversalIsRejected() {
+        FileStorageService service = new FileStorageService(uploadDir.toString());
+
+        assertThatThrownBy(() -> service.storeFile(new MockMultipartFile("file", "../../etc/passwd", null, new byte[1])))
+                .hasMessageContaining("invalid path sequence");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
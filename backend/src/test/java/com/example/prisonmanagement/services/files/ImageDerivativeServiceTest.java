@@ -0,0 +1,99 @@
+package com.example.prisonmanagement.services.files;
+
+import com.example.prisonmanagement.services.files.ImageDerivativeService.Variant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ImageDerivativeService(uploadDir.toString(), 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void variantsAreScaledToTheirBoxKeepingTheAspectRatio() throws Exception {
+        image("blobs/ab/photo.png", 2000, 1000);
+
+        assertThat(service.variant("/blobs/ab/photo.png", Variant.THUMB)).contains("derived/thumb/blobs/ab/photo.jpg");
+        assertThat(service.variant("blobs/ab/photo.png", Variant.MEDIUM)).contains("derived/medium/blobs/ab/photo.jpg");
+        assertSize("derived/thumb/blobs/ab/photo.jpg", 160, 80);
+        assertSize("derived/medium/blobs/ab/photo.jpg", 640, 320);
+    }
+
+    @Test
+    void smallImagesAreNotUpscaled() throws Exception {
+        image("petit.gif", 100, 50);
+
+        assertThat(service.variant("petit.gif", Variant.MEDIUM)).isPresent();
+        assertSize("derived/medium/petit.jpg", 100, 50);
+    }
+
+    @Test
+    void existingVariantIsReusedAsIs() throws Exception {
+        image("photo.png", 400, 400);
+        service.variant("photo.png", Variant.THUMB);
+        Path thumb = uploadDir.resolve("derived/thumb/photo.jpg");
+        Files.write(thumb, new byte[]{1, 2, 3});
+
+        assertThat(service.variant("photo.png", Variant.THUMB)).isPresent();
+        assertThat(Files.readAllBytes(thumb)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void nonImagesUnreadableFilesAndPathsOutsideTheUploadsHaveNoVariant() throws Exception {
+        Files.writeString(uploadDir.resolve("rapport.pdf"), "%PDF");
+        Files.writeString(uploadDir.resolve("faux.jpg"), "pas une image");
+        image("photo.png", 400, 400);
+        service.variant("photo.png", Variant.THUMB);
+
+        assertThat(service.variant("rapport.pdf", Variant.THUMB)).isEmpty();
+        assertThat(service.variant("faux.jpg", Variant.THUMB)).isEmpty();
+        assertThat(service.variant("absent.png", Variant.THUMB)).isEmpty();
+        assertThat(service.variant("../photo.png", Variant.THUMB)).isEmpty();
+        assertThat(service.variant("derived/thumb/photo.jpg", Variant.THUMB)).isEmpty();
+        try (Stream<Path> temps = Files.list(uploadDir.resolve(".tmp"))) {
+            assertThat(temps).isEmpty();
+        }
+    }
+
+    @Test
+    void variantNamesAreParsed() {
+        assertThat(Variant.from("thumb")).contains(Variant.THUMB);
+        assertThat(Variant.from("medium")).contains(Variant.MEDIUM);
+        assertThat(Variant.from("THUMB")).isEmpty();
+    }
+
+    private void image(String relative, int width, int height) throws Exception {
+        Path file = uploadDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        String format = relative.substring(relative.lastIndexOf('.') + 1);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, file.toFile());
+    }
+
+    private void assertSize(String relative, int width, int height) throws Exception {
+        BufferedImage image = ImageIO.read(uploadDir.resolve(relative).toFile());
+        assertThat(image.getWidth()).isEqualTo(width);
+        assertThat(image.getHeight()).isEqualTo(height);
+    }
+}
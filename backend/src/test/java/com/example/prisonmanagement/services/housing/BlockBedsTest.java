@@ -0,0 +1,137 @@
+package com.example.prisonmanagement.services.housing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockBedsTest {
+
+    // Cells of 60, 10 and 64 beds: the second one straddles words 0 and 1, the third words 1 and 2
+    private final BlockBeds block = new BlockBeds(1L, "B", "Quartier hommes", "Moyen", 1)
+            .withCell(11L, "B-101", 60)
+            .withCell(12L, "B-102", 10)
+            .withCell(13L, "B-103", 64);
+
+    @Test
+    void maskKeepsTheBedsOfTheRangeFallingInTheWord() {
+        assertThat(BlockBeds.mask(0, 0, 64)).isEqualTo(-1L);
+        assertThat(BlockBeds.mask(0, 3, 5)).isEqualTo(0b11000L);
+        assertThat(BlockBeds.mask(0, 60, 70)).isEqualTo(0xF000000000000000L);
+        assertThat(BlockBeds.mask(1, 60, 70)).isEqualTo(0b111111L);
+        assertThat(BlockBeds.mask(1, 0, 200)).isEqualTo(-1L);
+        assertThat(BlockBeds.mask(1, 64, 65)).isEqualTo(1L);
+        assertThat(BlockBeds.mask(1, 127, 128)).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void layoutOffsetsAndCellLookup() {
+        assertThat(block.capacity()).isEqualTo(134);
+        assertThat(block.offsets).containsExactly(0, 60, 70, 134);
+        assertThat(block.capacity(1)).isEqualTo(10);
+        assertThat(block.cellOf(0)).isZero();
+        assertThat(block.cellOf(59)).isZero();
+        assertThat(block.cellOf(60)).isEqualTo(1);
+        assertThat(block.cellOf(63)).isEqualTo(1);
+        assertThat(block.cellOf(64)).isEqualTo(1);
+        assertThat(block.cellOf(70)).isEqualTo(2);
+        assertThat(block.cellOf(133)).isEqualTo(2);
+    }
+
+    @Test
+    void claimingACellStaysInsideItAcrossTheWordBoundary() {
+        List<Integer> beds = new ArrayList<>();
+        int bed;
+        while ((bed = block.claimInCell(1)) >= 0) {
+            beds.add(bed);
+        }
+
+        assertThat(beds).containsExactly(60, 61, 62, 63, 64, 65, 66, 67, 68, 69);
+        assertThat(block.occupied(0)).isZero();
+        assertThat(block.occupied(1)).isEqualTo(10);
+        assertThat(block.occupied(2)).isZero();
+        assertThat(block.claimAny()).isZero();
+    }
+
+    @Test
+    void claimAnySkipsFullWordsAndReturnsMinusOneWhenFull() {
+        for (int i = 0; i < 70; i++) {
+            assertThat(block.claimAny()).isEqualTo(i);
+        }
+        assertThat(block.claimInCell(0)).isEqualTo(-1);
+        assertThat(block.claimAny()).isEqualTo(70);
+
+        block.release(63);
+        assertThat(block.claimAny()).isEqualTo(63);
+        for (int i = 71; i < 134; i++) {
+            assertThat(block.claimAny()).isEqualTo(i);
+        }
+        assertThat(block.claimAny()).isEqualTo(-1);
+        assertThat(block.occupied()).isEqualTo(134);
+    }
+
+    @Test
+    void claimAndReleaseOfKnownBeds() {
+        assertThat(block.claim(63)).isTrue(); // sign bit of word 0
+        assertThat(block.claim(63)).isFalse();
+        assertThat(block.claim(64)).isTrue();
+        assertThat(block.claim(127)).isTrue();
+        assertThat(block.occupied(1)).isEqualTo(2);
+        assertThat(block.occupied(2)).isEqualTo(1);
+
+        block.release(63);
+        block.release(63); // releasing a free bed changes nothing
+        assertThat(block.occupied()).isEqualTo(2);
+        assertThat(block.claimInCell(1)).isEqualTo(60);
+    }
+
+    @Test
+    void addingACellKeepsTheOccupiedBeds() {
+        block.claim(5);
+        block.claim(133);
+
+        BlockBeds grown = block.withCell(14L, "B-104", 2);
+
+        assertThat(grown.capacity()).isEqualTo(136);
+        assertThat(grown.occupied()).isEqualTo(2);
+        assertThat(grown.claim(133)).isFalse();
+        assertThat(grown.claimInCell(3)).isEqualTo(134);
+        assertThat(block.occupied()).isEqualTo(2); // the old layout is not touched
+    }
+
+    @Test
+    void concurrentClaimsNeverHandOutTheSameBed() throws Exception {
+        Set<Integer> claimed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                counts.add(executor.submit(() -> {
+                    int count = 0;
+                    int bed;
+                    while ((bed = block.claimAny()) >= 0) {
+                        assertThat(claimed.add(bed)).isTrue();
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> count : counts) {
+                total += count.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(134);
+            assertThat(claimed).hasSize(134);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
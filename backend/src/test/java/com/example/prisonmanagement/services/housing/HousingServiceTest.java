@@ -0,0 +1,83 @@
+package com.example.prisonmanagement.services.housing;
+
+import com.example.prisonmanagement.models.CellAssignment;
+import com.example.prisonmanagement.models.CellBlock;
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.payload.request.AssignmentRequest;
+import com.example.prisonmanagement.payload.response.AssignmentResponse;
+import com.example.prisonmanagement.repositories.CellAssignmentRepository;
+import com.example.prisonmanagement.repositories.CellBlockRepository;
+import com.example.prisonmanagement.repositories.CellRepository;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HousingServiceTest {
+
+    private final CellBlockRepository blockRepository = mock(CellBlockRepository.class);
+    private final CellRepository cellRepository = mock(CellRepository.class);
+    private final CellAssignmentRepository assignmentRepository = mock(CellAssignmentRepository.class);
+    private final DetaineeRepository detaineeRepository = mock(DetaineeRepository.class);
+    private final HousingService service = new HousingService(blockRepository, cellRepository,
+            assignmentRepository, detaineeRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(blockRepository.findAll()).thenReturn(List.of(new CellBlock(1L, "B", "Quartier hommes", "Élevé")));
+        when(cellRepository.findLayout()).thenReturn(List.<Object[]>of(new Object[]{11L, 1L, "B-101", 2}));
+        Detainee detainee = new Detainee();
+        detainee.setId(7L);
+        detainee.setSecurityLevel("Moyen");
+        when(detaineeRepository.findById(7L)).thenReturn(Optional.of(detainee));
+        service.rebuild();
+    }
+
+    @Test
+    void assignTakesTheFirstFreeBed() {
+        when(assignmentRepository.save(any(CellAssignment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AssignmentResponse response = service.assign(request());
+
+        assertThat(response.getCellNumber()).isEqualTo("B-101");
+        assertThat(response.getBed()).isZero();
+        assertThat(service.occupancy(false).getOccupied()).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateAssignmentGivesTheBedBack() {
+        when(assignmentRepository.save(any(CellAssignment.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_affectations_detainee"));
+
+        assertThatThrownBy(() -> service.assign(request()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Erreur : Le détenu est déjà affecté à une cellule.");
+        assertThat(service.occupancy(false).getOccupied()).isZero();
+    }
+
+    @Test
+    void anyFailedSaveGivesTheBedBack() {
+        when(assignmentRepository.save(any(CellAssignment.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThatThrownBy(() -> service.assign(request())).isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(() -> service.assign(request())).isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(() -> service.assign(request())).isInstanceOf(QueryTimeoutException.class);
+        assertThat(service.occupancy(false).getOccupied()).isZero();
+    }
+
+    private static AssignmentRequest request() {
+        AssignmentRequest request = new AssignmentRequest();
+        request.setDetaineeId(7L);
+        return request;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.prisonmanagement.services.imports;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecordsWithAnyLineEnding() throws IOException {
+        assertThat(readAll("a,b,c\r\n1,2,3\n4,,6")).containsExactly(
+                List.of("a", "b", "c"), List.of("1", "2", "3"), List.of("4", "", "6"));
+    }
+
+    @Test
+    void quotedFieldsKeepSeparatorsLineBreaksAndDoubledQuotes() throws IOException {
+        assertThat(readAll("\"Diallo, Amadou\",\"ligne 1\r\nligne 2\",\"dit \"\"non\"\"\"\r\nx,\"\",y\r\n"))
+                .containsExactly(List.of("Diallo, Amadou", "ligne 1\r\nligne 2", "dit \"non\""), List.of("x", "", "y"));
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsKeptAsIs() throws IOException {
+        assertThat(readAll("N'Diaye,12\"")).containsExactly(List.of("N'Diaye", "12\""));
+    }
+
+    @Test
+    void blankLineIsASingleEmptyField() throws IOException {
+        assertThat(readAll("a\n\nb\n")).containsExactly(List.of("a"), List.of(""), List.of("b"));
+    }
+
+    @Test
+    void emptyInputHasNoRecord() throws IOException {
+        assertThat(new CsvReader(new StringReader("")).readRecord()).isNull();
+    }
+
+    @Test
+    void unclosedQuoteFails() {
+        assertThatThrownBy(() -> readAll("a,\"b\nc")).isInstanceOf(IOException.class)
+                .hasMessageContaining("Guillemet non fermé");
+    }
+
+    private static List<List<String>> readAll(String text) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(text));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
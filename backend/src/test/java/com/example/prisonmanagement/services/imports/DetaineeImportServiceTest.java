@@ -0,0 +1,153 @@
+package com.example.prisonmanagement.services.imports;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.payload.response.ImportReportResponse;
+import com.example.prisonmanagement.payload.response.ImportReportResponse.RowError;
+import com.example.prisonmanagement.services.audit.AuditLogService;
+import com.example.prisonmanagement.services.events.EventStreamService;
+import com.example.prisonmanagement.services.releases.ReleaseTimerService;
+import com.example.prisonmanagement.services.search.DetaineeSearchService;
+import com.example.prisonmanagement.services.stats.DashboardStatsService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DetaineeImportServiceTest {
+
+    private static final String HEADER = "lastName,firstName,birthDate,detentionType,arrivalDate";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EventStreamService eventStreamService = mock(EventStreamService.class);
+    private final DetaineeImportService service = new DetaineeImportService(jdbcTemplate,
+            JsonMapper.builder().findAndAddModules().build(), mock(DetaineeSearchService.class),
+            mock(DashboardStatsService.class), mock(AuditLogService.class), mock(ReleaseTimerService.class),
+            eventStreamService);
+
+    private final List<String> insertedLastNames = new ArrayList<>();
+    private int keysMissing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        // Core rows: record the bound last names and hand back one generated id per row
+        doAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keyHolder = invocation.getArgument(2);
+            PreparedStatement ps = mock(PreparedStatement.class);
+            doAnswer(bind -> insertedLastNames.add(bind.getArgument(1))).when(ps).setObject(eq(1), any());
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                setter.setValues(ps, i);
+                if (i < setter.getBatchSize() - keysMissing) {
+                    keyHolder.getKeyList().add(Map.of("id", 100L + i));
+                }
+            }
+            return new int[setter.getBatchSize()];
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void rowsTheDatabaseWouldRefuseAreReportedAndTheOthersInserted() throws Exception {
+        String longText = "x".repeat(256);
+        ImportReportResponse report = importCsv(HEADER + ",offenses,familyContactsJson,securityLevel",
+                "Diallo,Amadou,1990-01-01,Préventive,2024-01-01,\"" + longText + "\",,",
+                longText + ",Amadou,1990-01-01,Préventive,2024-01-01,,,",
+                "Ba,Moussa,1990-01-01,Préventive,2024-01-01,,,Moy\u0000en",
+                "Sy,Awa,+10000-01-01,Préventive,2024-01-01,,,",
+                "Fall,,1990-01-01,Préventive,,,,",
+                "Kane,Ali,1990-01-01,Préventive,2024-01-01,,pas du json,",
+                "Ndiaye,Ali,1990-01-01,Préventive,2024-01-01,,\"[{\"\"name\"\":\"\"A\\u0000B\"\"}]\",",
+                "Camara,Binta,1990-01-01,Préventive,2024-01-01,,\"[{\"\"name\"\":\"\" Mère \"\"}]\",Élevé");
+
+        assertThat(report.getTotalRows()).isEqualTo(8);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(insertedLastNames).containsExactly("Diallo", "Camara");
+        assertThat(report.getErrors()).extracting(RowError::getRow).containsExactly(2, 3, 4, 5, 6, 7);
+        assertThat(report.getErrors()).extracting(RowError::getMessage).containsExactly(
+                "Valeur trop longue pour lastName (255 caractères au plus)",
+                "Caractère nul interdit dans securityLevel",
+                "Date hors limites pour birthDate",
+                "Champs obligatoires manquants : firstName, arrivalDate",
+                "Contacts familiaux invalides : tableau JSON attendu",
+                "Caractère nul interdit dans familyContactsJson");
+    }
+
+    @Test
+    void unparsableDatesAreReportedWithTheRow() throws Exception {
+        ImportReportResponse report = importCsv(HEADER, "Sow,Awa,31/12/1990,Préventive,2024-01-01");
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(1);
+            assertThat(error.getMessage()).startsWith("Valeur invalide : ");
+        });
+    }
+
+    @Test
+    void lengthLimitCountsCharactersNotUtf16Units() throws Exception {
+        String emojis = "😀".repeat(255); // 255 characters, 510 chars in Java
+        ImportReportResponse report = importCsv(HEADER + ",birthPlace", "Diallo,Amadou,1990-01-01,Préventive,2024-01-01," + emojis);
+
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(report.getImported()).isEqualTo(1);
+    }
+
+    @Test
+    void createdDetaineesArePublishedOnceCommitted() throws Exception {
+        importCsv(HEADER, "Diallo,Amadou,1990-01-01,Préventive,2024-01-01", "Ba,Moussa,1990-01-01,Préventive,2024-01-01");
+        verify(eventStreamService, never()).detaineesImported(anyList());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Detainee>> published = ArgumentCaptor.forClass(List.class);
+        verify(eventStreamService).detaineesImported(published.capture());
+        assertThat(published.getValue()).extracting(Detainee::getId).containsExactly(100L, 101L);
+    }
+
+    @Test
+    void missingGeneratedKeysFailTheImportInsteadOfDroppingRows() {
+        keysMissing = 1;
+
+        assertThatThrownBy(() -> importCsv(HEADER,
+                "Diallo,Amadou,1990-01-01,Préventive,2024-01-01",
+                "Ba,Moussa,1990-01-01,Préventive,2024-01-01"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 identifiants générés pour 2 lignes");
+    }
+
+    private ImportReportResponse importCsv(String... lines) throws Exception {
+        byte[] bytes = String.join("\r\n", lines).getBytes(StandardCharsets.UTF_8);
+        return service.importFile(new ByteArrayInputStream(bytes), true);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.prisonmanagement.services.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    @Test
+    void slotsAreHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(new IntervalTree.Slot("T:1", 10, 20));
+
+        assertThat(tree.findOverlap(0, 10, null)).isNull();
+        assertThat(tree.findOverlap(20, 30, null)).isNull();
+        assertThat(tree.findOverlap(19, 21, null).key).isEqualTo("T:1");
+        assertThat(tree.findOverlap(12, 15, null).key).isEqualTo("T:1");
+        assertThat(tree.findOverlap(0, 100, null).key).isEqualTo("T:1");
+    }
+
+    @Test
+    void ignoredKeyIsSkippedButOtherOverlapsAreFound() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(new IntervalTree.Slot("T:1", 10, 20));
+        tree.insert(new IntervalTree.Slot("P:2", 15, 25));
+
+        assertThat(tree.findOverlap(10, 20, "T:1").key).isEqualTo("P:2");
+        assertThat(tree.findOverlap(10, 12, "T:1")).isNull();
+    }
+
+    @Test
+    void longSlotStartingEarlyIsFoundThroughTheSubtreeMaxEnd() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(new IntervalTree.Slot("T:0", 0, 1000));
+        for (int i = 1; i <= 50; i++) {
+            tree.insert(new IntervalTree.Slot("T:" + i, i * 10L, i * 10L + 5));
+        }
+
+        assertThat(tree.findOverlap(506, 509, null).key).isEqualTo("T:0");
+        assertThat(tree.findOverlap(1000, 1001, null)).isNull();
+    }
+
+    @Test
+    void insertingAnExistingKeyMovesTheSlot() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(new IntervalTree.Slot("T:1", 10, 20));
+        tree.insert(new IntervalTree.Slot("T:1", 40, 50));
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.findOverlap(10, 20, null)).isNull();
+        assertThat(tree.findOverlap(45, 46, null).key).isEqualTo("T:1");
+    }
+
+    @Test
+    void deletionsKeepTheTreeBalancedAndTheOverlapsRight() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<IntervalTree.Slot> slots = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long start = random.nextInt(100_000);
+            IntervalTree.Slot slot = new IntervalTree.Slot("T:" + i, start, start + 1 + random.nextInt(50));
+            slots.add(slot);
+            tree.insert(slot);
+        }
+        assertBalanced(tree);
+
+        // Removes inner nodes with two children as well as leaves, in random order
+        Collections.shuffle(slots, random);
+        List<IntervalTree.Slot> removed = new ArrayList<>(slots.subList(0, 700));
+        List<IntervalTree.Slot> kept = new ArrayList<>(slots.subList(700, slots.size()));
+        for (IntervalTree.Slot slot : removed) {
+            assertThat(tree.remove(slot.key)).isTrue();
+        }
+        assertThat(tree.remove("T:unknown")).isFalse();
+        assertThat(tree.size()).isEqualTo(kept.size());
+        assertBalanced(tree);
+
+        for (IntervalTree.Slot slot : removed) {
+            IntervalTree.Slot found = tree.findOverlap(slot.start, slot.end, null);
+            boolean expected = kept.stream().anyMatch(k -> k.start < slot.end && slot.start < k.end);
+            assertThat(found != null).isEqualTo(expected);
+            if (found != null) {
+                assertThat(kept).contains(found);
+                assertThat(found.start < slot.end && slot.start < found.end).isTrue();
+            }
+        }
+
+        for (IntervalTree.Slot slot : kept) {
+            tree.remove(slot.key);
+        }
+        assertThat(tree.isEmpty()).isTrue();
+        assertThat(tree.height()).isZero();
+    }
+
+    @Test
+    void keysEndingBeforeIncludesSlotsEndingExactlyAtTheCutoff() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(new IntervalTree.Slot("T:1", 0, 10));
+        tree.insert(new IntervalTree.Slot("T:2", 5, 20));
+        tree.insert(new IntervalTree.Slot("T:3", 15, 21));
+
+        assertThat(tree.keysEndingBefore(20)).containsExactlyInAnyOrder("T:1", "T:2");
+    }
+
+    // AVL bound: height < 1.45 log2(n + 2)
+    private static void assertBalanced(IntervalTree tree) {
+        double bound = 1.45 * Math.log(tree.size() + 2) / Math.log(2);
+        assertThat((double) tree.height()).isLessThan(bound);
+    }
+}
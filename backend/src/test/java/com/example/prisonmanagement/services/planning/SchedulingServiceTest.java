@@ -0,0 +1,147 @@
+package com.example.prisonmanagement.services.planning;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.ScheduleStatus;
+import com.example.prisonmanagement.models.Transfer;
+import com.example.prisonmanagement.payload.request.TransferRequest;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.PlanningRepository;
+import com.example.prisonmanagement.repositories.TransferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchedulingServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private final TransferRepository transferRepository = mock(TransferRepository.class);
+    private final DetaineeRepository detaineeRepository = mock(DetaineeRepository.class);
+    private final SchedulingService service = new SchedulingService(transferRepository,
+            mock(PlanningRepository.class), detaineeRepository, 30);
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Transfer> saved = new ConcurrentHashMap<>();
+    // Destination whose save blocks until release is counted down
+    private volatile String blockedDestination;
+    private final CountDownLatch saving = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @BeforeEach
+    void setUp() {
+        when(detaineeRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Detainee detainee = new Detainee();
+            detainee.setId(invocation.getArgument(0));
+            return Optional.of(detainee);
+        });
+        when(transferRepository.save(any(Transfer.class))).thenAnswer(invocation -> {
+            Transfer transfer = invocation.getArgument(0);
+            if (transfer.getDestination().equals(blockedDestination)) {
+                saving.countDown();
+                release.await();
+            }
+            if (transfer.getId() == null) {
+                transfer.setId(ids.incrementAndGet());
+            }
+            saved.put(transfer.getId(), transfer);
+            return transfer;
+        });
+        when(transferRepository.findWithDetaineeById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(saved.get(invocation.<Long>getArgument(0))));
+        service.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void overlappingBookingsOfASharedResourceConflict() {
+        service.createTransfer(request(7L, "Hôpital Central", "Equipe A", 0, 2));
+
+        assertThatThrownBy(() -> service.createTransfer(request(7L, "Tribunal", null, 1, 3)))
+                .isInstanceOf(ScheduleConflictException.class)
+                .hasMessageContaining("le détenu est déjà planifié")
+                .hasMessageContaining("transfert n°1");
+        assertThatThrownBy(() -> service.createTransfer(request(8L, "  hôpital   central ", null, 1, 3)))
+                .isInstanceOf(ScheduleConflictException.class)
+                .hasMessageContaining("la destination « hôpital central » est déjà réservée");
+        assertThatThrownBy(() -> service.createTransfer(request(9L, "Tribunal", "equipe a", 1, 3)))
+                .isInstanceOf(ScheduleConflictException.class)
+                .hasMessageContaining("l'équipe d'escorte « equipe a » est déjà engagée");
+
+        // Back-to-back slots do not overlap
+        assertThat(service.createTransfer(request(7L, "Hôpital Central", "Equipe A", 2, 3)).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void cancellingFreesTheSlotAndReinstatingChecksItAgain() {
+        service.createTransfer(request(7L, "Hôpital Central", null, 0, 2));
+        service.updateTransferStatus(1L, ScheduleStatus.CANCELLED);
+        service.createTransfer(request(7L, "Tribunal", null, 1, 3));
+
+        assertThatThrownBy(() -> service.updateTransferStatus(1L, ScheduleStatus.PLANNED))
+                .isInstanceOf(ScheduleConflictException.class)
+                .hasMessageContaining("transfert n°2");
+        assertThat(service.updateTransferStatus(42L, ScheduleStatus.CANCELLED)).isEmpty();
+    }
+
+    @Test
+    void bookingsOnOtherResourcesDoNotWaitForAnotherSave() throws Exception {
+        blockedDestination = "Hôpital Central";
+        Future<Transfer> blocked = executor.submit(() -> service.createTransfer(request(7L, "Hôpital Central", "Equipe A", 0, 2)));
+        assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Nothing in common with the booking being saved: goes through while it is still saving
+        Transfer other = executor.submit(() -> service.createTransfer(request(8L, "Tribunal", "Equipe B", 0, 2)))
+                .get(5, TimeUnit.SECONDS);
+        assertThat(other.getId()).isNotNull();
+        assertThat(blocked.isDone()).isFalse();
+
+        // Same escort team: waits for the save, then sees the booking and refuses
+        Future<Transfer> sharing = executor.submit(() -> service.createTransfer(request(9L, "Clinique", "Equipe A", 1, 3)));
+        assertThatThrownBy(() -> sharing.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        release.countDown();
+
+        assertThat(blocked.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThatThrownBy(() -> sharing.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ScheduleConflictException.class);
+    }
+
+    private static TransferRequest request(Long detaineeId, String destination, String escortTeam,
+                                           int startHour, int endHour) {
+        TransferRequest request = new TransferRequest();
+        request.setDetaineeId(detaineeId);
+        request.setType("Externe");
+        request.setDestination(destination);
+        request.setEscortTeam(escortTeam);
+        request.setStartTime(START.plusHours(startHour));
+        request.setEndTime(START.plusHours(endHour));
+        return request;
+    }
+}
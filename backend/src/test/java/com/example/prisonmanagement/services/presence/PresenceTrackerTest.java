@@ -0,0 +1,67 @@
+package com.example.prisonmanagement.services.presence;
+
+import com.example.prisonmanagement.services.presence.PresenceTracker.Presence;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresenceTrackerTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private long now = 1_000 * MINUTE + 5_000;
+    private final PresenceTracker tracker = new PresenceTracker(() -> now);
+
+    @Test
+    void usersAreListedMostRecentFirstWithinTheWindow() {
+        tracker.touch(1L, "alice");
+        now += 2 * MINUTE;
+        tracker.touch(2L, "bob");
+        now += 1_000;
+        tracker.touch(3L, "carla");
+
+        assertThat(tracker.activeWithin(1)).extracting(Presence::getUsername).containsExactly("carla", "bob");
+        assertThat(tracker.activeWithin(3)).extracting(Presence::getUsername).containsExactly("carla", "bob", "alice");
+    }
+
+    @Test
+    void secondTouchInTheSameMinuteKeepsTheFirstTimestamp() {
+        tracker.touch(1L, "alice");
+        long first = now;
+        now += 30_000;
+        tracker.touch(1L, "alice");
+
+        assertThat(tracker.activeWithin(1)).singleElement().extracting(Presence::getLastSeenMillis).isEqualTo(first);
+    }
+
+    @Test
+    void stalePassesOfTheWheelAreIgnoredAndSlotsReused() {
+        tracker.touch(1L, "alice");
+        // Same slot one full turn later: the old bucket must not count, and is replaced on reuse
+        now += PresenceTracker.WHEEL_MINUTES * MINUTE;
+        assertThat(tracker.activeWithin(PresenceTracker.WHEEL_MINUTES)).isEmpty();
+
+        tracker.touch(2L, "bob");
+        assertThat(tracker.activeWithin(1)).extracting(Presence::getUsername).containsExactly("bob");
+    }
+
+    @Test
+    void windowIsClampedToTheWheel() {
+        tracker.touch(1L, "alice");
+        now += (PresenceTracker.WHEEL_MINUTES - 1) * MINUTE;
+
+        assertThat(tracker.activeWithin(0)).isEmpty();
+        assertThat(tracker.activeWithin(10_000)).extracting(Presence::getUsername).containsExactly("alice");
+    }
+
+    @Test
+    void purgeForgetsUsersThatFellOffTheWheel() {
+        tracker.touch(1L, "alice");
+        now += (PresenceTracker.WHEEL_MINUTES + 1) * MINUTE;
+        tracker.purge();
+        // Back within the window, a purged user is not resurrected from the old bucket
+        now -= 2 * MINUTE;
+
+        assertThat(tracker.activeWithin(PresenceTracker.WHEEL_MINUTES)).isEmpty();
+    }
+}
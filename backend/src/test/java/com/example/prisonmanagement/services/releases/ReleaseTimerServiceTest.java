@@ -0,0 +1,120 @@
+package com.example.prisonmanagement.services.releases;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.payload.response.UpcomingReleaseResponse;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.services.events.EventStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReleaseTimerServiceTest {
+
+    private final DetaineeRepository detaineeRepository = mock(DetaineeRepository.class);
+    private final EventStreamService eventStreamService = mock(EventStreamService.class);
+    private LocalDate today = LocalDate.of(2024, 6, 1);
+    private final ReleaseTimerService service = new ReleaseTimerService(detaineeRepository, eventStreamService,
+            new int[]{30, 7, 1}, () -> today);
+
+    private final List<UpcomingReleaseResponse> alerts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> alerts.add(invocation.getArgument(0))).when(eventStreamService).releaseDue(any());
+        when(detaineeRepository.findPendingReleases(DetaineeStatus.REJECTED)).thenReturn(List.of(
+                new Object[]{1L, "Diallo", "Amadou", "Élevé", LocalDate.of(2024, 6, 5)},
+                new Object[]{2L, "Ba", "Moussa", null, LocalDate.of(2024, 8, 1)},
+                new Object[]{3L, "Sy", "Awa", "Faible", LocalDate.of(2024, 5, 20)}));
+    }
+
+    @Test
+    void loadSendsOnlyTheMostUrgentAlertAlreadyReached() {
+        assertThat(service.load()).isEqualTo(3);
+
+        assertThat(alerts).extracting(UpcomingReleaseResponse::getDetaineeId, UpcomingReleaseResponse::getDaysLeft,
+                UpcomingReleaseResponse::isOverdue).containsExactly(tuple(1L, 4L, false), tuple(3L, -12L, true));
+    }
+
+    @Test
+    void tickFiresDueTimersOnceAndCatchesUpMissedDays() {
+        service.load();
+        alerts.clear();
+
+        service.tick();
+        assertThat(alerts).isEmpty();
+
+        today = LocalDate.of(2024, 6, 4);
+        service.tick();
+        assertThat(alerts).extracting(UpcomingReleaseResponse::getDetaineeId, UpcomingReleaseResponse::getDaysLeft)
+                .containsExactly(tuple(1L, 1L));
+        alerts.clear();
+
+        // Ticks missed until mid-July: one alert per detainee, the most urgent reached
+        today = LocalDate.of(2024, 7, 10);
+        service.tick();
+        service.tick();
+        assertThat(alerts).extracting(UpcomingReleaseResponse::getDetaineeId, UpcomingReleaseResponse::isOverdue)
+                .containsExactly(tuple(1L, true), tuple(2L, false));
+    }
+
+    @Test
+    void upcomingListsOverdueFirstThenByDate() {
+        service.load();
+
+        assertThat(service.upcoming(7)).extracting(UpcomingReleaseResponse::getDetaineeId).containsExactly(3L, 1L);
+        assertThat(service.upcoming(61)).extracting(UpcomingReleaseResponse::getDetaineeId).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void detaineeWritesMoveOrDropTheDeadline() {
+        service.load();
+        alerts.clear();
+
+        // Same date: the alert already sent is not repeated, the name is refreshed
+        Detainee renamed = detainee(1L, LocalDate.of(2024, 6, 5));
+        renamed.setLastName("Diallo-Ba");
+        service.detaineeChanged(renamed);
+        assertThat(alerts).isEmpty();
+        assertThat(service.upcoming(7)).extracting(UpcomingReleaseResponse::getLastName).contains("Diallo-Ba");
+
+        // New date: alerts start over
+        service.detaineeChanged(detainee(2L, LocalDate.of(2024, 6, 2)));
+        assertThat(alerts).extracting(UpcomingReleaseResponse::getDetaineeId, UpcomingReleaseResponse::getDaysLeft)
+                .containsExactly(tuple(2L, 1L));
+
+        Detainee released = detainee(3L, LocalDate.of(2024, 5, 20));
+        released.setReleaseDate(LocalDate.of(2024, 5, 31));
+        service.detaineeChanged(released);
+        Detainee rejected = detainee(1L, LocalDate.of(2024, 6, 5));
+        rejected.setStatus(DetaineeStatus.REJECTED);
+        service.detaineeChanged(rejected);
+        assertThat(service.upcoming(365)).extracting(UpcomingReleaseResponse::getDetaineeId).containsExactly(2L);
+
+        // Dropped deadlines leave no timer behind
+        alerts.clear();
+        today = LocalDate.of(2024, 12, 31);
+        service.tick();
+        assertThat(alerts).extracting(UpcomingReleaseResponse::getDetaineeId).containsExactly(2L);
+    }
+
+    private static Detainee detainee(Long id, LocalDate expectedEndDate) {
+        Detainee detainee = new Detainee();
+        detainee.setId(id);
+        detainee.setLastName("Nom" + id);
+        detainee.setFirstName("Prénom" + id);
+        detainee.setStatus(DetaineeStatus.VALIDATED);
+        detainee.setExpectedEndDate(expectedEndDate);
+        return detainee;
+    }
+}
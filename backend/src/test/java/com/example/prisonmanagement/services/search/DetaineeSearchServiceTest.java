@@ -0,0 +1,123 @@
+package com.example.prisonmanagement.services.search;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.payload.response.DetaineeSearchHit;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.projections.DetaineeSearchFields;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DetaineeSearchServiceTest {
+
+    private final DetaineeRepository repository = mock(DetaineeRepository.class);
+    private final DetaineeSearchService service = new DetaineeSearchService(repository);
+
+    @Test
+    void tokenizeStripsAccentsCaseAndSeparators() {
+        assertThat(DetaineeSearchService.tokenize("  Éloïse-Marie N'Diaye ")).containsExactly("eloise", "marie", "n", "diaye");
+        assertThat(DetaineeSearchService.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void prefixesAndTyposMatchAndExactMatchesRankFirst() {
+        when(repository.findAllSearchFields()).thenReturn(List.of(
+                fields(1L, "Diallo", "Amadou", "SN-123"),
+                fields(2L, "Diala", "Moussa", "SN-456"),
+                fields(3L, "Traoré", "Awa", "ML-789")));
+        service.rebuild();
+
+        assertThat(ids(service.search("dial", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(service.search("traore", 10))).containsExactly(3L);
+        assertThat(ids(service.search("Dialo", 10))).startsWith(1L); // missing letter
+
+        List<DetaineeSearchHit> hits = service.search("diallo amadou", 10);
+        assertThat(hits.get(0).getId()).isEqualTo(1L);
+        assertThat(hits.get(0).getScore()).isEqualTo(1.0);
+        assertThat(hits).allSatisfy(hit -> assertThat(hit.getScore()).isGreaterThanOrEqualTo(0.5));
+    }
+
+    @Test
+    void unrelatedQueriesAndBlankQueriesReturnNothing() {
+        when(repository.findAllSearchFields()).thenReturn(List.of(fields(1L, "Diallo", "Amadou", "SN-123")));
+        service.rebuild();
+
+        assertThat(service.search("zzzz", 10)).isEmpty();
+        assertThat(service.search(" - ", 10)).isEmpty();
+    }
+
+    @Test
+    void reindexingReplacesTheOldTokensAndLimitIsApplied() {
+        when(repository.findAllSearchFields()).thenReturn(List.of(
+                fields(1L, "Diallo", "Amadou", null), fields(2L, "Diallo", "Binta", null)));
+        service.rebuild();
+
+        service.index(detainee(1L, "Keita"));
+
+        assertThat(ids(service.search("keita", 10))).containsExactly(1L);
+        assertThat(ids(service.search("diallo", 10))).containsExactly(2L);
+        assertThat(service.search("diallo", 0)).hasSize(1);
+    }
+
+    @Test
+    void savesMadeWhileTheRebuildReadsTheTableAreNotLost() {
+        when(repository.findAllSearchFields()).thenAnswer(invocation -> {
+            // Saved after the snapshot was taken: neither change is in the rows returned below
+            service.index(detainee(2L, "Keita"));
+            service.index(detainee(3L, "Sow"));
+            return List.of(fields(1L, "Diallo", "Amadou", null), fields(2L, "Camara", "Binta", null));
+        });
+
+        service.rebuild();
+
+        assertThat(ids(service.search("keita", 10))).containsExactly(2L);
+        assertThat(service.search("camara", 10)).isEmpty();
+        assertThat(ids(service.search("sow", 10))).containsExactly(3L);
+        assertThat(ids(service.search("diallo", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void failedRebuildKeepsTheCurrentIndex() {
+        when(repository.findAllSearchFields())
+                .thenReturn(List.of(fields(1L, "Diallo", "Amadou", null)))
+                .thenThrow(new IllegalStateException("database down"));
+        service.rebuild();
+
+        assertThatThrownBy(service::rebuild).isInstanceOf(IllegalStateException.class);
+        service.index(detainee(4L, "Keita"));
+
+        assertThat(ids(service.search("diallo", 10))).containsExactly(1L);
+        assertThat(ids(service.search("keita", 10))).containsExactly(4L);
+    }
+
+    private static List<Long> ids(List<DetaineeSearchHit> hits) {
+        return hits.stream().map(DetaineeSearchHit::getId).toList();
+    }
+
+    private static Detainee detainee(Long id, String lastName) {
+        Detainee detainee = new Detainee();
+        detainee.setId(id);
+        detainee.setLastName(lastName);
+        detainee.setFirstName("X");
+        detainee.setStatus(DetaineeStatus.VALIDATED);
+        return detainee;
+    }
+
+    private static DetaineeSearchFields fields(Long id, String lastName, String firstName, String idNumber) {
+        return new DetaineeSearchFields() {
+            public Long getId() { return id; }
+            public String getLastName() { return lastName; }
+            public String getFirstName() { return firstName; }
+            public String getIdentificationNumber() { return idNumber; }
+            public String getNationality() { return null; }
+            public String getBirthPlace() { return null; }
+            public DetaineeStatus getStatus() { return DetaineeStatus.VALIDATED; }
+        };
+    }
+}
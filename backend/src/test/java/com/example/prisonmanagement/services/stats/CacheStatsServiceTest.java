@@ -0,0 +1,51 @@
+package com.example.prisonmanagement.services.stats;
+
+import com.example.prisonmanagement.payload.response.CacheStatsResponse;
+import com.example.prisonmanagement.payload.response.CacheStatsResponse.RegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheStatsServiceTest {
+
+    @Test
+    void regionsAreSortedWithTheirHitRatioAndQueryCacheTotals() {
+        Statistics statistics = mock(Statistics.class);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"roles", "detainees", "gone"});
+        CacheRegionStatistics detainees = region(30, 10, 12);
+        CacheRegionStatistics roles = region(0, 0, 0);
+        when(statistics.getCacheRegionStatistics("detainees")).thenReturn(detainees);
+        when(statistics.getCacheRegionStatistics("roles")).thenReturn(roles);
+        when(statistics.getQueryCacheHitCount()).thenReturn(5L);
+        when(statistics.getQueryCacheMissCount()).thenReturn(2L);
+        when(statistics.getQueryCachePutCount()).thenReturn(2L);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+
+        CacheStatsResponse stats = new CacheStatsService(entityManagerFactory).snapshot();
+
+        // "gone" has no statistics (region dropped) and is left out
+        assertThat(stats.getRegions()).containsExactly(
+                new RegionStats("detainees", 30, 10, 12, 0.75),
+                new RegionStats("roles", 0, 0, 0, 0));
+        assertThat(stats.getQueryCacheHits()).isEqualTo(5);
+        assertThat(stats.getQueryCacheMisses()).isEqualTo(2);
+        assertThat(stats.getQueryCachePuts()).isEqualTo(2);
+    }
+
+    private static CacheRegionStatistics region(long hits, long misses, long puts) {
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(hits);
+        when(region.getMissCount()).thenReturn(misses);
+        when(region.getPutCount()).thenReturn(puts);
+        return region;
+    }
+}
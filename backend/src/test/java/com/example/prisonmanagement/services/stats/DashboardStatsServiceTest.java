@@ -0,0 +1,84 @@
+package com.example.prisonmanagement.services.stats;
+
+import com.example.prisonmanagement.models.Detainee;
+import com.example.prisonmanagement.models.DetaineeStatus;
+import com.example.prisonmanagement.models.UserStatus;
+import com.example.prisonmanagement.payload.response.DashboardStatsResponse;
+import com.example.prisonmanagement.repositories.DetaineeRepository;
+import com.example.prisonmanagement.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardStatsServiceTest {
+
+    private final DetaineeRepository detaineeRepository = mock(DetaineeRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final DashboardStatsService service = new DashboardStatsService(detaineeRepository, userRepository);
+
+    @BeforeEach
+    void seed() {
+        when(detaineeRepository.countGroupedForDashboard()).thenReturn(List.of(
+                new Object[]{DetaineeStatus.VALIDATED, "Élevé", "Condamnation", 3L},
+                new Object[]{DetaineeStatus.VALIDATED, "Faible", "Condamnation", 2L},
+                new Object[]{DetaineeStatus.PENDING_VALIDATION, null, "Préventive", 4L}));
+        when(userRepository.countGroupedByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{UserStatus.ACTIVE, 5L}, new Object[]{UserStatus.SUSPENDED, 1L}));
+        service.seed();
+    }
+
+    @Test
+    void seedAggregatesTheGroupedRowsPerDimension() {
+        DashboardStatsResponse stats = service.snapshot();
+
+        assertThat(stats.getTotalDetainees()).isEqualTo(9);
+        assertThat(stats.getPendingValidation()).isEqualTo(4);
+        assertThat(stats.getDetaineesByStatus()).isEqualTo(Map.of("VALIDATED", 5L, "PENDING_VALIDATION", 4L));
+        assertThat(stats.getDetaineesBySecurityLevel())
+                .isEqualTo(Map.of("Élevé", 3L, "Faible", 2L, "Non renseigné", 4L));
+        assertThat(stats.getDetaineesByDetentionType()).isEqualTo(Map.of("Condamnation", 5L, "Préventive", 4L));
+        assertThat(stats.getTotalUsers()).isEqualTo(6);
+        assertThat(stats.getUsersByStatus()).isEqualTo(Map.of("ACTIVE", 5L, "SUSPENDED", 1L));
+    }
+
+    @Test
+    void writesMoveTheCountersAndEmptyBucketsDisappear() {
+        Detainee detainee = new Detainee();
+        detainee.setStatus(DetaineeStatus.PENDING_VALIDATION);
+        detainee.setSecurityLevel("Moyen");
+        detainee.setDetentionType("Préventive");
+        service.detaineeCreated(detainee);
+        for (int i = 0; i < 5; i++) {
+            service.detaineeStatusChanged(DetaineeStatus.PENDING_VALIDATION, DetaineeStatus.REJECTED);
+        }
+        service.detaineeStatusChanged(DetaineeStatus.VALIDATED, DetaineeStatus.VALIDATED);
+        service.userCreated(UserStatus.SUSPENDED);
+        service.userStatusChanged(UserStatus.SUSPENDED, UserStatus.ACTIVE);
+        service.userStatusChanged(UserStatus.SUSPENDED, UserStatus.ACTIVE);
+
+        DashboardStatsResponse stats = service.snapshot();
+
+        assertThat(stats.getTotalDetainees()).isEqualTo(10);
+        assertThat(stats.getPendingValidation()).isZero();
+        assertThat(stats.getDetaineesByStatus()).isEqualTo(Map.of("VALIDATED", 5L, "REJECTED", 5L));
+        assertThat(stats.getDetaineesBySecurityLevel()).containsEntry("Moyen", 1L);
+        assertThat(stats.getDetaineesByDetentionType()).containsEntry("Préventive", 5L);
+        assertThat(stats.getUsersByStatus()).isEqualTo(Map.of("ACTIVE", 7L));
+    }
+
+    @Test
+    void reseedingReplacesTheCounters() {
+        service.userCreated(UserStatus.ACTIVE);
+        when(userRepository.countGroupedByStatus()).thenReturn(List.<Object[]>of(new Object[]{UserStatus.ACTIVE, 2L}));
+
+        service.seed();
+
+        assertThat(service.snapshot().getUsersByStatus()).isEqualTo(Map.of("ACTIVE", 2L));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.prisonmanagement.services.stats;
+
+import com.example.prisonmanagement.models.Incident;
+import com.example.prisonmanagement.payload.response.IncidentRollupResponse;
+import com.example.prisonmanagement.payload.response.IncidentRollupResponse.Bucket;
+import com.example.prisonmanagement.repositories.IncidentRepository;
+import com.example.prisonmanagement.services.stats.IncidentRollupService.Dimension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IncidentRollupServiceTest {
+
+    private final IncidentRepository incidentRepository = mock(IncidentRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final IncidentRollupService service = new IncidentRollupService(incidentRepository, transactionManager);
+
+    @BeforeEach
+    void seed() {
+        // year, month, day, hour, location, type, gravity, count
+        when(incidentRepository.countGroupedByHour()).thenReturn(List.of(
+                new Object[]{2024, 3, 1, 8, "Cour", "Bagarre", "Grave", 2L},
+                new Object[]{2024, 3, 1, 22, "Cellule", "Fouille", null, 1L},
+                new Object[]{2024, 3, 2, 8, "Cour", "Bagarre", "Mineur", 3L},
+                new Object[]{2024, 4, 10, 13, "Cour", "Fouille", "Grave", 4L}));
+        assertThat(service.rebuild()).isEqualTo(10);
+    }
+
+    @Test
+    void openQueryUsesDailyBucketsAndSumsUnlistedDimensions() {
+        IncidentRollupResponse rollup = service.query(null, null, List.of(Dimension.LOCATION));
+
+        assertThat(rollup.getResolution()).isEqualTo("day");
+        assertThat(rollup.getTotal()).isEqualTo(10);
+        assertThat(rollup.getGroupBy()).containsExactly("location");
+        assertThat(rollup.getBuckets()).extracting(Bucket::getLocation, Bucket::getType, Bucket::getCount)
+                .containsExactly(tuple("Cellule", null, 1L), tuple("Cour", null, 9L));
+    }
+
+    @Test
+    void periodsAreTruncatedToDayAndMonth() {
+        assertThat(service.query(null, null, List.of(Dimension.MONTH)).getBuckets())
+                .extracting(Bucket::getPeriod, Bucket::getCount)
+                .containsExactly(tuple(at(2024, 3, 1, 0, 0), 6L), tuple(at(2024, 4, 1, 0, 0), 4L));
+        assertThat(service.query(at(2024, 3, 1, 0, 0), at(2024, 3, 3, 0, 0), List.of(Dimension.DAY, Dimension.GRAVITY))
+                .getBuckets())
+                .extracting(Bucket::getPeriod, Bucket::getGravity, Bucket::getCount)
+                .containsExactly(tuple(at(2024, 3, 1, 0, 0), null, 1L), tuple(at(2024, 3, 1, 0, 0), "Grave", 2L),
+                        tuple(at(2024, 3, 2, 0, 0), "Mineur", 3L));
+    }
+
+    @Test
+    void boundsOffMidnightSwitchToHourlyBucketsRoundedOutward() {
+        // 09:30 rounds down to 09:00, which leaves out the 08:00 bucket of 1 March
+        IncidentRollupResponse fromMorning = service.query(at(2024, 3, 1, 9, 30), null, List.of());
+        assertThat(fromMorning.getResolution()).isEqualTo("hour");
+        assertThat(fromMorning.getTotal()).isEqualTo(8);
+
+        // 08:10 rounds up to 09:00, which keeps the 08:00 bucket
+        assertThat(service.query(at(2024, 3, 1, 0, 0), at(2024, 3, 1, 8, 10), List.of()).getTotal()).isEqualTo(2);
+        // The end bound is exclusive
+        assertThat(service.query(at(2024, 3, 1, 0, 0), at(2024, 3, 1, 8, 0), List.of()).getTotal()).isZero();
+    }
+
+    @Test
+    void cyclicDimensionsGroupAcrossDays() {
+        assertThat(service.query(null, null, List.of(Dimension.HOUR_OF_DAY)).getBuckets())
+                .extracting(Bucket::getHourOfDay, Bucket::getCount)
+                .containsExactly(tuple(8, 5L), tuple(13, 4L), tuple(22, 1L));
+        assertThat(service.query(null, null, List.of(Dimension.DAY_OF_WEEK)).getBuckets())
+                .extracting(Bucket::getDayOfWeek, Bucket::getCount)
+                .containsExactly(tuple(DayOfWeek.WEDNESDAY, 4L), tuple(DayOfWeek.FRIDAY, 3L), tuple(DayOfWeek.SATURDAY, 3L));
+    }
+
+    @Test
+    void newIncidentsAreCountedInBothSeries() {
+        Incident incident = new Incident();
+        incident.setDate(at(2024, 3, 1, 8, 45));
+        incident.setLocation("Cour");
+        incident.setType("Bagarre");
+        incident.setGravity("Grave");
+        service.incidentCreated(incident);
+        service.incidentCreated(new Incident());
+
+        assertThat(service.query(at(2024, 3, 1, 0, 0), at(2024, 3, 2, 0, 0), List.of()).getTotal()).isEqualTo(4);
+        assertThat(service.query(at(2024, 3, 1, 8, 0), at(2024, 3, 1, 9, 0), List.of(Dimension.HOUR)).getBuckets())
+                .singleElement().extracting(Bucket::getCount).isEqualTo(3L);
+    }
+
+    @Test
+    void incidentsCreatedDuringARebuildAreCountedOnce() {
+        Incident unseen = incident(100L, at(2024, 3, 1, 8, 10));
+        Incident seen = incident(101L, at(2024, 3, 1, 8, 20));
+        List<Object[]> rows = List.<Object[]>of(
+                new Object[]{2024, 3, 1, 8, "Cour", "Bagarre", "Grave", 3L}); // includes incident 101
+        // Both incidents are saved while the GROUP BY runs; only 101 was committed in time for it
+        when(incidentRepository.countGroupedByHour()).thenAnswer(invocation -> {
+            service.incidentCreated(unseen);
+            service.incidentCreated(seen);
+            return rows;
+        });
+        when(incidentRepository.findExistingIds(anyCollection())).thenReturn(List.of(101L));
+
+        assertThat(service.rebuild()).isEqualTo(4);
+        assertThat(service.query(null, null, List.of()).getTotal()).isEqualTo(4);
+
+        // After the rebuild, creations go straight to the new series
+        service.incidentCreated(incident(102L, at(2024, 3, 1, 8, 30)));
+        assertThat(service.query(null, null, List.of()).getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void rebuildReadsInOneRepeatableReadSnapshot() {
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+
+        assertThat(definition.getValue().getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+    }
+
+    @Test
+    void invalidQueriesAreRejected() {
+        assertThatThrownBy(() -> service.query(null, null, List.of(Dimension.DAY, Dimension.MONTH)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Un seul découpage temporel");
+        assertThatThrownBy(() -> service.query(at(2024, 3, 2, 0, 0), at(2024, 3, 1, 0, 0), List.of()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("'from' doit précéder 'to'");
+        assertThat(Dimension.from(" hourOfDay ")).isEqualTo(Dimension.HOUR_OF_DAY);
+        assertThatThrownBy(() -> Dimension.from("week")).hasMessageContaining("Regroupement inconnu 'week'");
+    }
+
+    private static Incident incident(Long id, LocalDateTime date) {
+        Incident incident = new Incident();
+        incident.setId(id);
+        incident.setDate(date);
+        incident.setLocation("Cour");
+        incident.setType("Bagarre");
+        incident.setGravity("Grave");
+        return incident;
+    }
+
+    private static LocalDateTime at(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+}